@@ -2,23 +2,124 @@ package abstraction;
 
 /**
  * Instances of this class represent playcards.
+ * There are exactly 52 instances of this class, one for each suit and rank. They are
+ * obtained with {@link #of(Suit, Rank)} or {@link #fromOrdinal(int)}, so two cards are
+ * equal if and only if they are the same object.
+ * Every card also has an ordinal in the range 0..51 which is small enough to be stored in a
+ * {@code byte}. {@link #NO_CARD} is the ordinal used to represent the absence of a card,
+ * e.g. the top card of an empty pile.
  */
-public class Card {
+public final class Card {
 	/**
-	 * _suit - representation of suit of a {@code Card} instance.
-	 * _rank - representation of rank of a {@code Card} instance.
+	 * Constants
+	 *
+	 * NUM_CARDS - the number of distinct cards.
+	 * NO_CARD   - the ordinal that represents no card.
+	 * CARDS     - the canonical instances indexed by their ordinals.
 	 */
-	private Suit _suit;
-	private Rank _rank;
+	public static final int  NUM_CARDS = 52;
+	public static final byte NO_CARD   = -1;
+	private static final Card [] CARDS = new Card[NUM_CARDS];
+
+	static {
+		for(Suit suit : Suit.values()) {
+			for(Rank rank : Rank.values()) {
+				Card card = new Card(suit, rank);
+				CARDS[card._ordinal] = card;
+			}
+		}
+	}
+
+	/**
+	 * _suit    - representation of suit of a {@code Card} instance.
+	 * _rank    - representation of rank of a {@code Card} instance.
+	 * _ordinal - the position of this card in the canonical table.
+	 * _name    - the cached value of {@link #toString()}.
+	 */
+	private final Suit   _suit;
+	private final Rank   _rank;
+	private final byte   _ordinal;
+	private final String _name;
 
 	/**
-	 * Create an instance of {@link Card}.
+	 * Create an instance of {@link Card}. Only the static initializer creates cards.
 	 * @param suit - the {@link Suit} of the {@link Card} that is being created.
 	 * @param rank - the rank of the card that is being created.
 	 */
-	public Card(Suit suit, Rank rank) {
-		_suit = suit;
-		_rank = rank;
+	private Card(Suit suit, Rank rank) {
+		_suit    = suit;
+		_rank    = rank;
+		_ordinal = (byte) ordinal(suit, rank);
+		_name    = rank.rank() + suit.suit();
+	}
+
+	/**
+	 * Returns the canonical instance of the card with the given suit and rank.
+	 * @param suit - the suit of the card.
+	 * @param rank - the rank of the card.
+	 * @return the card with the given suit and rank.
+	 * @throws IllegalArgumentException if either argument is {@code null}.
+	 */
+	public static Card of(Suit suit, Rank rank) {
+		if(suit == null || rank == null) {
+			throw new IllegalArgumentException("Suit and rank can not be null.");
+		}
+		return CARDS[ordinal(suit, rank)];
+	}
+
+	/**
+	 * Returns the card with the given ordinal. {@link #NO_CARD} maps to {@code null}
+	 * so that an ordinal read from an empty pile converts back to the usual representation.
+	 * @param ordinal - the ordinal of the card.
+	 * @return the card with the given ordinal, or {@code null} if ordinal is {@link #NO_CARD}.
+	 * @throws IllegalArgumentException if ordinal is neither a valid ordinal nor {@link #NO_CARD}.
+	 */
+	public static Card fromOrdinal(int ordinal) {
+		if(ordinal == NO_CARD) {
+			return null;
+		}
+		if(ordinal < 0 || ordinal >= NUM_CARDS) {
+			throw new IllegalArgumentException("Ordinal must be in the range 0..51.");
+		}
+		return CARDS[ordinal];
+	}
+
+	/**
+	 * Returns the ordinal of a card, or {@link #NO_CARD} if card is {@code null}.
+	 * @param card - the card, may be {@code null}.
+	 * @return the ordinal of the card.
+	 */
+	public static byte ordinalOf(Card card) {
+		return card == null ? NO_CARD : card._ordinal;
+	}
+
+	/**
+	 * @param ordinal - the ordinal of a card.
+	 * @return the {@code int} value of the rank of that card.
+	 */
+	public static int rankOf(int ordinal) {
+		return ordinal % 13 + 1;
+	}
+
+	/**
+	 * @param ordinal - the ordinal of a card.
+	 * @return the index of the {@link Suit} of that card in {@code Suit.values()}.
+	 */
+	public static int suitOf(int ordinal) {
+		return ordinal / 13;
+	}
+
+	/**
+	 * @param ordinal - the ordinal of a card.
+	 * @return whether the suit of that card is red.
+	 */
+	public static boolean isRed(int ordinal) {
+		int suit = ordinal / 13;
+		return suit == 1 || suit == 2; // DIAMOND and HEART
+	}
+
+	private static int ordinal(Suit suit, Rank rank) {
+		return suit.ordinal() * 13 + rank.ordinal();
 	}
 
 	/**
@@ -41,29 +142,38 @@ public class Card {
 	public int getRank() {
 		return _rank.rank();
 	}
-	
+
+	/**
+	 * @return the ordinal, in the range 0..51, of this instance of {@link Card}.
+	 */
+	public byte getOrdinal() {
+		return _ordinal;
+	}
+
 	/**
 	 * Compare this object with another object and determine whether they are the same.
+	 * Since cards are canonical, this is an identity comparison.
 	 * @param obj - the reference object with which to compare.
 	 * @return True if this object is the same as argument obj; false otherwise.
 	 */
 	@Override
 	public boolean equals(Object obj) {
-		if(obj == null) {
-			return false;
-		}
-		
-		String suit = _suit.suit();
-		int rank = _rank.rank();
-		Card other = (Card)obj;
-		return (other.getRank() == rank) && (suit.equals(other.getSuit()));
+		return this == obj;
 	}
-	
+
+	/**
+	 * @return the ordinal of this card.
+	 */
+	@Override
+	public int hashCode() {
+		return _ordinal;
+	}
+
 	/**
 	 * @return A {@code String} representation of the object
 	 */
 	@Override
 	public String toString() {
-		return _rank.rank() + _suit.suit();
+		return _name;
 	}
 }
@@ -10,29 +10,29 @@ import abstraction.Suit;
 
 public class CardTest {
 	@Test
-	public void testEqualsWithDifferentInstances() {
+	public void testEqualsWithDifferentLookups() {
 		assertTrue("Comparing three of clubs with three of clubs; the result should be true but I got false",
-				new Card(Suit.CLUB, Rank.THREE).equals(new Card(Suit.CLUB, Rank.THREE)));
+				Card.of(Suit.CLUB, Rank.THREE).equals(Card.of(Suit.CLUB, Rank.THREE)));
 		assertTrue("Comparing five of diamonds with five of diamonds; the result should be true but I got false",
-				new Card(Suit.DIAMOND, Rank.FIVE).equals(new Card(Suit.DIAMOND, Rank.FIVE)));
+				Card.of(Suit.DIAMOND, Rank.FIVE).equals(Card.of(Suit.DIAMOND, Rank.FIVE)));
 		assertTrue("Comparing seven of hearts with seven of hearts; the result should be true but I got false",
-				new Card(Suit.HEART, Rank.SEVEN).equals(new Card(Suit.HEART, Rank.SEVEN)));
+				Card.of(Suit.HEART, Rank.SEVEN).equals(Card.of(Suit.HEART, Rank.SEVEN)));
 		assertTrue("Comparing king of spades with king of spades; the result should be true but I got false",
-				new Card(Suit.SPADE, Rank.KING).equals(new Card(Suit.SPADE, Rank.KING)));
+				Card.of(Suit.SPADE, Rank.KING).equals(Card.of(Suit.SPADE, Rank.KING)));
 		assertFalse("Comparing two of spades with three of spades; the result should be false but I got true",
-				new Card(Suit.SPADE, Rank.TWO).equals(new Card(Suit.SPADE, Rank.THREE)));
+				Card.of(Suit.SPADE, Rank.TWO).equals(Card.of(Suit.SPADE, Rank.THREE)));
 		assertFalse("Comparing queen of diamonds with queen of heart; the result should be false but I got true",
-				new Card(Suit.DIAMOND, Rank.QUEEN).equals(new Card(Suit.HEART, Rank.QUEEN)));
+				Card.of(Suit.DIAMOND, Rank.QUEEN).equals(Card.of(Suit.HEART, Rank.QUEEN)));
 		assertFalse("Comparing jack of spades with ace with hearts; the result should be false but I got true",
-				new Card(Suit.SPADE, Rank.JACK).equals(new Card(Suit.HEART, Rank.ACE)));
+				Card.of(Suit.SPADE, Rank.JACK).equals(Card.of(Suit.HEART, Rank.ACE)));
 	}
 	
 	@Test
 	public void testEqualsWithSameInstances() {
-		Card tenOfClubs = new Card(Suit.CLUB, Rank.TEN);
-		Card nineOfHearts = new Card(Suit.HEART, Rank.NINE);
-		Card fourOfDiamonds = new Card(Suit.DIAMOND, Rank.FOUR);
-		Card eightOfSpades = new Card(Suit.SPADE, Rank.EIGHT);
+		Card tenOfClubs = Card.of(Suit.CLUB, Rank.TEN);
+		Card nineOfHearts = Card.of(Suit.HEART, Rank.NINE);
+		Card fourOfDiamonds = Card.of(Suit.DIAMOND, Rank.FOUR);
+		Card eightOfSpades = Card.of(Suit.SPADE, Rank.EIGHT);
 		
 		assertTrue("Comparing ten of clubs with itself; the result should be true but I got false",
 				tenOfClubs.equals(tenOfClubs));
@@ -47,19 +47,66 @@ public class CardTest {
 	@Test
 	public void testEqualsWithNull() {
 		assertFalse("Comparing ace of hearts with null; the result should be false but I got true",
-				new Card(Suit.HEART, Rank.ACE).equals(null));
+				Card.of(Suit.HEART, Rank.ACE).equals(null));
 		assertFalse("Comparing two of clubs with null; the result should be false but I got true",
-				new Card(Suit.CLUB, Rank.TWO).equals(null));
+				Card.of(Suit.CLUB, Rank.TWO).equals(null));
 		assertFalse("Comparing six of spades with null; the result should be false but I got true",
-				new Card(Suit.SPADE, Rank.SIX).equals(null));
+				Card.of(Suit.SPADE, Rank.SIX).equals(null));
 		assertFalse("Comparing seven of diamonds with null; the result should be false but I got true",
-				new Card(Suit.DIAMOND, Rank.SEVEN).equals(null));
+				Card.of(Suit.DIAMOND, Rank.SEVEN).equals(null));
 	}
 	
 	@Test
 	public void testToString() {
-		assertEquals(new Card(Suit.CLUB, Rank.ACE).toString(), "1club");
-		assertEquals(new Card(Suit.DIAMOND, Rank.KING).toString(), "13diamond");
-		assertEquals(new Card(Suit.HEART, Rank.JACK).toString(), "11heart");
+		assertEquals(Card.of(Suit.CLUB, Rank.ACE).toString(), "1club");
+		assertEquals(Card.of(Suit.DIAMOND, Rank.KING).toString(), "13diamond");
+		assertEquals(Card.of(Suit.HEART, Rank.JACK).toString(), "11heart");
+	}
+	
+	@Test
+	public void testOfReturnsCanonicalInstance() {
+		for(Suit suit : Suit.values()) {
+			for(Rank rank : Rank.values()) {
+				assertSame("Card.of() must always return the same instance for " + suit + " " + rank,
+						Card.of(suit, rank), Card.of(suit, rank));
+			}
+		}
+	}
+	
+	@Test
+	public void testOrdinals() {
+		boolean [] seen = new boolean[Card.NUM_CARDS];
+		for(Suit suit : Suit.values()) {
+			for(Rank rank : Rank.values()) {
+				Card card = Card.of(suit, rank);
+				int ordinal = card.getOrdinal();
+				assertTrue("Ordinals must be in the range 0..51", ordinal >= 0 && ordinal < Card.NUM_CARDS);
+				assertFalse("Every card must have a unique ordinal but I got 2 or more " + ordinal, seen[ordinal]);
+				seen[ordinal] = true;
+				assertSame("fromOrdinal() must return the card with that ordinal", card, Card.fromOrdinal(ordinal));
+				assertEquals("hashCode() must be consistent with the ordinal", ordinal, card.hashCode());
+				assertEquals("rankOf() must agree with getRank()", card.getRank(), Card.rankOf(ordinal));
+				assertEquals("suitOf() must agree with the suit", suit.ordinal(), Card.suitOf(ordinal));
+				assertEquals("isRed() must agree with getColor()", card.getColor().equals("red"), Card.isRed(ordinal));
+			}
+		}
+		assertNull("NO_CARD represents the absence of a card", Card.fromOrdinal(Card.NO_CARD));
+		assertEquals("A null card has the ordinal NO_CARD", Card.NO_CARD, Card.ordinalOf(null));
+	}
+	
+	@Test
+	public void testFromOrdinalWithBadInputs() {
+		try {
+			Card.fromOrdinal(52);
+			fail("52 is not a valid ordinal, IllegalArgumentException expected");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			Card.fromOrdinal(-2);
+			fail("-2 is not a valid ordinal, IllegalArgumentException expected");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
 	}
 }
@@ -2,6 +2,13 @@ package controller;
 
 import java.awt.event.MouseListener;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
 
 import abstraction.Card;
 import factory.GameBoardFactory;
@@ -9,12 +16,22 @@ import model.AcesUpGame;
 import model.BakersDozenGame;
 import model.FreecellGame;
 import model.Game;
+import model.GameState;
+import model.Move;
 import model.Piles;
+import session.GameOverEvent;
+import session.GameSession;
+import session.MoveRejectedEvent;
+import session.PilesChangedEvent;
+import session.SessionListener;
+import session.SessionRegistry;
+import solver.HintSearch;
 import ui.UI;
 
 /**
  * A controller is an interface between model and UI. Users can use it to
- * manipulate data stored in model.
+ * manipulate data stored in model. Each controller plays its own games, so one process can run
+ * several of them, e.g. one per window.
  * @author Feng Mao Tsai (Frank)
  * @author Edwin Chiu    (Edwin)
  * @author Mehmet Ozel   (Mehmet)
@@ -24,42 +41,106 @@ import ui.UI;
  * Controller is a good example for strategy pattern FYI
  */
 public class Controller {
+	/**
+	 * Constants
+	 * 
+	 * HINT_MILLIS  - the time budget of the search for a hint.
+	 * HINT_THREADS - makes the threads which search for hints away from the event dispatch thread.
+	 */
+	private static final long HINT_MILLIS = 2000;
+	private static final ThreadFactory HINT_THREADS = new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "hint");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	};
+
 	/**
 	 * Fields
 	 * 
-	 * game             - a reference to a Game object. If no game is being played, this value must be null.
-	 * observer         - a reference to an observer object. If no observer is registered, this value must be null.
-	 * selectedCard     - the currently selected card. If no card is currently selected, this value must be null.
-	 * selectedRowPos   - the row position of the currently selected card. If no card is currently selected,
-	 *                    this value must be -1.
-	 * selectedColPos   - the col position of the currently selected card. If no card is currently selected,
-	 *                    this value must be -1.
-	 * selectedPileType - the type of the pile in which the currently selected card is. If no card is currently
-	 *                    selected, this value must be -1.
-	 * selectedPilePos  - the position of the pile in which the currently selected card is. If no card is currently
-	 *                    selected, this value must be -1.
+	 * _observer         - the observer which displays the game of this controller.
+	 * _registry         - the registry in which the session of this controller is registered.
+	 * _board            - keeps the tiles of the observer in step with the session being played.
+	 * _session          - the game being played. If no game is being played, this value must be null.
+	 * _sessionId        - the id of _session in _registry. If no game is being played, this value must be -1.
+	 * _selectedCard     - the currently selected card. If no card is currently selected, this value must be null.
+	 * _selectedRowPos   - the row position of the currently selected card. If no card is currently selected,
+	 *                     this value must be -1.
+	 * _selectedColPos   - the col position of the currently selected card. If no card is currently selected,
+	 *                     this value must be -1.
+	 * _selectedPileType - the type of the pile in which the currently selected card is. If no card is currently
+	 *                     selected, this value must be -1.
+	 * _selectedPilePos  - the position of the pile in which the currently selected card is. If no card is currently
+	 *                     selected, this value must be -1.
+	 * _hints            - runs the searches for hints of _session, one at a time. If no game is being played,
+	 *                     this value must be null.
+	 * _hintCancelled    - the flag which cancels the current search for a hint. If no hint was asked for, this
+	 *                     value must be null.
+	 * _hintTiles        - the row and col positions of the highlighted tiles of the current hint. If no hint is
+	 *                     highlighted, this value must be null.
 	 */
-	private static Game game             = null;
-	private static UI   observer         = null;
-	private static Card selectedCard     = null;
-	private static int  selectedRowPos   = -1;
-	private static int  selectedColPos   = -1;
-	private static int  selectedPileType = -1;
-	private static int  selectedPilePos  = -1;
+	private final UI              _observer;
+	private final SessionRegistry _registry;
+	private final SessionListener _board;
+	private GameSession     _session          = null;
+	private long            _sessionId        = -1;
+	private Card            _selectedCard     = null;
+	private int             _selectedRowPos   = -1;
+	private int             _selectedColPos   = -1;
+	private int             _selectedPileType = -1;
+	private int             _selectedPilePos  = -1;
+	private ExecutorService _hints            = null;
+	private AtomicBoolean   _hintCancelled    = null;
+	private int [][]        _hintTiles        = null;
 
 	/**
-	 * Registers an observer.
+	 * Creates a controller for an observer. Every game it instantiates is registered in a registry
+	 * until the next game replaces it, so that several controllers can share one registry.
 	 * 
-	 * @param observer - the observer to be registered.
-	 * @throws IllegalArgumentException if observer is {@code null}.
-	 * @author Frank
+	 * @param observer - the observer which displays the games of this controller.
+	 * @param registry - the registry of the sessions.
+	 * @throws IllegalArgumentException if observer or registry is {@code null}.
 	 */
-	public static void registerObserver(UI observer) {
-		if(observer == null) {
-			throw new IllegalArgumentException("Observer can not be null.");
+	public Controller(UI observer, SessionRegistry registry) {
+		if(observer == null || registry == null) {
+			throw new IllegalArgumentException("Observer and registry can not be null.");
 		}
 		
-		Controller.observer = observer;
+		_observer = observer;
+		_registry = registry;
+		_board = new SessionListener() {
+			@Override
+			public void pilesChanged(PilesChangedEvent event) {
+				int gameId = event.getSession().getGameId();
+				for(int i = 0; i < event.getPileCount(); i++) {
+					int type = event.getPileType(i);
+					int pos = event.getPilePos(i);
+					int [] tile = GameBoardFactory.findTile(gameId, type, pos);
+					Card topCard = event.getSession().getTopCard(type, pos);
+					_observer.updateTileImageAt(topCard == null ? "gold" : topCard.toString(), tile[0], tile[1]);
+				}
+			}
+			
+			@Override
+			public void moveRejected(MoveRejectedEvent event) {
+				_observer.displayErrorMessage();
+			}
+			
+			@Override
+			public void gameOver(GameOverEvent event) {
+				_observer.displayGameOverMessage(event.isWon());
+			}
+		};
+	}
+	
+	/**
+	 * @return the id of the session being played in the registry, -1 if no game is being played.
+	 */
+	public long getSessionId() {
+		return _sessionId;
 	}
 
 	/**
@@ -71,34 +152,56 @@ public class Controller {
 	 * @author Edwin
 	 * @author Frank (minor changes)
 	 */
-	public static void instantiateGame(int gameType) {
+	public void instantiateGame(int gameType) {
+		cancelHint();
 		resetSelectedCard();
+		Game game;
 		ArrayList<ArrayList<String>> initialGameBoard;
 		ArrayList<ArrayList<MouseListener>> initialMouseListeners;
 		
 		if (gameType == BakersDozenGame.GAME_ID) {
 			game = new BakersDozenGame();
+			startSession(game);
 			initialGameBoard = GameBoardFactory.createBakersDozenGameBoard(game);
-			initialMouseListeners = GameBoardFactory.createBakersDozenTileListeners(game);
-			observer.updateAllTileImages(initialGameBoard);
-			observer.setAllMouseListeners(initialMouseListeners);
+			initialMouseListeners = GameBoardFactory.createBakersDozenTileListeners(game, this);
+			_observer.updateAllTileImages(initialGameBoard);
+			_observer.setAllMouseListeners(initialMouseListeners);
 		} else if(gameType == FreecellGame.GAME_ID) {
 			game = new FreecellGame();
+			startSession(game);
 			initialGameBoard = GameBoardFactory.createFreecellGameBoard(game);
-			initialMouseListeners = GameBoardFactory.createFreecellTileListeners(game);
-			observer.updateAllTileImages(initialGameBoard);
-			observer.setAllMouseListeners(initialMouseListeners);
+			initialMouseListeners = GameBoardFactory.createFreecellTileListeners(game, this);
+			_observer.updateAllTileImages(initialGameBoard);
+			_observer.setAllMouseListeners(initialMouseListeners);
 		} else if(gameType == AcesUpGame.GAME_ID) {
 			game = new AcesUpGame();
+			startSession(game);
 			initialGameBoard = GameBoardFactory.createAcesUpGameBoard(game);
-			initialMouseListeners = GameBoardFactory.createAcesUpTileListeners(game);
-			observer.updateAllTileImages(initialGameBoard);
-			observer.setAllMouseListeners(initialMouseListeners);
+			initialMouseListeners = GameBoardFactory.createAcesUpTileListeners(game, this);
+			_observer.updateAllTileImages(initialGameBoard);
+			_observer.setAllMouseListeners(initialMouseListeners);
 		} else {
 			throw new IllegalArgumentException("Game id does not correspond to any game.");
 		}
 	}
 
+	/**
+	 * Replaces the session being played by a session of a new game, before the board is drawn,
+	 * since the session plays the cards which are safe to send home at once. The searches for hints
+	 * of the old session are dropped with it, so controllers never wait for each other's hints.
+	 * @param game - the new game.
+	 */
+	private void startSession(Game game) {
+		if(_session != null) {
+			_registry.remove(_sessionId);
+			_hints.shutdownNow();
+		}
+		_session = new GameSession(game);
+		_hints = Executors.newSingleThreadExecutor(HINT_THREADS);
+		_session.addListener(_board);
+		_sessionId = _registry.register(_session);
+	}
+
 	/**
 	 * Selects a card. If a card has already been selected, it invokes pile action.
 	 * If the same card is selected twice, it deselects the card.
@@ -112,12 +215,13 @@ public class Controller {
 	 * @author Mehmet
 	 * @author Frank (minor changes)
 	 */
-	public static void select(int rowPos, int colPos, int pileType, int pilePos) {
-		if(game instanceof AcesUpGame && pileType == Piles.STOCK) {
-			if(selectedCard != null) {
-				observer.displayErrorMessage();
+	public void select(int rowPos, int colPos, int pileType, int pilePos) {
+		cancelHint();
+		if(_session.getGameId() == AcesUpGame.GAME_ID && pileType == Piles.STOCK) {
+			if(_selectedCard != null) {
+				_observer.displayErrorMessage();
 			} else {
-				invokePileAction();
+				_session.deal();
 				resetSelectedCard();
 			}
 		} else {
@@ -126,125 +230,114 @@ public class Controller {
 	}
 	
 	/**
-	 * Selects a card. This helper method does the actual selection stuff.
+	 * Starts searching for the best move of the current game on a background thread, and deselects
+	 * any card. Once the time budget is spent, the tiles of the source and the destination of the
+	 * move found are highlighted. The search is cancelled by the next selection, hint or new game.
+	 * If no game is being played, this method does nothing.
 	 */
-	private static void __select(int rowPos, int colPos, int pileType, int pilePos) {
-		if (selectedCard == null) {
-			Card topCard = game.getTopCard(pileType, pilePos);
-			if (topCard != null && pileType != 1) {
-				observer.setSelectedBorderAt(rowPos, colPos);
-				selectedCard = topCard;
-				selectedRowPos = rowPos;
-				selectedColPos = colPos;
-				selectedPileType = pileType;
-				selectedPilePos = pilePos;
-			}
-		} else if (selectedRowPos == rowPos && selectedColPos == colPos) {
-			observer.setUnselectedBorderAt(rowPos, colPos);
-			resetSelectedCard();
-		} else {
-			moveCard(selectedCard, rowPos, colPos, pileType, pilePos);
-			observer.setUnselectedBorderAt(selectedRowPos, selectedColPos);
+	public void hint() {
+		if(_session == null) {
+			return;
+		}
+		
+		cancelHint();
+		if(_selectedCard != null) {
+			_observer.setUnselectedBorderAt(_selectedRowPos, _selectedColPos);
 			resetSelectedCard();
 		}
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		final GameState position = _session.getState();
+		final int gameId = _session.getGameId();
+		_hintCancelled = cancelled;
+		_hints.execute(new Runnable() {
+			@Override
+			public void run() {
+				final int move = HintSearch.bestMove(position, TimeUnit.MILLISECONDS.toNanos(HINT_MILLIS), cancelled);
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						// only the event dispatch thread cancels hints, so this check can not go stale
+						if(!cancelled.get()) {
+							showHint(gameId, move);
+						}
+					}
+				});
+			}
+		});
 	}
 	
 	/**
-	 * Resets selected card.
-	 * @author Frank
+	 * Highlights the tiles of the source and the destination of a move.
 	 */
-	private static void resetSelectedCard() {
-		selectedCard     = null;
-		selectedRowPos   = -1;
-		selectedColPos   = -1;
-		selectedPileType = -1;
-		selectedPilePos  = -1;
+	private void showHint(int gameId, int move) {
+		if(move == HintSearch.NO_MOVE) {
+			return;
+		}
+		
+		int [] src;
+		int [] dst;
+		if(Move.isDeal(move)) {
+			src = GameBoardFactory.findTile(gameId, Piles.STOCK, 0);
+			dst = null;
+		} else {
+			src = GameBoardFactory.findTile(gameId, Move.srcPile(move), Move.srcPos(move));
+			dst = GameBoardFactory.findTile(gameId, Move.dstPile(move), Move.dstPos(move));
+		}
+		_hintTiles = dst == null ? new int [][] { src } : new int [][] { src, dst };
+		for(int [] tile : _hintTiles) {
+			_observer.setSelectedBorderAt(tile[0], tile[1]);
+		}
 	}
-
+	
 	/**
-	 * Moves a card from its initial position to its destination. If this operation
-	 * is illegal, this will notify observer to create a message dialog.
-	 * 
-	 * @param card         - the card to be moved.
-	 * @param destRow      - the row position of the destination.
-	 * @param destCol      - the col position of the destination.
-	 * @param destPileType - the pile type of the destination
-	 * @param destPilePos  - the pile position of the destination
-	 * @author Mehmet
-	 * @author Frank (minor changes)
+	 * Cancels the current search for a hint and removes the highlight of the current hint.
 	 */
-	private static void moveCard(Card card, int destRow, int destCol, int destPileType, int destPilePos) {
-		if(!(game instanceof AcesUpGame)) {
-			if (game.isAddingLegal(card, destPileType, destPilePos) &&
-					game.isRemovingLegal(selectedPileType, selectedPilePos)) {
-				game.addCard(card, destPileType, destPilePos);
-				game.removeCard(selectedPileType, selectedPilePos);
-				observer.updateTileImageAt(card.toString(), destRow, destCol);
-				
-				Card initialPileTopCard = game.getTopCard(selectedPileType, selectedPilePos);
-				String imageName;
-				if(initialPileTopCard == null) {
-					imageName = "gold";
-				} else {
-					imageName = initialPileTopCard.toString();
-				}
-				
-				observer.updateTileImageAt(imageName, selectedRowPos, selectedColPos);
-			} else {
-				observer.displayErrorMessage();
+	private void cancelHint() {
+		if(_hintCancelled != null) {
+			_hintCancelled.set(true);
+			_hintCancelled = null;
+		}
+		if(_hintTiles != null) {
+			for(int [] tile : _hintTiles) {
+				_observer.setUnselectedBorderAt(tile[0], tile[1]);
 			}
-		} else {
-			handleAcesUpMoveCard(card, destRow, destCol, destPileType, destPilePos);
+			_hintTiles = null;
 		}
 	}
 	
 	/**
-	 * Moves a card from its initial position to its destination. If this operation
-	 * is illegal, this will notify observer to create a message dialog.
-	 * This method is used to handle Ace's Up card moving operation.
-	 * @param card         - the card to be moved.
-	 * @param destRow      - the row position of the destination.
-	 * @param destCol      - the col position of the destination.
-	 * @param destPileType - the pile type of the destination
-	 * @param destPilePos  - the pile position of the destination
+	 * Selects a card. This helper method does the actual selection stuff.
 	 */
-	private static void handleAcesUpMoveCard(Card card, int destRow, int destCol, int destPileType, int destPilePos) {
-		if(game.isAddingLegal(card, destPileType, destPilePos) &&
-				game.isRemovingLegal(selectedPileType, selectedPilePos, destPileType)) {
-			game.removeCard(selectedPileType, selectedPilePos, destPileType);
-			game.addCard(card, destPileType, destPilePos);
-			observer.updateTileImageAt(card.toString(), destRow, destCol);
-			
-			Card initialPileTopCard = game.getTopCard(selectedPileType, selectedPilePos);
-			String imageName;
-			if(initialPileTopCard == null) {
-				imageName = "gold";
-			} else {
-				imageName = initialPileTopCard.toString();
+	private void __select(int rowPos, int colPos, int pileType, int pilePos) {
+		if (_selectedCard == null) {
+			Card topCard = _session.getTopCard(pileType, pilePos);
+			if (topCard != null && pileType != 1) {
+				_observer.setSelectedBorderAt(rowPos, colPos);
+				_selectedCard = topCard;
+				_selectedRowPos = rowPos;
+				_selectedColPos = colPos;
+				_selectedPileType = pileType;
+				_selectedPilePos = pilePos;
 			}
-			observer.updateTileImageAt(imageName, selectedRowPos, selectedColPos);
+		} else if (_selectedRowPos == rowPos && _selectedColPos == colPos) {
+			_observer.setUnselectedBorderAt(rowPos, colPos);
+			resetSelectedCard();
 		} else {
-			observer.displayErrorMessage();
+			_session.move(_selectedPileType, _selectedPilePos, pileType, pilePos);
+			_observer.setUnselectedBorderAt(_selectedRowPos, _selectedColPos);
+			resetSelectedCard();
 		}
 	}
 	
 	/**
-	 * When the stock pile is selected. 4 cards should be removed from the stock, and
-	 * they should be distributed equally to tableau piles.
+	 * Resets selected card.
+	 * @author Frank
 	 */
-	private static void invokePileAction() {
-		game.invokeDefaultSpecialAction();
-		
-		Card stockTopCard = game.getTopCard(Piles.STOCK, 0);
-		if(stockTopCard != null) {
-			observer.updateTileImageAt(stockTopCard.toString(), 0, 0);
-		} else {
-			observer.updateTileImageAt("gold", 0, 0);
-		}
-		
-		for(int i = 0; i < 4; i++) {
-			Card newTableauTopCard = game.getTopCard(Piles.TABLEAU, i);
-			observer.updateTileImageAt(newTableauTopCard.toString(), 0, i + 3);
-		}
+	private void resetSelectedCard() {
+		_selectedCard     = null;
+		_selectedRowPos   = -1;
+		_selectedColPos   = -1;
+		_selectedPileType = -1;
+		_selectedPilePos  = -1;
 	}
 }
@@ -0,0 +1,243 @@
+package edu.buffalo.cse116;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.Deck;
+import model.FreecellGame;
+import solver.AcesUpSolver;
+import solver.BakersDozenSolver;
+import solver.FreecellSolver;
+import solver.SolverResult;
+
+/**
+ * Solves a range of deals of one variant without the user interface and writes one line per deal
+ * to a file, in the order in which the deals are finished.
+ * <p>
+ * Usage: {@code Survey <freecell|bakersdozen|acesup> <first> <last> <threads> <file>}
+ * <p>
+ * Freecell deals are numbered like {@link FreecellGame#FreecellGame(int)}; the other variants are
+ * dealt from a {@link Deck} created with each number as its seed. Every line of the file holds,
+ * separated by tabs, the deal, the status of the search, the number of moves found, the number of
+ * cards discarded (Ace's Up only), the number of positions searched and the time in milliseconds.
+ * A deal whose solver throws an exception is written with the status FAILED and dashes for the
+ * other columns, its exception is printed with the progress lines, and the survey goes on.
+ * A progress line is printed every few seconds.
+ */
+public class Survey {
+	/**
+	 * Constants
+	 *
+	 * VARIANTS        - the name of each variant on the command line, indexed by game id.
+	 * PROGRESS_MILLIS - the time between two progress lines.
+	 * FAILED          - the status of a deal whose solver threw an exception.
+	 */
+	private static final String [] VARIANTS = { "bakersdozen", "freecell", "acesup" };
+	private static final long PROGRESS_MILLIS = 5000;
+	private static final String FAILED = "FAILED";
+
+	/**
+	 * _gameId  - the id of the variant surveyed.
+	 * _first   - the first deal.
+	 * _last    - the last deal, inclusive.
+	 * _threads - the number of deals solved at the same time.
+	 */
+	private final int  _gameId;
+	private final long _first;
+	private final long _last;
+	private final int  _threads;
+
+	/**
+	 * Creates a survey.
+	 * @param gameId  - the id of the variant.
+	 * @param first   - the first deal.
+	 * @param last    - the last deal, inclusive.
+	 * @param threads - the number of deals solved at the same time.
+	 * @throws IllegalArgumentException if the game id does not correspond to any game, last < first
+	 *         or threads <= 0.
+	 */
+	public Survey(int gameId, long first, long last, int threads) {
+		if(gameId < 0 || gameId >= VARIANTS.length) {
+			throw new IllegalArgumentException("Game id does not correspond to any game.");
+		}
+		if(last < first || threads <= 0) {
+			throw new IllegalArgumentException("The range of deals and the number of threads must not be empty.");
+		}
+		if(gameId == FreecellGame.GAME_ID) {
+			FreecellGame.toDealNumber(first);
+			FreecellGame.toDealNumber(last);
+		}
+		_gameId  = gameId;
+		_first   = first;
+		_last    = last;
+		_threads = threads;
+	}
+
+	public static void main(String[] args) {
+		if(args.length != 5) {
+			usage();
+			return;
+		}
+
+		int gameId = -1;
+		for(int i = 0; i < VARIANTS.length; i++) {
+			if(VARIANTS[i].equalsIgnoreCase(args[0])) {
+				gameId = i;
+			}
+		}
+		try {
+			Survey survey = new Survey(gameId, Long.parseLong(args[1]), Long.parseLong(args[2]),
+					Integer.parseInt(args[3]));
+			BufferedWriter out = new BufferedWriter(new FileWriter(args[4]));
+			try {
+				survey.run(out, System.out);
+			} finally {
+				out.close();
+			}
+		} catch(IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			usage();
+		} catch(IOException e) {
+			System.err.println("Can not write the results: " + e.getMessage());
+		} catch(InterruptedException e) {
+			System.err.println("Interrupted.");
+		} catch(IllegalStateException e) {
+			System.err.println(e.getMessage() + " " + e.getCause());
+		}
+	}
+
+	/**
+	 * Solves every deal of the survey and writes the line of each deal as soon as it is solved.
+	 * @param out      - the destination of the results.
+	 * @param progress - the destination of the progress lines.
+	 * @throws IOException if the results can not be written.
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for a deal.
+	 */
+	public void run(BufferedWriter out, PrintStream progress) throws IOException, InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(_threads);
+		CompletionService<Outcome> outcomes = new ExecutorCompletionService<Outcome>(pool);
+		try {
+			// only a few deals wait for a thread, so that long surveys do not queue millions of tasks
+			long next = _first;
+			for(int i = 0; i < 2 * _threads && next <= _last; i++) {
+				submit(outcomes, next++);
+			}
+
+			out.write("deal\tstatus\tmoves\tscore\tnodes\tms");
+			out.newLine();
+			long total = _last - _first + 1;
+			long start = System.nanoTime();
+			long lastProgress = start;
+			int solved = 0;
+			int failed = 0;
+			for(long done = 0; done < total; ) {
+				Future<Outcome> future = outcomes.poll(PROGRESS_MILLIS, TimeUnit.MILLISECONDS);
+				if(future != null) {
+					Outcome outcome = get(future);
+					if(next <= _last) {
+						submit(outcomes, next++);
+					}
+					SolverResult result = outcome.result;
+					if(result == null) {
+						out.write(outcome.deal + "\t" + FAILED + "\t-\t-\t-\t-");
+						progress.println("Deal " + outcome.deal + " failed: " + outcome.failure);
+						failed++;
+					} else {
+						out.write(outcome.deal + "\t" + result.getStatus() + "\t" + result.length() + "\t"
+								+ result.getScore() + "\t" + result.getNodes() + "\t" + result.getNanos() / 1000000);
+						if(result.getStatus() == SolverResult.Status.SOLVED) {
+							solved++;
+						}
+					}
+					out.newLine();
+					out.flush();
+					done++;
+				}
+				long now = System.nanoTime();
+				if(now - lastProgress >= TimeUnit.MILLISECONDS.toNanos(PROGRESS_MILLIS) || done == total) {
+					double seconds = (now - start) / 1e9;
+					progress.printf("%d/%d deals, %d solved, %d failed, %.1f s, %.2f deals/s%n",
+							done, total, solved, failed, seconds, done / Math.max(seconds, 1e-9));
+					lastProgress = now;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void submit(CompletionService<Outcome> outcomes, final long deal) {
+		outcomes.submit(new Callable<Outcome>() {
+			@Override
+			public Outcome call() {
+				try {
+					return new Outcome(deal, solve(deal), null);
+				} catch(RuntimeException e) {
+					return new Outcome(deal, null, e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Solves one deal of the variant of this survey. Called by several threads at the same time.
+	 * @param deal - the deal.
+	 * @return the result of the solver.
+	 */
+	protected SolverResult solve(long deal) {
+		if(_gameId == FreecellGame.GAME_ID) {
+			return new FreecellSolver().solve(new FreecellGame((int) deal));
+		} else if(_gameId == BakersDozenGame.GAME_ID) {
+			return new BakersDozenSolver().solve(new BakersDozenGame(new Deck(deal)));
+		}
+		return new AcesUpSolver().solve(new AcesUpGame(new Deck(deal)));
+	}
+
+	/**
+	 * @return the outcome of a finished deal.
+	 * @throws IllegalStateException if the solver failed with an error.
+	 */
+	private static Outcome get(Future<Outcome> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch(ExecutionException e) {
+			throw new IllegalStateException("A solver failed.", e.getCause());
+		}
+	}
+
+	/**
+	 * The result of the solver for one deal.
+	 */
+	private static final class Outcome {
+		/**
+		 * deal    - the deal.
+		 * result  - the result of the solver, {@code null} if it failed.
+		 * failure - the exception thrown by the solver, {@code null} if it did not fail.
+		 */
+		final long             deal;
+		final SolverResult     result;
+		final RuntimeException failure;
+
+		Outcome(long deal, SolverResult result, RuntimeException failure) {
+			this.deal    = deal;
+			this.result  = result;
+			this.failure = failure;
+		}
+	}
+
+	private static void usage() {
+		System.err.println("Usage: Survey <freecell|bakersdozen|acesup> <first> <last> <threads> <file>");
+	}
+}
@@ -0,0 +1,96 @@
+package edu.buffalo.cse116.test;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.buffalo.cse116.Survey;
+import model.FreecellGame;
+import solver.SolverResult;
+
+public class SurveyTest {
+	@Test
+	public void testMain() throws IOException {
+		Path file = Files.createTempFile("survey", ".tsv");
+		try {
+			Survey.main(new String [] { "FreeCell", "1", "2", "2", file.toString() });
+			List<String> lines = Files.readAllLines(file);
+			assertEquals("A header, then one line per deal", 3, lines.size());
+			assertEquals("The header names the columns", "deal\tstatus\tmoves\tscore\tnodes\tms", lines.get(0));
+			boolean [] seen = new boolean[3];
+			for(String line : lines.subList(1, lines.size())) {
+				String [] columns = line.split("\t");
+				assertEquals("Every line has 6 columns", 6, columns.length);
+				seen[Integer.parseInt(columns[0])] = true;
+				assertEquals("Deals 1 and 2 can be solved", SolverResult.Status.SOLVED.toString(), columns[1]);
+				assertTrue("A solution has moves", Integer.parseInt(columns[2]) > 0);
+			}
+			assertTrue("Every deal must be written once", seen[1] && seen[2]);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testFailedDeal() throws Exception {
+		Survey survey = new Survey(FreecellGame.GAME_ID, 1, 3, 2) {
+			@Override
+			protected SolverResult solve(long deal) {
+				if(deal == 2) {
+					throw new IllegalStateException("broken solver");
+				}
+				return new SolverResult(SolverResult.Status.SOLVED, new int[0], 1, 0);
+			}
+		};
+		StringWriter text = new StringWriter();
+		BufferedWriter out = new BufferedWriter(text);
+		ByteArrayOutputStream progress = new ByteArrayOutputStream();
+		survey.run(out, new PrintStream(progress, true));
+		out.close();
+
+		List<String> lines = Arrays.asList(text.toString().split("\\R"));
+		assertEquals("A failed deal must not stop the survey", 4, lines.size());
+		assertTrue("A failed deal is written as FAILED", lines.contains("2\tFAILED\t-\t-\t-\t-"));
+		assertTrue("The other deals are written", lines.contains("1\tSOLVED\t0\t0\t1\t0"));
+		assertTrue("The other deals are written", lines.contains("3\tSOLVED\t0\t0\t1\t0"));
+		assertTrue("The failure must be reported", progress.toString().contains("broken solver"));
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		try {
+			new Survey(-1, 1, 2, 1);
+			fail("An unknown game id should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new Survey(FreecellGame.GAME_ID, 2, 1, 1);
+			fail("An empty range of deals should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new Survey(FreecellGame.GAME_ID, 1, 2, 0);
+			fail("No thread should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new Survey(FreecellGame.GAME_ID, 0, 2, 1);
+			fail("Freecell deal 0 should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -4,7 +4,11 @@ import java.awt.event.MouseListener;
 import java.util.ArrayList;
 
 import abstraction.Card;
+import controller.Controller;
 import handler.MouseEventHandler;
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.FreecellGame;
 import model.Game;
 
 /**
@@ -29,15 +33,16 @@ public class GameBoardFactory {
 	
 	/**
 	 * Creates a collection of {@code MouseListener}s that will be used in Baker's Dozen's game board.
-	 * @param game - an instance of {@code Game}.
+	 * @param game       - an instance of {@code Game}.
+	 * @param controller - the controller which the tiles notify when they are clicked.
 	 * @return a collection of {@code MouseListener}s.
-	 * @throws IllegalArgumentException if the argument is {@code null}.
+	 * @throws IllegalArgumentException if an argument is {@code null}.
 	 */
-	public static ArrayList<ArrayList<MouseListener>> createBakersDozenTileListeners(Game game) {
-		if(game == null) {
+	public static ArrayList<ArrayList<MouseListener>> createBakersDozenTileListeners(Game game, Controller controller) {
+		if(game == null || controller == null) {
 			throw new IllegalArgumentException("There must be an instance of Game to generate a game board.");
 		}
-		return createTileListeners(game, BakersDozenGameBoardProperties.ROW, BakersDozenGameBoardProperties.COL,
+		return createTileListeners(controller, BakersDozenGameBoardProperties.ROW, BakersDozenGameBoardProperties.COL,
 				BakersDozenGameBoardProperties.LAYOUT);
 	}
 	/**
@@ -57,15 +62,16 @@ public class GameBoardFactory {
 	
 	/**
 	 * Creates a collection of {@code MouseListener}s that will be used in Baker's Dozen's game board.
-	 * @param game - an instance of {@code Game}.
+	 * @param game       - an instance of {@code Game}.
+	 * @param controller - the controller which the tiles notify when they are clicked.
 	 * @return a collection of {@code MouseListener}s.
-	 * @throws IllegalArgumentException if the argument is {@code null}.
+	 * @throws IllegalArgumentException if an argument is {@code null}.
 	 */
-	public static ArrayList<ArrayList<MouseListener>> createFreecellTileListeners(Game game) {
-		if(game == null) {
+	public static ArrayList<ArrayList<MouseListener>> createFreecellTileListeners(Game game, Controller controller) {
+		if(game == null || controller == null) {
 			throw new IllegalArgumentException("There must be an instance of Game to generate a game board.");
 		}
-		return createTileListeners(game, FreecellGameBoardProperties.ROW, FreecellGameBoardProperties.COL,
+		return createTileListeners(controller, FreecellGameBoardProperties.ROW, FreecellGameBoardProperties.COL,
 				FreecellGameBoardProperties.LAYOUT);
 	}
 	
@@ -84,14 +90,44 @@ public class GameBoardFactory {
 				AcesUpGameBoardProperties.LAYOUT);
 	}
 	
-	public static ArrayList<ArrayList<MouseListener>> createAcesUpTileListeners(Game game) {
-		if(game == null) {
+	public static ArrayList<ArrayList<MouseListener>> createAcesUpTileListeners(Game game, Controller controller) {
+		if(game == null || controller == null) {
 			throw new IllegalArgumentException();
 		}
-		return createTileListeners(game, AcesUpGameBoardProperties.ROW, AcesUpGameBoardProperties.COL,
+		return createTileListeners(controller, AcesUpGameBoardProperties.ROW, AcesUpGameBoardProperties.COL,
 				AcesUpGameBoardProperties.LAYOUT);
 	}
 	
+	/**
+	 * Finds the tile which displays a pile in the game board of a type of game.
+	 * @param gameId   - the id of the type of the game.
+	 * @param pileType - the type of the pile.
+	 * @param pilePos  - the position of the pile.
+	 * @return the row and col position of the tile, {@code null} if no tile displays the pile.
+	 * @throws IllegalArgumentException if gameId does not correspond to any game.
+	 */
+	public static int [] findTile(int gameId, int pileType, int pilePos) {
+		int [][][] layout;
+		if(gameId == BakersDozenGame.GAME_ID) {
+			layout = BakersDozenGameBoardProperties.LAYOUT;
+		} else if(gameId == FreecellGame.GAME_ID) {
+			layout = FreecellGameBoardProperties.LAYOUT;
+		} else if(gameId == AcesUpGame.GAME_ID) {
+			layout = AcesUpGameBoardProperties.LAYOUT;
+		} else {
+			throw new IllegalArgumentException("Game id does not correspond to any game.");
+		}
+		
+		for(int i = 0; i < layout.length; i++) {
+			for(int j = 0; j < layout[i].length; j++) {
+				if(layout[i][j][0] == pileType && layout[i][j][1] == pilePos) {
+					return new int [] { i, j };
+				}
+			}
+		}
+		return null;
+	}
+	
 	private static ArrayList<ArrayList<String>> createGameBoard(Game game, int numRow, int numCol, int [][][] layout) {
 		ArrayList<ArrayList<String>> retVal = new ArrayList<ArrayList<String>>();
 		for(int i = 0; i < numRow; i++) {
@@ -115,7 +151,7 @@ public class GameBoardFactory {
 		return retVal;
 	}
 	
-	private static ArrayList<ArrayList<MouseListener>> createTileListeners(Game game, int numRow, int numCol, int [][][] layout) {
+	private static ArrayList<ArrayList<MouseListener>> createTileListeners(Controller controller, int numRow, int numCol, int [][][] layout) {
 		ArrayList<ArrayList<MouseListener>> retVal = new ArrayList<ArrayList<MouseListener>>();
 		for(int i = 0; i < numRow; i++) {
 			ArrayList<MouseListener> row = new ArrayList<MouseListener>();
@@ -126,7 +162,7 @@ public class GameBoardFactory {
 					row.add(null);
 				} else {
 					int pos = layout[i][j][1];
-					row.add(new MouseEventHandler(i, j, type, pos));
+					row.add(new MouseEventHandler(controller, i, j, type, pos));
 				}
 			}
 			retVal.add(row);
@@ -14,17 +14,20 @@ public class MouseEventHandler implements MouseListener {
 	 * Fields
 	 * 
 	 * Any tile that is not a pile should not register this handler.
-	 * _rowPos   - the row position of tile which registers this handler.
-	 * _colPos   - the col position of tile which registers this handler.
-	 * _pileType - the type of the pile of the tile which registers this handler.
-	 * _pilePos  - the tile's position in this pile.
+	 * _controller - the controller of the game board of the tile.
+	 * _rowPos     - the row position of tile which registers this handler.
+	 * _colPos     - the col position of tile which registers this handler.
+	 * _pileType   - the type of the pile of the tile which registers this handler.
+	 * _pilePos    - the tile's position in this pile.
 	 */
+	private Controller _controller;
 	private int _rowPos;
 	private int _colPos;
 	private int _pileType;
 	private int _pilePos;
 	
-	public MouseEventHandler(int rowPos, int colPos, int pileType, int pilePos) {
+	public MouseEventHandler(Controller controller, int rowPos, int colPos, int pileType, int pilePos) {
+		_controller = controller;
 		_rowPos = rowPos;
 		_colPos = colPos;
 		_pileType = pileType;
@@ -33,7 +36,7 @@ public class MouseEventHandler implements MouseListener {
 
 	@Override
 	public void mouseClicked(MouseEvent e) {
-		Controller.select(_rowPos, _colPos, _pileType, _pilePos);
+		_controller.select(_rowPos, _colPos, _pileType, _pilePos);
 	}
 
 	@Override
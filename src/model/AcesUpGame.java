@@ -17,7 +17,16 @@ public class AcesUpGame extends Game {
 	 * Creates an instance of {@code AcesUpGame} and initializes its piles to the initial setup.
 	 */
 	public AcesUpGame() {
-		super(new Deck(), new AcesUpTableauStrategy(), new AcesUpHomecellStrategy(), new AcesUpStockStrategy());
+		this(new Deck());
+	}
+	
+	/**
+	 * Creates an instance of {@code AcesUpGame} and initializes its piles to the initial setup
+	 * dealt from the given deck.
+	 * @param deck - the deck to deal from, e.g. a seeded deck to reproduce a deal.
+	 */
+	public AcesUpGame(Deck deck) {
+		super(deck, new AcesUpTableauStrategy(), new AcesUpHomecellStrategy(), new AcesUpStockStrategy());
 	}
 
 	/**
@@ -59,4 +68,49 @@ public class AcesUpGame extends Game {
 		throw new UnsupportedOperationException("More info is needed to determine the result, "
 				+ "this game does not support this method.");
 	}
+	
+	/**
+	 * Also generates {@link Move#DEAL} while the Stock pile is not empty.
+	 */
+	@Override
+	public int generateMoves(MoveBuffer buffer) {
+		super.generateMoves(buffer);
+		if(size(Piles.STOCK, 0) > 0) {
+			buffer.add(Move.DEAL);
+		}
+		return buffer.size();
+	}
+	
+	/**
+	 * Dealing is a move as long as the Stock pile is not empty.
+	 */
+	@Override
+	protected boolean hasMove() {
+		return size(Piles.STOCK, 0) > 0 || super.hasMove();
+	}
+	
+	/**
+	 * The four Aces stay on the Tableau piles.
+	 * @return 48.
+	 */
+	@Override
+	protected int cardsToWin() {
+		return 48;
+	}
+	
+	/**
+	 * Cards of the Stock pile can only be dealt with {@link #invokeDefaultSpecialAction()}.
+	 */
+	@Override
+	protected boolean isMoveSource(int pile) {
+		return pile != Piles.STOCK;
+	}
+	
+	/**
+	 * @return {@link #GAME_ID}.
+	 */
+	@Override
+	public int getGameId() {
+		return GAME_ID;
+	}
 }
@@ -19,7 +19,16 @@ public class BakersDozenGame extends Game {
 	 * Creates an instance of {@code BakersDozenGame} and initialize its piles to the initial setup.
 	 */
 	public BakersDozenGame() {
-		super(new Deck(), new BakersDozenTableauStrategy(), new HomecellStrategy());
+		this(new Deck());
+	}
+	
+	/**
+	 * Creates an instance of {@code BakersDozenGame} and initializes its piles to the initial setup
+	 * dealt from the given deck.
+	 * @param deck - the deck to deal from, e.g. a seeded deck to reproduce a deal.
+	 */
+	public BakersDozenGame(Deck deck) {
+		super(deck, new BakersDozenTableauStrategy(), new HomecellStrategy());
 	}
 
 	/**
@@ -57,4 +66,26 @@ public class BakersDozenGame extends Game {
 	public void invokeDefaultSpecialAction() {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * Tableau piles are built down regardless of suit, so a card is safe once every card of the
+	 * rank below it is on a Homecell pile.
+	 */
+	@Override
+	protected boolean isSafeToPlayHome(int card, int [] heights) {
+		for(int suit = 0; suit < 4; suit++) {
+			if(heights[suit] < Card.rankOf(card) - 1) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return {@link #GAME_ID}.
+	 */
+	@Override
+	public int getGameId() {
+		return GAME_ID;
+	}
 }
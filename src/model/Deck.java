@@ -1,32 +1,73 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.SplittableRandom;
 
 import abstraction.Card;
-import abstraction.Rank;
-import abstraction.Suit;
 
 /**
  * Instances of the class represent decks of cards.
+ * A deck is shuffled once, when it is created, with a {@link SplittableRandom} seeded by the
+ * seed of the deck, so two decks created with the same seed deal the same cards in the same order.
+ * Cards are dealt by advancing a cursor over the shuffled ordinals; nothing is shifted or copied.
  */
 public class Deck {
 	/**
-	 * _deck - cards in this deck.
+	 * _cards  - ordinals of the cards in this deck in dealing order.
+	 * _cursor - index of the next card to deal.
+	 * _seed   - the seed which was used to shuffle this deck.
 	 */
-	private ArrayList<Card> _deck;
-	
+	private byte [] _cards;
+	private int     _cursor;
+	private long    _seed;
+
 	/**
 	 * Creates a new deck with 52 unique cards in random order.
 	 */
 	public Deck() {
-		_deck = new ArrayList<Card>();
-		for (Suit s : Suit.values()) {
-			for (Rank r : Rank.values()) {
-				_deck.add(new Card(s, r));
-			}
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Creates a new deck with 52 unique cards in an order determined by the given seed.
+	 * @param seed - the seed of the shuffle.
+	 */
+	public Deck(long seed) {
+		_seed  = seed;
+		_cards = new byte[Card.NUM_CARDS];
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			_cards[i] = (byte) i;
+		}
+
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = Card.NUM_CARDS - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			byte temp = _cards[i];
+			_cards[i] = _cards[j];
+			_cards[j] = temp;
 		}
-		Collections.shuffle(_deck);
+	}
+
+	/**
+	 * Creates a new deck which deals the given cards in the given order.
+	 * @param cards - ordinals of the cards in dealing order.
+	 * @param seed  - the value returned by {@link #getSeed()}.
+	 */
+	Deck(byte [] cards, long seed) {
+		_seed  = seed;
+		_cards = cards.clone();
+	}
+
+	/**
+	 * Removes the next card of the deck and returns it.
+	 * @return the removed card.
+	 * @throws <code>IndexOutOfBoundsException</code> if this deck is empty
+	 */
+	public Card nextCard() {
+		if(_cursor == _cards.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return Card.fromOrdinal(_cards[_cursor++]);
 	}
 
 	/**
@@ -40,19 +81,30 @@ public class Deck {
 		if(n <= 0){
 			throw new IllegalArgumentException();
 		}
-		
-		ArrayList<Card> ac = new ArrayList<Card>();
+		if(n > size()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		ArrayList<Card> ac = new ArrayList<Card>(n);
 		for (int i = 0; i < n; i++) {
-			ac.add(_deck.remove(0));
+			ac.add(nextCard());
 		}
 		return ac;
 	}
-	
+
 	/**
 	 * Returns the size of this deck.
 	 * @return the size of this deck.
 	 */
 	public int size() {
-		return _deck.size();
+		return _cards.length - _cursor;
+	}
+
+	/**
+	 * Returns the seed which was used to shuffle this deck.
+	 * @return the seed of this deck.
+	 */
+	public long getSeed() {
+		return _seed;
 	}
 }
\ No newline at end of file
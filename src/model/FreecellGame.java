@@ -4,6 +4,7 @@ import abstraction.Card;
 import strategy.FreecellFreecellStrategy;
 import strategy.FreecellTableauStrategy;
 import strategy.HomecellStrategy;
+import strategy.LegalityTable;
 
 /**
  * An instance of this class represents a Freecell game.
@@ -16,11 +17,227 @@ public class FreecellGame extends Game {
 	 */
 	public static final int GAME_ID = 0x00000001;
 	
+	/**
+	 * _dealNumber - the number of the classic deal this game was created from, 0 if it was not.
+	 */
+	private int _dealNumber;
+	
 	/**
 	 * Creates an instance of {@code FreecellGame} and initialize its piles to the initial setup.
 	 */
 	public FreecellGame() {
-		super(new Deck(), new FreecellTableauStrategy(), new HomecellStrategy(), new FreecellFreecellStrategy());
+		this(new Deck());
+	}
+	
+	/**
+	 * Creates an instance of {@code FreecellGame} and initializes its piles to the initial setup
+	 * dealt from the given deck.
+	 * @param deck - the deck to deal from, e.g. a seeded deck to reproduce a deal.
+	 */
+	public FreecellGame(Deck deck) {
+		super(deck, new FreecellTableauStrategy(), new HomecellStrategy(), new FreecellFreecellStrategy());
+	}
+	
+	/**
+	 * Creates an instance of {@code FreecellGame} with one of the classic numbered deals,
+	 * i.e. the deals of the Microsoft Freecell game. Deal #1 has the Jack of Diamonds at the bottom of
+	 * the first Tableau pile and the Six of Spades on its top.
+	 * @param dealNumber - the number of the deal.
+	 * @throws IllegalArgumentException if dealNumber < 1.
+	 */
+	public FreecellGame(int dealNumber) {
+		this(createNumberedDeck(dealNumber));
+		_dealNumber = dealNumber;
+	}
+	
+	/**
+	 * Checks that a seed, e.g. one read from a request or a journal, is the number of a classic deal.
+	 * @param seed - the seed.
+	 * @return the number of the deal.
+	 * @throws IllegalArgumentException if seed is not between 1 and {@link Integer#MAX_VALUE}.
+	 */
+	public static int toDealNumber(long seed) {
+		if(seed < 1 || seed > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Freecell deals are numbered from 1.");
+		}
+		return (int) seed;
+	}
+	
+	/**
+	 * @return the number of the classic deal this game was created from, 0 if it was not.
+	 */
+	public int getDealNumber() {
+		return _dealNumber;
+	}
+	
+	/**
+	 * Creates a deck which, dealt through {@code FreecellTableauStrategy.getInitialSetUp}, produces the
+	 * given classic deal. The classic algorithm starts with the cards ordered by rank then suit
+	 * (clubs, diamonds, hearts, spades), repeatedly picks a card with a linear congruential generator seeded
+	 * by the deal number, and deals the picked cards row by row from left to right.
+	 * @param dealNumber - the number of the deal.
+	 * @return the deck.
+	 * @throws IllegalArgumentException if dealNumber < 1.
+	 */
+	private static Deck createNumberedDeck(int dealNumber) {
+		if(dealNumber < 1) {
+			throw new IllegalArgumentException("Deal numbers start at 1.");
+		}
+		
+		byte [] cards = new byte[Card.NUM_CARDS];
+		for(int i = 0; i < Card.NUM_CARDS; i++) {
+			cards[i] = (byte) (i % 4 * 13 + i / 4);
+		}
+		
+		byte [] dealt = new byte[Card.NUM_CARDS];
+		long state = dealNumber;
+		for(int i = 0; i < Card.NUM_CARDS; i++) {
+			int left = Card.NUM_CARDS - i;
+			state = (state * 214013 + 2531011) & 0xFFFFFFFFL;
+			int j = (int) ((state >>> 16) & 0x7FFF) % left;
+			dealt[i] = cards[j];
+			cards[j] = cards[left - 1];
+		}
+		
+		// the strategy deals pile by pile, so turn the rows into columns
+		byte [] order = new byte[Card.NUM_CARDS];
+		int k = 0;
+		for(int col = 0; col < 8; col++) {
+			for(int i = col; i < Card.NUM_CARDS; i += 8) {
+				order[k++] = dealt[i];
+			}
+		}
+		return new Deck(order, dealNumber);
+	}
+	
+	/**
+	 * Returns the largest number of cards which can be moved at once from one Tableau pile to
+	 * another: moving them one at a time through every empty Freecell pile and every empty Tableau
+	 * pile other than the destination gives (empty Freecell piles + 1) * 2^(empty Tableau piles).
+	 * @param toEmpty - whether the destination is an empty Tableau pile.
+	 * @return the largest number of cards of a supermove.
+	 */
+	public int maxSupermove(boolean toEmpty) {
+		int freecells = 0;
+		for(int pos = 0; pos < count(Piles.FREECELL); pos++) {
+			if(size(Piles.FREECELL, pos) == 0) {
+				freecells++;
+			}
+		}
+		int columns = toEmpty ? -1 : 0;
+		for(int pos = 0; pos < count(Piles.TABLEAU); pos++) {
+			if(size(Piles.TABLEAU, pos) == 0) {
+				columns++;
+			}
+		}
+		return (freecells + 1) << columns;
+	}
+	
+	/**
+	 * Returns the number of cards at the top of a Tableau pile which are built down in alternating
+	 * colors, and can therefore be moved together.
+	 * @param pos - the position of the Tableau pile.
+	 * @return the length of the run, 0 if the pile is empty.
+	 */
+	public int runLength(int pos) {
+		Piles tableau = piles(Piles.TABLEAU);
+		LegalityTable table = tableau.table();
+		int size = tableau.size(pos);
+		int length = size == 0 ? 0 : 1;
+		while(length < size && table.isAddingLegal(tableau.getOrdinalAt(pos, size - length),
+				tableau.getOrdinalAt(pos, size - length - 1))) {
+			length++;
+		}
+		return length;
+	}
+	
+	/**
+	 * Returns the number of cards a supermove from one Tableau pile to another would move: onto a
+	 * card, the part of the run which fits on it; onto an empty pile, as much of the run as possible.
+	 * @param srcPos - the position of the source Tableau pile.
+	 * @param dstPos - the position of the destination Tableau pile.
+	 * @return the number of cards, 0 if no card can be moved.
+	 */
+	public int supermoveSize(int srcPos, int dstPos) {
+		if(srcPos == dstPos) {
+			return 0;
+		}
+		Piles tableau = piles(Piles.TABLEAU);
+		int run = runLength(srcPos);
+		if(tableau.getTopOrdinal(dstPos) == Card.NO_CARD) {
+			return Math.min(run, maxSupermove(true));
+		}
+		int size = tableau.size(srcPos);
+		for(int count = 1; count <= run; count++) {
+			if(tableau.isAddingLegal(tableau.getOrdinalAt(srcPos, size - count), dstPos)) {
+				return count <= maxSupermove(false) ? count : 0;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Moves several cards from the top of one Tableau pile to another at once, keeping their order.
+	 * Nothing is modified if the move is illegal.
+	 * @param srcPos - the position of the source Tableau pile.
+	 * @param dstPos - the position of the destination Tableau pile.
+	 * @param count  - the number of cards to move.
+	 * @return whether the cards were moved.
+	 */
+	public boolean moveCards(int srcPos, int dstPos, int count) {
+		if(srcPos == dstPos || count < 1 || count > runLength(srcPos)) {
+			return false;
+		}
+		Piles tableau = piles(Piles.TABLEAU);
+		boolean toEmpty = tableau.getTopOrdinal(dstPos) == Card.NO_CARD;
+		byte bottom = tableau.getOrdinalAt(srcPos, tableau.size(srcPos) - count);
+		if(count > maxSupermove(toEmpty) || !tableau.isAddingLegal(bottom, dstPos)) {
+			return false;
+		}
+		applyMove(Move.of(Piles.TABLEAU, srcPos, Piles.TABLEAU, dstPos, count));
+		return true;
+	}
+	
+	/**
+	 * Adds the supermoves of two or more cards between Tableau piles to the single card moves of
+	 * {@link Game#generateMoves(MoveBuffer)}. Onto an empty pile, every number of cards which fits
+	 * is generated, since it may be useful to leave part of a run behind.
+	 */
+	@Override
+	public int generateMoves(MoveBuffer buffer) {
+		super.generateMoves(buffer);
+		Piles tableau = piles(Piles.TABLEAU);
+		int toCard = maxSupermove(false);
+		int toEmpty = maxSupermove(true);
+		for(int src = 0; src < tableau.count(); src++) {
+			int run = runLength(src);
+			if(run < 2) {
+				continue;
+			}
+			int size = tableau.size(src);
+			boolean empty = false;
+			for(int dst = 0; dst < tableau.count(); dst++) {
+				if(dst == src) {
+					continue;
+				}
+				if(tableau.getTopOrdinal(dst) == Card.NO_CARD) {
+					if(!empty) {
+						empty = true;
+						for(int count = 2; count <= Math.min(run, toEmpty); count++) {
+							buffer.add(Move.of(Piles.TABLEAU, src, Piles.TABLEAU, dst, count));
+						}
+					}
+					continue;
+				}
+				for(int count = 2; count <= Math.min(run, toCard); count++) {
+					if(tableau.isAddingLegal(tableau.getOrdinalAt(src, size - count), dst)) {
+						buffer.add(Move.of(Piles.TABLEAU, src, Piles.TABLEAU, dst, count));
+						break;
+					}
+				}
+			}
+		}
+		return buffer.size();
 	}
 	
 	/**
@@ -56,4 +273,32 @@ public class FreecellGame extends Game {
 	public void invokeDefaultSpecialAction() {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * A card can only be needed as a place for a lower card of the opposite color, so it is safe
+	 * once both Homecell piles of the opposite color have reached the rank below it. Aces and Twos
+	 * are always safe.
+	 */
+	@Override
+	protected boolean isSafeToPlayHome(int card, int [] heights) {
+		int rank = Card.rankOf(card);
+		if(rank <= 2) {
+			return true;
+		}
+		boolean red = Card.isRed(card);
+		for(int suit = 0; suit < 4; suit++) {
+			if(Card.isRed(suit * 13) != red && heights[suit] < rank - 1) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return {@link #GAME_ID}.
+	 */
+	@Override
+	public int getGameId() {
+		return GAME_ID;
+	}
 }
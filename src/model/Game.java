@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import abstraction.Card;
 import strategy.PileStrategy;
@@ -16,12 +17,23 @@ public abstract class Game {
 	 */
 	private ArrayList<Piles> _piles;
 	private Deck             _deck;
+	
+	/**
+	 * _stuckAt - the sum of the change counters of the piles when {@link #isStuck()} was last
+	 *            answered, -1 if it never was.
+	 * _stuck   - the last answer of {@link #isStuck()}.
+	 * _heights - scratch array of the rank of the top Homecell card of each suit, used while
+	 *            playing safe cards home.
+	 */
+	private long         _stuckAt = -1;
+	private boolean      _stuck;
+	private final int [] _heights = new int[4];
 
 	public Game(Deck deck, PileStrategy... strategies) {
 		_deck  = deck;
 		_piles = new ArrayList<Piles>();
 		for(int i = 0; i < strategies.length; i++) {
-			_piles.add(new Piles(strategies[i], _deck));
+			_piles.add(new Piles(strategies[i], _deck, i));
 		}
 	}
 	
@@ -164,6 +176,394 @@ public abstract class Game {
 		return _piles.get(pile).size(pos);
 	}
 	
+	/**
+	 * Returns the ordinal of the top card of the specified pile. Nothing will be modified
+	 * after this call.
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the ordinal of the top card, {@code Card.NO_CARD} if the pile is empty.
+	 */
+	public byte getTopOrdinal(int pile, int pos) {
+		return _piles.get(pile).getTopOrdinal(pos);
+	}
+	
+	/**
+	 * Returns the ordinal of a card in the specified pile. Index 0 is the bottom of the pile.
+	 * Nothing will be modified after this call.
+	 * @param pile  - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos   - position of the pile.
+	 * @param index - index of the card in the pile.
+	 * @return the ordinal of the card.
+	 */
+	public byte getOrdinalAt(int pile, int pos, int index) {
+		return _piles.get(pile).getOrdinalAt(pos, index);
+	}
+	
+	/**
+	 * @return the seed of the deck this game was dealt from.
+	 */
+	public long getSeed() {
+		return _deck.getSeed();
+	}
+	
+	/**
+	 * @return the number of pile types in this game.
+	 */
+	public int pileTypes() {
+		return _piles.size();
+	}
+	
+	/**
+	 * Returns the number of piles of the specified type.
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return the number of piles.
+	 */
+	public int count(int pile) {
+		return _piles.get(pile).count();
+	}
+	
+	/**
+	 * Returns the 64-bit Zobrist hash of the current position. The hash is updated incrementally
+	 * whenever a card is added or removed, so this call takes constant time.
+	 * @return the hash of the current position.
+	 */
+	public long positionHash() {
+		long hash = 0;
+		for(int i = 0; i < _piles.size(); i++) {
+			hash ^= _piles.get(i).positionHash();
+		}
+		return hash;
+	}
+	
+	/**
+	 * Returns the part of {@link #positionHash()} which comes from the piles of one type, so
+	 * that a client can hash a position while ignoring some pile types.
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return the hash of the piles of the specified type.
+	 */
+	public long positionHash(int pile) {
+		return _piles.get(pile).positionHash();
+	}
+	
+	/**
+	 * @return the unique id of this type of game.
+	 */
+	public abstract int getGameId();
+	
+	/**
+	 * Determines whether cards of the specified pile type may be moved one at a time to other piles.
+	 * Every pile type can be moved from unless a game says otherwise; whether a particular card can be
+	 * removed is still up to the strategy of the pile.
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return whether cards can be moved from this pile type.
+	 */
+	protected boolean isMoveSource(int pile) {
+		return true;
+	}
+	
+	/**
+	 * Fills a buffer with every legal move of the current position, encoded as described in
+	 * {@link Move}. The buffer is cleared first. Moves to empty piles of the same type are
+	 * interchangeable, so only a move to the first empty pile of each type is generated.
+	 * Nothing is allocated once the buffer has grown large enough.
+	 * @param buffer - the buffer to fill.
+	 * @return the number of moves generated.
+	 */
+	public int generateMoves(MoveBuffer buffer) {
+		buffer.clear();
+		for(int srcPile = 0; srcPile < _piles.size(); srcPile++) {
+			if(!isMoveSource(srcPile)) {
+				continue;
+			}
+			Piles src = _piles.get(srcPile);
+			for(int srcPos = 0; srcPos < src.count(); srcPos++) {
+				byte card = src.getTopOrdinal(srcPos);
+				if(card == Card.NO_CARD) {
+					continue;
+				}
+				for(int dstPile = 0; dstPile < _piles.size(); dstPile++) {
+					Piles dst = _piles.get(dstPile);
+					boolean empty = false;
+					// removal rules only depend on the destination type, and are only asked about
+					// destinations which can receive the card
+					int removable = -1;
+					for(int dstPos = 0; dstPos < dst.count(); dstPos++) {
+						if(dstPile == srcPile && dstPos == srcPos) {
+							continue;
+						}
+						boolean isEmpty = dst.getTopOrdinal(dstPos) == Card.NO_CARD;
+						if((isEmpty && empty) || !dst.isAddingLegal(card, dstPos)) {
+							continue;
+						}
+						if(removable < 0) {
+							removable = src.isRemovingLegal(srcPos, dstPile) ? 1 : 0;
+						}
+						if(removable == 0) {
+							break;
+						}
+						empty |= isEmpty;
+						buffer.add(Move.of(srcPile, srcPos, dstPile, dstPos));
+					}
+				}
+			}
+		}
+		return buffer.size();
+	}
+	
+	/**
+	 * Determines whether a card can never be needed on the other piles any more once it can be
+	 * played to a Homecell pile, so that playing it there can not make the game harder. No card is
+	 * safe unless a game says otherwise.
+	 * @param card    - the ordinal of the card.
+	 * @param heights - the rank of the top Homecell card of each suit, 0 if there is none.
+	 * @return whether the card is safe to play to a Homecell pile.
+	 */
+	protected boolean isSafeToPlayHome(int card, int [] heights) {
+		return false;
+	}
+	
+	/**
+	 * Plays every card which is safe to move to a Homecell pile (see
+	 * {@link #isSafeToPlayHome(int, int[])}) after a move. A move only uncovers one card, so unless
+	 * that card is safe, or the move itself went to a Homecell pile, nothing else is looked at;
+	 * every card played home may make other cards safe, so then every top card is checked again
+	 * until none is safe.
+	 * @param move   - the encoded move which was just played.
+	 * @param played - receives the moves played, in order. The buffer is cleared first.
+	 * @return the number of moves played.
+	 */
+	public int playSafeMoves(int move, MoveBuffer played) {
+		played.clear();
+		if(Move.isDeal(move) || _piles.size() <= Piles.HOMECELL) {
+			return 0;
+		}
+		int [] heights = homeHeights();
+		boolean moved = Move.dstPile(move) == Piles.HOMECELL;
+		moved |= playHomeIfSafe(Move.srcPile(move), Move.srcPos(move), heights, played);
+		return playAllSafeMoves(moved, heights, played);
+	}
+	
+	/**
+	 * Plays every card which is safe to move to a Homecell pile (see
+	 * {@link #isSafeToPlayHome(int, int[])}), looking at every top card. Used where no move tells
+	 * which card was uncovered: on a new deal, or on a restored or replayed position.
+	 * @param played - receives the moves played, in order. The buffer is cleared first.
+	 * @return the number of moves played.
+	 */
+	public int playSafeMoves(MoveBuffer played) {
+		played.clear();
+		if(_piles.size() <= Piles.HOMECELL) {
+			return 0;
+		}
+		return playAllSafeMoves(true, homeHeights(), played);
+	}
+	
+	/**
+	 * @return the rank of the top Homecell card of each suit, 0 if there is none.
+	 */
+	private int [] homeHeights() {
+		int [] heights = _heights;
+		Arrays.fill(heights, 0);
+		Piles homecells = _piles.get(Piles.HOMECELL);
+		for(int i = 0; i < homecells.count(); i++) {
+			byte top = homecells.getTopOrdinal(i);
+			if(top != Card.NO_CARD) {
+				heights[Card.suitOf(top)] = Card.rankOf(top);
+			}
+		}
+		return heights;
+	}
+	
+	/**
+	 * Checks every top card again, as long as a card was played home.
+	 * @param moved - whether a card was already played home.
+	 * @return the number of moves played.
+	 */
+	private int playAllSafeMoves(boolean moved, int [] heights, MoveBuffer played) {
+		while(moved) {
+			moved = false;
+			for(int src = 0; src < _piles.size(); src++) {
+				if(src == Piles.HOMECELL) {
+					continue;
+				}
+				for(int i = 0; i < _piles.get(src).count(); i++) {
+					while(playHomeIfSafe(src, i, heights, played)) {
+						moved = true;
+					}
+				}
+			}
+		}
+		return played.size();
+	}
+	
+	/**
+	 * Plays the top card of a pile to a Homecell pile if it is safe.
+	 * @return whether the card was played.
+	 */
+	private boolean playHomeIfSafe(int pile, int pos, int [] heights, MoveBuffer played) {
+		if(pile == Piles.HOMECELL || !isMoveSource(pile)) {
+			return false;
+		}
+		Piles src = _piles.get(pile);
+		byte card = src.getTopOrdinal(pos);
+		if(card == Card.NO_CARD || heights[Card.suitOf(card)] != Card.rankOf(card) - 1
+				|| !isSafeToPlayHome(card, heights) || !src.isRemovingLegal(pos, Piles.HOMECELL)) {
+			return false;
+		}
+		Piles homecells = _piles.get(Piles.HOMECELL);
+		for(int i = 0; i < homecells.count(); i++) {
+			if(homecells.isAddingLegal(card, i)) {
+				int move = Move.of(pile, pos, Piles.HOMECELL, i);
+				applyMove(move);
+				played.add(move);
+				heights[Card.suitOf(card)]++;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the number of cards on the Homecell piles once the game is won. Every card must be
+	 * played home unless a game says otherwise.
+	 * @return the number of cards.
+	 */
+	protected int cardsToWin() {
+		return 52;
+	}
+	
+	/**
+	 * Determines whether the game is won. The Homecell piles keep count of their cards as they
+	 * change, so this call takes constant time.
+	 * @return whether the game is won.
+	 */
+	public boolean isWon() {
+		return _piles.size() > Piles.HOMECELL && _piles.get(Piles.HOMECELL).total() == cardsToWin();
+	}
+	
+	/**
+	 * Determines whether the game is lost: it is not won, and the only legal moves, if any, move a
+	 * lone card to an empty pile of the same type, which just swaps two piles. The answer is kept
+	 * until a card is moved, so asking again takes constant time; after a move the piles are only
+	 * scanned until a move is found.
+	 * @return whether no move can change the game any more.
+	 */
+	public boolean isStuck() {
+		long changes = 0;
+		for(int i = 0; i < _piles.size(); i++) {
+			changes += _piles.get(i).changes();
+		}
+		if(changes != _stuckAt) {
+			_stuck   = !isWon() && !hasMove();
+			_stuckAt = changes;
+		}
+		return _stuck;
+	}
+	
+	/**
+	 * Determines whether a move other than swapping two piles is legal. Unlike
+	 * {@link #generateMoves(MoveBuffer)}, this stops at the first move found. A game with other
+	 * kinds of moves must add them.
+	 * @return whether such a move is legal.
+	 */
+	protected boolean hasMove() {
+		for(int srcPile = 0; srcPile < _piles.size(); srcPile++) {
+			if(!isMoveSource(srcPile)) {
+				continue;
+			}
+			Piles src = _piles.get(srcPile);
+			for(int srcPos = 0; srcPos < src.count(); srcPos++) {
+				byte card = src.getTopOrdinal(srcPos);
+				if(card == Card.NO_CARD) {
+					continue;
+				}
+				for(int dstPile = 0; dstPile < _piles.size(); dstPile++) {
+					Piles dst = _piles.get(dstPile);
+					for(int dstPos = 0; dstPos < dst.count(); dstPos++) {
+						if(dstPile == srcPile && (dstPos == srcPos
+								|| (src.size(srcPos) == 1 && dst.getTopOrdinal(dstPos) == Card.NO_CARD))) {
+							continue;
+						}
+						if(dst.isAddingLegal(card, dstPos) && src.isRemovingLegal(srcPos, dstPile)) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Plays a move without checking its legality. The move should have been generated by
+	 * {@link #generateMoves(MoveBuffer)} for the current position.
+	 * @param move - the encoded move.
+	 */
+	public void applyMove(int move) {
+		if(Move.isDeal(move)) {
+			invokeDefaultSpecialAction();
+			return;
+		}
+		transfer(_piles.get(Move.srcPile(move)), Move.srcPos(move),
+				_piles.get(Move.dstPile(move)), Move.dstPos(move), Move.count(move));
+	}
+	
+	/**
+	 * Takes back a move. The move must be the last move applied with {@link #applyMove(int)}.
+	 * @param move - the encoded move.
+	 */
+	public void undoMove(int move) {
+		if(Move.isDeal(move)) {
+			Piles tableau = _piles.get(Piles.TABLEAU);
+			Piles stock = _piles.get(Piles.STOCK);
+			for(int i = tableau.count() - 1; i >= 0; i--) {
+				stock.push(0, tableau.pop(i));
+			}
+			return;
+		}
+		transfer(_piles.get(Move.dstPile(move)), Move.dstPos(move),
+				_piles.get(Move.srcPile(move)), Move.srcPos(move), Move.count(move));
+	}
+	
+	/**
+	 * Moves the top cards of one pile onto another, keeping their order.
+	 */
+	private static void transfer(Piles src, int srcPos, Piles dst, int dstPos, int count) {
+		int base = src.size(srcPos) - count;
+		for(int i = 0; i < count; i++) {
+			dst.push(dstPos, src.getOrdinalAt(srcPos, base + i));
+		}
+		for(int i = 0; i < count; i++) {
+			src.pop(srcPos);
+		}
+	}
+	
+	/**
+	 * Creates a new game of the specified type.
+	 * @param gameId - the id of the type of game.
+	 * @return the new game.
+	 * @throws IllegalArgumentException if {@code gameId} does not correspond to any existing game type.
+	 */
+	static Game newGame(int gameId) {
+		if(gameId == BakersDozenGame.GAME_ID) {
+			return new BakersDozenGame();
+		} else if(gameId == FreecellGame.GAME_ID) {
+			return new FreecellGame();
+		} else if(gameId == AcesUpGame.GAME_ID) {
+			return new AcesUpGame();
+		}
+		throw new IllegalArgumentException("Game id does not correspond to any game.");
+	}
+	
+	/**
+	 * Returns the specified collection of piles for use by other classes of the model.
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return the collection of piles.
+	 */
+	Piles piles(int pile) {
+		return _piles.get(pile);
+	}
+	
 	/**
 	 * Test helper.
 	 * DO NOT USE IT
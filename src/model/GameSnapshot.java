@@ -0,0 +1,267 @@
+package model;
+
+import java.util.Arrays;
+
+import abstraction.Card;
+import strategy.LegalityTable;
+import strategy.PileStrategy;
+
+/**
+ * An immutable view of a position of a {@link Game}. Moving a card does not modify a snapshot but
+ * returns a new one which shares every pile that did not change with its parent: only the list of
+ * piles of the affected types and the two affected piles are copied. Thousands of sibling positions
+ * therefore cost little more than the piles in which they differ.
+ * A snapshot follows the rules of the game it was taken from, and its {@link #positionHash()} is
+ * equal to the hash the game would have in the same position.
+ */
+public final class GameSnapshot {
+	/**
+	 * _gameId      - the id of the type of the game this snapshot was taken from.
+	 * _strategies  - the algorithms of each pile type, shared by all snapshots of a game.
+	 * _tables      - the adding rules of each pile type, shared by all snapshots of a game.
+	 * _moveSources - whether cards can be moved from each pile type, shared by all snapshots of a game.
+	 * _piles       - the cards of each pile, bottom to top, indexed by pile type then pile position.
+	 *                Neither the arrays nor their elements are ever modified once a snapshot is created.
+	 * _hash        - the Zobrist hash of this position.
+	 */
+	private final int              _gameId;
+	private final PileStrategy []  _strategies;
+	private final LegalityTable [] _tables;
+	private final boolean []       _moveSources;
+	private final byte [][][]      _piles;
+	private final long             _hash;
+
+	private GameSnapshot(int gameId, PileStrategy [] strategies, LegalityTable [] tables, boolean [] moveSources,
+			byte [][][] piles, long hash) {
+		_gameId      = gameId;
+		_strategies  = strategies;
+		_tables      = tables;
+		_moveSources = moveSources;
+		_piles       = piles;
+		_hash        = hash;
+	}
+
+	/**
+	 * Takes a snapshot of the current position of a game.
+	 * @param game - the game.
+	 * @return the snapshot.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public static GameSnapshot of(Game game) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+
+		int types = game.pileTypes();
+		PileStrategy [] strategies = new PileStrategy[types];
+		LegalityTable [] tables = new LegalityTable[types];
+		boolean [] moveSources = new boolean[types];
+		byte [][][] piles = new byte[types][][];
+		for(int i = 0; i < types; i++) {
+			Piles p = game.piles(i);
+			strategies[i] = p.strategy();
+			tables[i] = p.table();
+			moveSources[i] = game.isMoveSource(i);
+			piles[i] = new byte[p.count()][];
+			for(int j = 0; j < p.count(); j++) {
+				byte [] pile = new byte[p.size(j)];
+				for(int k = 0; k < pile.length; k++) {
+					pile[k] = p.getOrdinalAt(j, k);
+				}
+				piles[i][j] = pile;
+			}
+		}
+		return new GameSnapshot(game.getGameId(), strategies, tables, moveSources, piles, game.positionHash());
+	}
+
+	/**
+	 * Determines whether moving the top card of one pile onto another is legal.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @return whether this operation is legal.
+	 */
+	public boolean isMoveLegal(int srcPile, int srcPos, int dstPile, int dstPos) {
+		if(!_moveSources[srcPile] || (srcPile == dstPile && srcPos == dstPos)) {
+			return false;
+		}
+		byte card = getTopOrdinal(srcPile, srcPos);
+		if(card == Card.NO_CARD || !_tables[dstPile].isAddingLegal(card, getTopOrdinal(dstPile, dstPos))) {
+			return false;
+		}
+
+		byte [][] sources = _piles[srcPile];
+		byte [] tops = new byte[sources.length];
+		for(int i = 0; i < tops.length; i++) {
+			tops[i] = topOf(sources[i]);
+		}
+		return _strategies[srcPile].isRemovingLegal(srcPos, tops, dstPile);
+	}
+
+	/**
+	 * Moves the top card of one pile onto another. This snapshot is not modified.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @return the position after the move.
+	 * @throws IllegalArgumentException if the move is illegal.
+	 */
+	public GameSnapshot applyMove(int srcPile, int srcPos, int dstPile, int dstPos) {
+		if(!isMoveLegal(srcPile, srcPos, dstPile, dstPos)) {
+			throw new IllegalArgumentException("The move is illegal.");
+		}
+
+		byte [][][] piles = _piles.clone();
+		piles[srcPile] = piles[srcPile].clone();
+		if(dstPile != srcPile) {
+			piles[dstPile] = piles[dstPile].clone();
+		}
+
+		byte [] src = _piles[srcPile][srcPos];
+		byte [] dst = _piles[dstPile][dstPos];
+		byte card = src[src.length - 1];
+		byte [] newDst = Arrays.copyOf(dst, dst.length + 1);
+		newDst[dst.length] = card;
+		piles[srcPile][srcPos] = Arrays.copyOf(src, src.length - 1);
+		piles[dstPile][dstPos] = newDst;
+
+		long hash = _hash ^ Zobrist.key(srcPile, srcPos, src.length - 1, card)
+				^ Zobrist.key(dstPile, dstPos, dst.length, card);
+		return new GameSnapshot(_gameId, _strategies, _tables, _moveSources, piles, hash);
+	}
+
+	/**
+	 * Deals one card from the top of the Stock pile onto each of the 4 Tableau piles, as
+	 * {@link AcesUpGame#invokeDefaultSpecialAction()} does. This snapshot is not modified.
+	 * @return the position after the deal.
+	 * @throws UnsupportedOperationException if this snapshot was not taken from an Ace's Up game.
+	 */
+	public GameSnapshot invokeDefaultSpecialAction() {
+		if(_gameId != AcesUpGame.GAME_ID) {
+			throw new UnsupportedOperationException();
+		}
+
+		byte [][][] piles = _piles.clone();
+		piles[Piles.TABLEAU] = piles[Piles.TABLEAU].clone();
+		piles[Piles.STOCK] = piles[Piles.STOCK].clone();
+		long hash = _hash;
+		byte [] stock = piles[Piles.STOCK][0];
+		int dealt = Math.min(4, stock.length);
+		for(int i = 0; i < dealt; i++) {
+			byte card = stock[stock.length - 1 - i];
+			byte [] pile = piles[Piles.TABLEAU][i];
+			byte [] newPile = Arrays.copyOf(pile, pile.length + 1);
+			newPile[pile.length] = card;
+			piles[Piles.TABLEAU][i] = newPile;
+			hash ^= Zobrist.key(Piles.STOCK, 0, stock.length - 1 - i, card)
+					^ Zobrist.key(Piles.TABLEAU, i, pile.length, card);
+		}
+		piles[Piles.STOCK][0] = Arrays.copyOf(stock, stock.length - dealt);
+		return new GameSnapshot(_gameId, _strategies, _tables, _moveSources, piles, hash);
+	}
+
+	/**
+	 * Sets the piles of a game to this position. The game must be of the same type as the game this
+	 * snapshot was taken from.
+	 * @param game - the game to modify.
+	 * @throws IllegalArgumentException if game is {@code null} or is of a different type.
+	 */
+	public void restore(Game game) {
+		if(game == null || game.getGameId() != _gameId) {
+			throw new IllegalArgumentException("The snapshot does not belong to this type of game.");
+		}
+
+		for(int i = 0; i < _piles.length; i++) {
+			Piles piles = game.piles(i);
+			for(int j = 0; j < _piles[i].length; j++) {
+				piles.clear(j);
+				byte [] pile = _piles[i][j];
+				for(int k = 0; k < pile.length; k++) {
+					piles.push(j, pile[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new game which is set to this position.
+	 * @return the new game.
+	 */
+	public Game toGame() {
+		Game game = Game.newGame(_gameId);
+		restore(game);
+		return game;
+	}
+
+	/**
+	 * @return the Zobrist hash of this position.
+	 */
+	public long positionHash() {
+		return _hash;
+	}
+
+	/**
+	 * @return the id of the type of game this snapshot was taken from.
+	 */
+	public int getGameId() {
+		return _gameId;
+	}
+
+	/**
+	 * @return the number of pile types.
+	 */
+	public int pileTypes() {
+		return _piles.length;
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return the number of piles of the specified type.
+	 */
+	public int count(int pile) {
+		return _piles[pile].length;
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the size of the pile.
+	 */
+	public int size(int pile, int pos) {
+		return _piles[pile][pos].length;
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the ordinal of the top card, {@code Card.NO_CARD} if the pile is empty.
+	 */
+	public byte getTopOrdinal(int pile, int pos) {
+		return topOf(_piles[pile][pos]);
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the top card of the pile, {@code null} if the pile is empty.
+	 */
+	public Card getTopCard(int pile, int pos) {
+		return Card.fromOrdinal(getTopOrdinal(pile, pos));
+	}
+
+	/**
+	 * @param pile  - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos   - position of the pile.
+	 * @param index - index of the card in the pile, 0 being the bottom.
+	 * @return the ordinal of the card.
+	 */
+	public byte getOrdinalAt(int pile, int pos, int index) {
+		return _piles[pile][pos][index];
+	}
+
+	private static byte topOf(byte [] pile) {
+		return pile.length == 0 ? Card.NO_CARD : pile[pile.length - 1];
+	}
+}
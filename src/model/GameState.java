@@ -0,0 +1,220 @@
+package model;
+
+import java.util.Arrays;
+
+import abstraction.Card;
+
+/**
+ * An immutable, compact snapshot of a position of a {@link Game}.
+ * The piles of the game are visited in order (pile type, then pile position) and, for each pile,
+ * its size followed by the ordinals of its cards from bottom to top is written as a sequence of
+ * 6-bit fields. Ten fields are packed into every {@code long}. Since every variant always has
+ * all 52 cards in play, the size of a state only depends on the type of the game.
+ */
+public final class GameState {
+	/**
+	 * Constants
+	 *
+	 * FIELD_BITS      - the number of bits used by one field.
+	 * FIELDS_PER_WORD - the number of fields packed into one {@code long}.
+	 * FIELD_MASK      - mask of one field.
+	 */
+	private static final int  FIELD_BITS      = 6;
+	private static final int  FIELDS_PER_WORD = 10;
+	private static final long FIELD_MASK      = (1L << FIELD_BITS) - 1;
+
+	/**
+	 * _gameId - the id of the type of the game this state belongs to.
+	 * _words  - the packed fields.
+	 * _hash   - the cached hash code.
+	 */
+	private final int     _gameId;
+	private final long [] _words;
+	private final int     _hash;
+
+	private GameState(int gameId, long [] words) {
+		_gameId = gameId;
+		_words  = words;
+		_hash   = 31 * gameId + Arrays.hashCode(words);
+	}
+
+	/**
+	 * Creates a snapshot of the current position of a game.
+	 * @param game - the game.
+	 * @return the snapshot.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public static GameState of(Game game) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+
+		int fields = 0;
+		for(int i = 0; i < game.pileTypes(); i++) {
+			fields += game.count(i);
+		}
+		fields += Card.NUM_CARDS;
+
+		long [] words = new long[(fields + FIELDS_PER_WORD - 1) / FIELDS_PER_WORD];
+		int field = 0;
+		for(int i = 0; i < game.pileTypes(); i++) {
+			Piles piles = game.piles(i);
+			for(int j = 0; j < piles.count(); j++) {
+				int size = piles.size(j);
+				put(words, field++, size);
+				for(int k = 0; k < size; k++) {
+					put(words, field++, piles.getOrdinalAt(j, k));
+				}
+			}
+		}
+		return new GameState(game.getGameId(), words);
+	}
+
+	/**
+	 * Recreates a state from the values returned by {@link #getGameId()} and {@link #toLongArray()}.
+	 * @param gameId - the id of the type of the game.
+	 * @param words  - the packed fields.
+	 * @return the state.
+	 * @throws IllegalArgumentException if words is {@code null}.
+	 */
+	public static GameState fromLongArray(int gameId, long [] words) {
+		if(words == null) {
+			throw new IllegalArgumentException("Words can not be null.");
+		}
+		return new GameState(gameId, words.clone());
+	}
+
+	/**
+	 * Creates a state from the cards of every pile, e.g. to set up a position which no deal reaches.
+	 * @param gameId - the id of the type of the game.
+	 * @param piles  - the ordinals of the cards of every pile from bottom to top, with the piles in the
+	 *                 order described in the documentation of this class.
+	 * @return the state.
+	 * @throws IllegalArgumentException if piles or one of them is {@code null}, or a value is not the
+	 *                                  ordinal of a card.
+	 */
+	public static GameState of(int gameId, int [][] piles) {
+		if(piles == null) {
+			throw new IllegalArgumentException("Piles can not be null.");
+		}
+
+		int n = 0;
+		byte [] fields = new byte[piles.length + Card.NUM_CARDS];
+		for(int [] pile : piles) {
+			if(pile == null || n + 1 + pile.length > fields.length) {
+				throw new IllegalArgumentException("Every pile must hold some of the " + Card.NUM_CARDS + " cards.");
+			}
+			fields[n++] = (byte) pile.length;
+			for(int card : pile) {
+				if(card < 0 || card >= Card.NUM_CARDS) {
+					throw new IllegalArgumentException("A card ordinal must be between 0 and " + (Card.NUM_CARDS - 1) + ".");
+				}
+				fields[n++] = (byte) card;
+			}
+		}
+		return fromFields(gameId, Arrays.copyOf(fields, n));
+	}
+
+	/**
+	 * Creates a state from its fields, one per byte, e.g. as read by {@link WireCodec}.
+	 * @param gameId - the id of the type of the game.
+	 * @param fields - the fields, in the order described in the documentation of this class.
+	 * @return the state.
+	 */
+	static GameState fromFields(int gameId, byte [] fields) {
+		long [] words = new long[(fields.length + FIELDS_PER_WORD - 1) / FIELDS_PER_WORD];
+		for(int i = 0; i < fields.length; i++) {
+			put(words, i, fields[i]);
+		}
+		return new GameState(gameId, words);
+	}
+
+	/**
+	 * @param index - the index of the field.
+	 * @return the value of a field, in the order described in the documentation of this class.
+	 */
+	int field(int index) {
+		return get(_words, index);
+	}
+
+	/**
+	 * Sets the piles of a game to this position. The game must be of the same type as the game this
+	 * state was taken from.
+	 * @param game - the game to modify.
+	 * @throws IllegalArgumentException if game is {@code null} or is of a different type.
+	 */
+	public void restore(Game game) {
+		if(game == null || game.getGameId() != _gameId) {
+			throw new IllegalArgumentException("The state does not belong to this type of game.");
+		}
+
+		int field = 0;
+		for(int i = 0; i < game.pileTypes(); i++) {
+			Piles piles = game.piles(i);
+			for(int j = 0; j < piles.count(); j++) {
+				int size = get(_words, field++);
+				piles.clear(j);
+				for(int k = 0; k < size; k++) {
+					piles.push(j, (byte) get(_words, field++));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new game which is set to this position.
+	 * @return the new game.
+	 * @throws IllegalArgumentException if the id of this state does not correspond to any game.
+	 */
+	public Game toGame() {
+		Game game = Game.newGame(_gameId);
+		restore(game);
+		return game;
+	}
+
+	/**
+	 * @return the id of the type of game this state belongs to.
+	 */
+	public int getGameId() {
+		return _gameId;
+	}
+
+	/**
+	 * @return a copy of the packed fields of this state.
+	 */
+	public long [] toLongArray() {
+		return _words.clone();
+	}
+
+	/**
+	 * @return a copy of this state.
+	 */
+	public GameState copy() {
+		return new GameState(_gameId, _words.clone());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof GameState)) {
+			return false;
+		}
+		GameState other = (GameState) obj;
+		return _hash == other._hash && _gameId == other._gameId && Arrays.equals(_words, other._words);
+	}
+
+	@Override
+	public int hashCode() {
+		return _hash;
+	}
+
+	private static void put(long [] words, int field, int value) {
+		words[field / FIELDS_PER_WORD] |= (value & FIELD_MASK) << (field % FIELDS_PER_WORD * FIELD_BITS);
+	}
+
+	private static int get(long [] words, int field) {
+		return (int) ((words[field / FIELDS_PER_WORD] >>> (field % FIELDS_PER_WORD * FIELD_BITS)) & FIELD_MASK);
+	}
+}
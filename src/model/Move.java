@@ -0,0 +1,110 @@
+package model;
+
+/**
+ * Moves are encoded as {@code int}s so that they can be generated, stored and replayed without
+ * allocating any object. A move takes the top {@code count} cards of a source pile and puts them,
+ * in the same order, on top of a destination pile. A deal from the Stock pile of an Ace's Up game
+ * is encoded as the special move {@link #DEAL}.
+ * <pre>
+ * bits  0- 3  destination pile position
+ * bits  4- 5  destination pile type
+ * bits  6- 9  source pile position
+ * bits 10-11  source pile type
+ * bits 12-17  number of cards moved
+ * bit  18     deal flag
+ * </pre>
+ */
+public final class Move {
+	/**
+	 * Constant
+	 *
+	 * DEAL - the move which deals one card from the Stock pile onto each Tableau pile.
+	 */
+	public static final int DEAL = 1 << 18;
+
+	private Move() {}
+
+	/**
+	 * Encodes a move of a single card.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @return the encoded move.
+	 */
+	public static int of(int srcPile, int srcPos, int dstPile, int dstPos) {
+		return of(srcPile, srcPos, dstPile, dstPos, 1);
+	}
+
+	/**
+	 * Encodes a move of several cards.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @param count   - the number of cards moved.
+	 * @return the encoded move.
+	 */
+	public static int of(int srcPile, int srcPos, int dstPile, int dstPos, int count) {
+		return count << 12 | srcPile << 10 | srcPos << 6 | dstPile << 4 | dstPos;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return the type of the source pile.
+	 */
+	public static int srcPile(int move) {
+		return move >>> 10 & 0x3;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return the position of the source pile.
+	 */
+	public static int srcPos(int move) {
+		return move >>> 6 & 0xF;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return the type of the destination pile.
+	 */
+	public static int dstPile(int move) {
+		return move >>> 4 & 0x3;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return the position of the destination pile.
+	 */
+	public static int dstPos(int move) {
+		return move & 0xF;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return the number of cards moved.
+	 */
+	public static int count(int move) {
+		return move >>> 12 & 0x3F;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return whether the move is {@link #DEAL}.
+	 */
+	public static boolean isDeal(int move) {
+		return move == DEAL;
+	}
+
+	/**
+	 * @param move - an encoded move.
+	 * @return a human readable representation of the move.
+	 */
+	public static String toString(int move) {
+		if(isDeal(move)) {
+			return "deal";
+		}
+		return count(move) + " from " + srcPile(move) + ":" + srcPos(move) + " to " + dstPile(move) + ":" + dstPos(move);
+	}
+}
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * A reusable buffer of encoded moves (see {@link Move}). Clearing a buffer keeps its storage, so
+ * a buffer that is reused by a move generator stops allocating once it has grown large enough.
+ */
+public final class MoveBuffer {
+	/**
+	 * _moves - the encoded moves.
+	 * _size  - the number of moves in this buffer.
+	 */
+	private int [] _moves;
+	private int    _size;
+
+	/**
+	 * Creates an empty buffer.
+	 */
+	public MoveBuffer() {
+		_moves = new int[64];
+	}
+
+	/**
+	 * Removes every move from this buffer.
+	 */
+	public void clear() {
+		_size = 0;
+	}
+
+	/**
+	 * Appends a move to this buffer.
+	 * @param move - the encoded move.
+	 */
+	public void add(int move) {
+		if(_size == _moves.length) {
+			int [] moves = new int[_moves.length * 2];
+			System.arraycopy(_moves, 0, moves, 0, _size);
+			_moves = moves;
+		}
+		_moves[_size++] = move;
+	}
+
+	/**
+	 * Returns a move of this buffer.
+	 * @param index - the index of the move.
+	 * @return the encoded move.
+	 * @throws IndexOutOfBoundsException if index < 0 || index >= size().
+	 */
+	public int get(int index) {
+		if(index < 0 || index >= _size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return _moves[index];
+	}
+
+	/**
+	 * @return the number of moves in this buffer.
+	 */
+	public int size() {
+		return _size;
+	}
+}
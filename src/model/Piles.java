@@ -1,9 +1,11 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Stack;
 
 import abstraction.Card;
+import strategy.LegalityTable;
 import strategy.PileStrategy;
 
 /**
@@ -19,19 +21,56 @@ public class Piles {
 	public static final int STOCK    = 2; // bad idea but whatever
 	
 	/**
-	 * _piles - collection of piles.
+	 * INITIAL_HEADROOM - how many cards each pile can grow by before its storage has to be enlarged.
+	 *                    A pile can never grow by more than 13 cards in Freecell or Baker's Dozen.
+	 */
+	private static final int INITIAL_HEADROOM = 13;
+	
+	/**
+	 * _cards        - the ordinals of the cards in all piles, each pile stored bottom to top
+	 *                 in its own slice of this array.
+	 * _offsets      - the index in _cards where each pile starts.
+	 * _capacities   - the length of the slice of _cards reserved for each pile.
+	 * _sizes        - the number of cards in each pile.
+	 * _tops         - the ordinal of the top card of each pile, {@code Card.NO_CARD} for an empty pile.
+	 *                 It is handed to the strategy as is, so removal checks never allocate.
+	 * _type         - the type of this collection in its game, used for hashing.
+	 * _hash         - the Zobrist hash of the cards in this collection.
+	 * _total        - the number of cards in all piles.
+	 * _changes      - the number of cards pushed or popped since this collection was created.
 	 * _pileStrategy - the algorithms to use for this pile.
+	 * _table        - the precomputed adding rules of _pileStrategy.
 	 */
-	private ArrayList<Stack<Card>> _piles;
+	private byte [] _cards;
+	private int  [] _offsets;
+	private int  [] _capacities;
+	private int  [] _sizes;
+	private byte [] _tops;
+	private int     _type;
+	private long    _hash;
+	private int     _total;
+	private long    _changes;
 	private PileStrategy _pileStrategy;
+	private LegalityTable _table;
 
 	/**
 	 * Creates a {@code Piles} instance and initialize it using the given algorithm.
 	 * @param strategy - algorithms which will be used to initialize and control this {@code Piles} instance.
 	 */
 	public Piles(PileStrategy strategy, Deck deck) {
+		this(strategy, deck, TABLEAU);
+	}
+	
+	/**
+	 * Creates a {@code Piles} instance of the given type and initialize it using the given algorithm.
+	 * @param strategy - algorithms which will be used to initialize and control this {@code Piles} instance.
+	 * @param type     - the type of this collection in its game. (0-Tableau, 1-Homecell, 2-Freecell)
+	 */
+	public Piles(PileStrategy strategy, Deck deck, int type) {
 		_pileStrategy = strategy;
-		_piles = strategy.getInitialSetUp(deck);
+		_table = LegalityTable.of(strategy);
+		_type = type;
+		load(strategy.getInitialSetUp(deck));
 	}
 	
 	/**
@@ -41,7 +80,20 @@ public class Piles {
 	 * @return whether this operation is legal.
 	 */
 	public boolean isAddingLegal(Card card, int pos) {
-		return _pileStrategy.isAddingLegal(card, getTopCard(pos));
+		if(card == null) {
+			return _pileStrategy.isAddingLegal(card, getTopCard(pos));
+		}
+		return _table.isAddingLegal(card.getOrdinal(), _tops[pos]);
+	}
+	
+	/**
+	 * Determines whether this operation is legal.
+	 * @param card - ordinal of the card to be added to the pile.
+	 * @param pos  - the position of the pile.
+	 * @return whether this operation is legal.
+	 */
+	public boolean isAddingLegal(byte card, int pos) {
+		return _table.isAddingLegal(card, _tops[pos]);
 	}
 
 	/**
@@ -52,7 +104,7 @@ public class Piles {
 	 */
 	public boolean addCard(Card card, int pos) {
 		if(isAddingLegal(card, pos)) {
-			_piles.get(pos).push(card);
+			push(pos, card.getOrdinal());
 			return true;
 		}
 		return false;
@@ -64,7 +116,7 @@ public class Piles {
 	 * @param pos  - the position of the pile.
 	 */
 	public void forceAddCard(Card card, int pos) {
-		_piles.get(pos).push(card);
+		push(pos, Card.ordinalOf(card));
 	}
 	
 	/**
@@ -83,7 +135,7 @@ public class Piles {
 	 * @return whether this operation is legal.
 	 */
 	public boolean isRemovingLegal(int pos, int dest) {
-		return _pileStrategy.isRemovingLegal(getTopCard(pos), getOtherTopCards(pos), dest);
+		return _pileStrategy.isRemovingLegal(pos, _tops, dest);
 	}
 
 	/**
@@ -93,7 +145,7 @@ public class Piles {
 	 */
 	public boolean removeCard(int pos) {
 		if(isRemovingLegal(pos)) {
-			_piles.get(pos).pop();
+			pop(pos);
 			return true;
 		}
 		return false;
@@ -107,7 +159,7 @@ public class Piles {
 	 */
 	public boolean removeCard(int pos, int dest) {
 		if (isRemovingLegal(pos, dest)) {
-			_piles.get(pos).pop();
+			pop(pos);
 			return true;
 		} else {
 			return false;
@@ -120,11 +172,16 @@ public class Piles {
 	 * @return the top card of the specified pile.
 	 */
 	public Card getTopCard(int pos) {
-		Stack<Card> pile = _piles.get(pos);
-		if(pile.isEmpty()) {
-			return null;
-		}
-		return pile.peek();
+		return Card.fromOrdinal(getTopOrdinal(pos));
+	}
+	
+	/**
+	 * Returns the ordinal of the top card of the specified pile. Nothing will be modified after this method call.
+	 * @param pos - position of the pile.
+	 * @return the ordinal of the top card of the specified pile, {@code Card.NO_CARD} if the pile is empty.
+	 */
+	public byte getTopOrdinal(int pos) {
+		return _tops[pos];
 	}
 	
 	/**
@@ -133,9 +190,9 @@ public class Piles {
 	 * @return the top cards of other piles.
 	 */
 	public Card [] getOtherTopCards(int pos) {
-		Card [] otherTops = new Card[_piles.size() - 1];
+		Card [] otherTops = new Card[_sizes.length - 1];
 		int pileCounter = 0;
-		for(int i = 0; i < _piles.size(); i++) {
+		for(int i = 0; i < _sizes.length; i++) {
 			if(i != pos) {
 				otherTops[pileCounter] = getTopCard(i);
 				pileCounter += 1;
@@ -150,16 +207,154 @@ public class Piles {
 	 * @return the size of the pile
 	 */
 	public int size(int pos) {
-		return _piles.get(pos).size();
+		return _sizes[pos];
+	}
+	
+	/**
+	 * Returns the Zobrist hash of the cards in this collection. It is kept up to date
+	 * by every operation that adds or removes a card.
+	 * @return the hash.
+	 */
+	public long positionHash() {
+		return _hash;
+	}
+	
+	/**
+	 * @return the number of piles in this collection.
+	 */
+	public int count() {
+		return _sizes.length;
+	}
+	
+	/**
+	 * Returns the ordinal of a card in the specified pile. Index 0 is the bottom of the pile.
+	 * Nothing will be modified after this method call.
+	 * @param pos   - position of the pile.
+	 * @param index - index of the card in the pile.
+	 * @return the ordinal of the card.
+	 * @throws IndexOutOfBoundsException if index < 0 || index >= size(pos).
+	 */
+	public byte getOrdinalAt(int pos, int index) {
+		if(index < 0 || index >= _sizes[pos]) {
+			throw new IndexOutOfBoundsException();
+		}
+		return _cards[_offsets[pos] + index];
+	}
+	
+	/**
+	 * Pushes a card onto the specified pile without any legality check. {@code Card.NO_CARD} is ignored.
+	 * @param pos  - position of the pile.
+	 * @param card - ordinal of the card.
+	 */
+	void push(int pos, byte card) {
+		if(card == Card.NO_CARD) {
+			return;
+		}
+		if(_sizes[pos] == _capacities[pos]) {
+			grow(pos);
+		}
+		_cards[_offsets[pos] + _sizes[pos]] = card;
+		_hash ^= Zobrist.key(_type, pos, _sizes[pos], card);
+		_sizes[pos] += 1;
+		_tops[pos] = card;
+		_total++;
+		_changes++;
+	}
+	
+	/**
+	 * Pops the top card of the specified pile without any legality check.
+	 * @param pos - position of the pile.
+	 * @return the ordinal of the removed card, {@code Card.NO_CARD} if the pile was empty.
+	 */
+	byte pop(int pos) {
+		if(_sizes[pos] == 0) {
+			return Card.NO_CARD;
+		}
+		_sizes[pos] -= 1;
+		int offset = _offsets[pos] + _sizes[pos];
+		byte card = _cards[offset];
+		_hash ^= Zobrist.key(_type, pos, _sizes[pos], card);
+		_tops[pos] = _sizes[pos] == 0 ? Card.NO_CARD : _cards[offset - 1];
+		_total--;
+		_changes++;
+		return card;
 	}
 	
 	/**
-	 * Returns the reference to _piles.
+	 * Removes every card from the specified pile without any legality check.
+	 * @param pos - position of the pile.
+	 */
+	void clear(int pos) {
+		while(_sizes[pos] > 0) {
+			pop(pos);
+		}
+	}
+	
+	/**
+	 * Replaces the content of this collection with the given piles.
+	 * @param piles - the new piles, bottom to top.
+	 */
+	private void load(ArrayList<Stack<Card>> piles) {
+		int count = piles.size();
+		_offsets    = new int[count];
+		_capacities = new int[count];
+		_sizes      = new int[count];
+		_tops       = new byte[count];
+		Arrays.fill(_tops, Card.NO_CARD);
+		int total = 0;
+		for(int i = 0; i < count; i++) {
+			_offsets[i]    = total;
+			_capacities[i] = piles.get(i).size() + INITIAL_HEADROOM;
+			total += _capacities[i];
+		}
+		_cards = new byte[total];
+		_hash  = 0;
+		_total = 0;
+		_changes++;
+		for(int i = 0; i < count; i++) {
+			for(Card card : piles.get(i)) {
+				push(i, Card.ordinalOf(card));
+			}
+		}
+	}
+	
+	/**
+	 * Doubles the capacity of the specified pile by relaying out _cards.
+	 * @param pos - position of the pile that ran out of room.
+	 */
+	private void grow(int pos) {
+		int [] capacities = _capacities.clone();
+		capacities[pos] *= 2;
+		int [] offsets = new int[capacities.length];
+		int total = 0;
+		for(int i = 0; i < capacities.length; i++) {
+			offsets[i] = total;
+			total += capacities[i];
+		}
+		byte [] cards = new byte[total];
+		for(int i = 0; i < capacities.length; i++) {
+			System.arraycopy(_cards, _offsets[i], cards, offsets[i], _sizes[i]);
+		}
+		_cards      = cards;
+		_offsets    = offsets;
+		_capacities = capacities;
+	}
+	
+	/**
+	 * Returns a copy of the piles in this collection.
 	 * DO NOT USE IT
 	 */
 	@Deprecated
 	public ArrayList<Stack<Card>> getPiles() {
-		return _piles;
+		ArrayList<Stack<Card>> piles = new ArrayList<Stack<Card>>();
+		for(int i = 0; i < _sizes.length; i++) {
+			Stack<Card> pile = new Stack<Card>();
+			for(int j = 0; j < _sizes[i]; j++) {
+				pile.push(Card.fromOrdinal(_cards[_offsets[i] + j]));
+			}
+			piles.add(pile);
+		}
+		return piles;
 	}
 	
 	/**
@@ -171,10 +366,48 @@ public class Piles {
 		ArrayList<Stack<Card>> piles = new ArrayList<Stack<Card>>();
 		for(int i = 0; i < 4; i++) {
 			Stack<Card> pile = new Stack<Card>();
-			pile.push(cards[i]);
+			if(cards[i] != null) {
+				pile.push(cards[i]);
+			}
 			piles.add(pile);
 		}
-		_piles = piles;
+		load(piles);
+	}
+	
+	/**
+	 * @return the number of cards in all piles of this collection.
+	 */
+	int total() {
+		return _total;
+	}
+	
+	/**
+	 * @return a counter which changes whenever a card is pushed or popped, so that a client can tell
+	 *         in constant time whether this collection changed since it last looked.
+	 */
+	long changes() {
+		return _changes;
+	}
+	
+	/**
+	 * @return the algorithms used by this collection.
+	 */
+	PileStrategy strategy() {
+		return _pileStrategy;
+	}
+	
+	/**
+	 * @return the precomputed adding rules of this collection.
+	 */
+	LegalityTable table() {
+		return _table;
+	}
+	
+	/**
+	 * @return the type of this collection in its game.
+	 */
+	int type() {
+		return _type;
 	}
 	
 	/**
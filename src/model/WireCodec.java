@@ -0,0 +1,194 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import abstraction.Card;
+
+/**
+ * Encodes boards and moves as compact binary messages, so that clients can be kept in sync with a
+ * game at high message rates. Every message starts with its type:
+ * <pre>
+ * BOARD  type, game id, then for each pile (pile type, then pile position): its size followed by
+ *        the ordinals of its cards from bottom to top, one byte each
+ * MOVES  type, number of moves (at most {@link #MAX_MOVES}), then 3 bytes per encoded {@link Move}
+ * </pre>
+ * A client decodes a board once, turns it into a game with {@link GameState#toGame()}, then keeps
+ * it up to date by applying the moves of every MOVES message with {@link Game#applyMove(int)}. A
+ * Freecell board takes 70 bytes, and a move with the cards it sent home a few bytes more.
+ */
+public final class WireCodec {
+	/**
+	 * Constants
+	 *
+	 * BOARD      - the type of a message holding a whole board.
+	 * MOVES      - the type of a message holding moves.
+	 * MAX_MOVES  - the largest number of moves of one message.
+	 * MOVE_BYTES - the number of bytes of an encoded move.
+	 * MOVE_BITS  - the number of bits used by an encoded move.
+	 * PILES      - the number of piles of each type of game, indexed by game id.
+	 */
+	public static final byte BOARD      = 1;
+	public static final byte MOVES      = 2;
+	public static final int  MAX_MOVES  = 255;
+	private static final int MOVE_BYTES = 3;
+	private static final int MOVE_BITS  = 19;
+	private static final int [] PILES   = new int[3];
+
+	static {
+		for(int gameId = 0; gameId < PILES.length; gameId++) {
+			Game game = Game.newGame(gameId);
+			for(int i = 0; i < game.pileTypes(); i++) {
+				PILES[gameId] += game.count(i);
+			}
+		}
+	}
+
+	private WireCodec() {}
+
+	/**
+	 * @param gameId - the id of the type of game.
+	 * @return the number of bytes of a BOARD message of this type of game.
+	 * @throws IllegalArgumentException if gameId does not correspond to any game.
+	 */
+	public static int boardLength(int gameId) {
+		if(gameId < 0 || gameId >= PILES.length) {
+			throw new IllegalArgumentException("Game id does not correspond to any game.");
+		}
+		return 2 + PILES[gameId] + Card.NUM_CARDS;
+	}
+
+	/**
+	 * @param count - the number of moves.
+	 * @return the number of bytes of a MOVES message.
+	 */
+	public static int movesLength(int count) {
+		return 2 + MOVE_BYTES * count;
+	}
+
+	/**
+	 * Writes a BOARD message.
+	 * @param state - the position.
+	 * @param out   - the destination, which must have {@link #boardLength(int)} bytes remaining.
+	 * @throws IllegalArgumentException if state or out is {@code null}.
+	 * @throws java.nio.BufferOverflowException if out is too small.
+	 */
+	public static void writeBoard(GameState state, ByteBuffer out) {
+		if(state == null || out == null) {
+			throw new IllegalArgumentException("State and buffer can not be null.");
+		}
+		int fields = boardLength(state.getGameId()) - 2;
+		out.put(BOARD);
+		out.put((byte) state.getGameId());
+		for(int i = 0; i < fields; i++) {
+			out.put((byte) state.field(i));
+		}
+	}
+
+	/**
+	 * Reads a BOARD message.
+	 * @param in - the source, positioned at the start of the message. It is positioned after the
+	 *             message once it is read.
+	 * @return the position.
+	 * @throws IllegalArgumentException if the message is not a valid BOARD message.
+	 */
+	public static GameState readBoard(ByteBuffer in) {
+		try {
+			if(in.get() != BOARD) {
+				throw new IllegalArgumentException("Not a board.");
+			}
+			int gameId = in.get();
+			byte [] fields = new byte[boardLength(gameId) - 2];
+			boolean [] seen = new boolean[Card.NUM_CARDS];
+			int field = 0;
+			for(int pile = 0; pile < PILES[gameId]; pile++) {
+				int size = in.get();
+				if(size < 0 || field + 1 + size > fields.length) {
+					throw new IllegalArgumentException("Too many cards.");
+				}
+				fields[field++] = (byte) size;
+				for(int i = 0; i < size; i++) {
+					byte card = in.get();
+					if(card < 0 || card >= Card.NUM_CARDS || seen[card]) {
+						throw new IllegalArgumentException("Not a card, or a card twice.");
+					}
+					seen[card] = true;
+					fields[field++] = card;
+				}
+			}
+			if(field != fields.length) {
+				throw new IllegalArgumentException("Missing cards.");
+			}
+			return GameState.fromFields(gameId, fields);
+		} catch(BufferUnderflowException e) {
+			throw new IllegalArgumentException("The board is truncated.");
+		}
+	}
+
+	/**
+	 * Writes a MOVES message.
+	 * @param moves - the encoded moves.
+	 * @param count - the number of moves to write, from the start of moves.
+	 * @param out   - the destination, which must have {@link #movesLength(int)} bytes remaining.
+	 * @throws IllegalArgumentException if moves or out is {@code null}, or count is negative, greater
+	 *         than the length of moves or than {@link #MAX_MOVES}.
+	 * @throws java.nio.BufferOverflowException if out is too small.
+	 */
+	public static void writeMoves(int [] moves, int count, ByteBuffer out) {
+		writeMoves(moves, 0, count, out);
+	}
+
+	/**
+	 * Writes a MOVES message holding part of an array of moves, e.g. to split more than
+	 * {@link #MAX_MOVES} moves into several messages.
+	 * @param moves  - the encoded moves.
+	 * @param offset - the index of the first move to write.
+	 * @param count  - the number of moves to write.
+	 * @param out    - the destination, which must have {@link #movesLength(int)} bytes remaining.
+	 * @throws IllegalArgumentException if moves or out is {@code null}, offset or count is negative,
+	 *         the moves go past the end of moves, or count is greater than {@link #MAX_MOVES}.
+	 * @throws java.nio.BufferOverflowException if out is too small.
+	 */
+	public static void writeMoves(int [] moves, int offset, int count, ByteBuffer out) {
+		if(moves == null || out == null) {
+			throw new IllegalArgumentException("Moves and buffer can not be null.");
+		}
+		if(offset < 0 || count < 0 || count > moves.length - offset || count > MAX_MOVES) {
+			throw new IllegalArgumentException("Illegal number of moves.");
+		}
+		out.put(MOVES);
+		out.put((byte) count);
+		for(int i = offset; i < offset + count; i++) {
+			out.put((byte) (moves[i] >>> 16));
+			out.putShort((short) moves[i]);
+		}
+	}
+
+	/**
+	 * Reads a MOVES message.
+	 * @param in    - the source, positioned at the start of the message. It is positioned after the
+	 *                message once it is read.
+	 * @param moves - receives the encoded moves, in order. The buffer is cleared first.
+	 * @return the number of moves read.
+	 * @throws IllegalArgumentException if the message is not a valid MOVES message.
+	 */
+	public static int readMoves(ByteBuffer in, MoveBuffer moves) {
+		try {
+			if(in.get() != MOVES) {
+				throw new IllegalArgumentException("Not moves.");
+			}
+			moves.clear();
+			int count = in.get() & 0xFF;
+			for(int i = 0; i < count; i++) {
+				int high = in.get() & 0xFF;
+				if(high >>> MOVE_BITS - 16 != 0) {
+					throw new IllegalArgumentException("Not a move.");
+				}
+				moves.add(high << 16 | (in.getShort() & 0xFFFF));
+			}
+			return count;
+		} catch(BufferUnderflowException e) {
+			throw new IllegalArgumentException("The moves are truncated.");
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Zobrist keys of the model. The key of a card at a given place on the board is a pseudo-random
+ * 64-bit value, and the hash of a position is the XOR of the keys of all its cards, so adding or
+ * removing a card updates the hash in constant time.
+ * Instead of a table of pre-generated random values, the keys are derived on demand from the
+ * place with the SplitMix64 finalizer, which keeps them identical across runs and out of the cache.
+ */
+final class Zobrist {
+	private Zobrist() {}
+
+	/**
+	 * Returns the key of a card at a given place.
+	 * @param pile  - the type of the pile.
+	 * @param pos   - the position of the pile.
+	 * @param index - the index of the card in the pile, 0 being the bottom.
+	 * @param card  - the ordinal of the card.
+	 * @return the key.
+	 */
+	static long key(int pile, int pos, int index, int card) {
+		long z = (((((long) pile << 4 | pos) << 6 | index) << 6 | card) + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -3,7 +3,6 @@ package model.test;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
-import java.util.Stack;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,14 +38,13 @@ public class AcesUpGameTest {
 	
 	@Test
 	public void testForceAddCard() {
-		Stack<Card> stock = game.getPiles().get(Piles.STOCK).getPiles().get(0);
-		ArrayList<Stack<Card>> tableau = game.getPiles().get(Piles.TABLEAU).getPiles();
-		Card stockTopCard = stock.peek();
+		Card stockTopCard = game.getTopCard(Piles.STOCK, 0);
 		game.forceAddCard(stockTopCard, Piles.TABLEAU, 0);
-		assertEquals("force adding a card to the first tableau, card should be added", stockTopCard, tableau.get(0).peek());
+		assertEquals("force adding a card to the first tableau, card should be added", stockTopCard,
+				game.getTopCard(Piles.TABLEAU, 0));
 		try {
 			game.forceAddCard(null, Piles.TABLEAU, 2);
-			assertNotNull("if stock is empty, forceAddCard should do nothing", tableau.get(2).peek());
+			assertNotNull("if stock is empty, forceAddCard should do nothing", game.getTopCard(Piles.TABLEAU, 2));
 		} catch(Exception e) {
 			fail("if stock is empty, forceAddCard should do nothing");
 		}
@@ -54,17 +52,16 @@ public class AcesUpGameTest {
 	
 	@Test
 	public void testInvokeDefaultSpecialAction() {
-		ArrayList<Stack<Card>> tableauPiles = game.getPiles().get(Piles.TABLEAU).getPiles();
-		Stack<Card> stockPile = game.getPiles().get(Piles.STOCK).getPiles().get(0);
 		for(int i = 0; i < 12; i++) {
 			game.invokeDefaultSpecialAction();
 			assertEquals("After " + (i + 1) + "calls to invokeDefaultSpecialAction(), " +
-					"stock pile shoule have " + (48 - (4 * (i + 1))) + "cards", (48 - (4 * (i + 1))), stockPile.size());
+					"stock pile shoule have " + (48 - (4 * (i + 1))) + "cards", (48 - (4 * (i + 1))),
+					game.size(Piles.STOCK, 0));
 			// since stack is used. The new top card must be the 5th card.
 			
 			for(int j = 0; j < 4; j++) {
 				assertEquals("After " + (i + 1) + "calls to invokeDefaultSpecialAction(), " +
-						"tableau pile shoule have " + (i + 2) + "cards", (i + 2), tableauPiles.get(j).size());
+						"tableau pile shoule have " + (i + 2) + "cards", (i + 2), game.size(Piles.TABLEAU, j));
 			}
 		}
 	}
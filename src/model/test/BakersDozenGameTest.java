@@ -113,7 +113,7 @@ public class BakersDozenGameTest {
 		
 		try {
 			for(int i = 0; i < 42; i++) {
-				Card card = new Card(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
+				Card card = Card.of(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
 				int pos = rand.nextInt(howManyPiles);
 				int originalSize = game.size(whichPile, pos);
 				if(strategy.isAddingLegal(card, game.getTopCard(whichPile, pos))) {
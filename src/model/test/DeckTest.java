@@ -2,136 +2,114 @@ package model.test;
 
 import static org.junit.Assert.*;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import abstraction.Card;
-import abstraction.Rank;
-import abstraction.Suit;
 import model.Deck;
 
-@SuppressWarnings("unchecked")
 public class DeckTest {
 	Deck deck;
-	Field deckField;
-	
+	Deck reference;
+
 	@Before
-	public void setUpTest() throws Exception {
+	public void setUpTest() {
 		deck = new Deck();
-		deckField = getDeckField();
-		deckField.setAccessible(true);
+		// a deck with the same seed deals the same cards, so it tells us what deck holds
+		reference = new Deck(deck.getSeed());
 	}
-	
+
 	@Test
 	public void testConstructor() {
-		try {
-			ArrayList<Card> cardsInDeck = (ArrayList<Card>) deckField.get(deck);
-			assertNotNull("field must be initialized when an instance of Deck is created", cardsInDeck);
-			assertEquals("A newly instantiated deck must have 52 cards", 52, cardsInDeck.size());
-			
-			for(Suit suit : Suit.values()) {
-				for(Rank rank : Rank.values()) {
-					Card card = new Card(suit, rank);
-					assertTrue("Every card in the deck must be unique but I got 2 or more " + card.toString(),
-							cardsInDeck.contains(card));
-				}
-			}
-			
-			/* 
-			 * Randomness test too hard to implement. But since the chance for two randomly generated sequences
-			 * being the same is extremely low(1/52! ~ 6.45e-26), we can use this fact to test the randomness of a newly
-			 * instantiated deck.
-			 */
-			Deck testRandomness = new Deck();
-			ArrayList<Card> cardsInTestRandomness = (ArrayList<Card>) deckField.get(testRandomness);
-			assertNotEquals("Cards must be shuffled", cardsInTestRandomness, cardsInDeck);
-		} catch (Exception e) {
-			e.printStackTrace();
-			fail("Unexpected exception. Contact Frank ASAP");
+		assertEquals("A newly instantiated deck must have 52 cards", 52, deck.size());
+		ArrayList<Card> cardsInDeck = deck.getCards(52);
+		Set<Card> unique = new HashSet<Card>(cardsInDeck);
+		for(int i = 0; i < Card.NUM_CARDS; i++) {
+			Card card = Card.fromOrdinal(i);
+			assertTrue("Every card in the deck must be unique but I got 2 or more " + card.toString(),
+					unique.contains(card));
 		}
+
+		/*
+		 * Randomness test too hard to implement. But since the chance for two randomly generated sequences
+		 * being the same is extremely low(1/52! ~ 6.45e-26), we can use this fact to test the randomness of a newly
+		 * instantiated deck.
+		 */
+		Deck testRandomness = new Deck();
+		assertNotEquals("Cards must be shuffled", testRandomness.getCards(52), cardsInDeck);
 	}
-	
+
 	@Test
-	public void testGetCardsWithArgumentMuchLessThanDeckSize() {
+	public void testSeededConstructor() {
+		assertEquals("Decks with the same seed must deal the same cards", new Deck(42).getCards(52),
+				new Deck(42).getCards(52));
+		assertNotEquals("Decks with different seeds must deal different cards", new Deck(42).getCards(52),
+				new Deck(43).getCards(52));
+		assertEquals("A deck must remember its seed", 42L, new Deck(42).getSeed());
+	}
+
+	@Test
+	public void testNextCard() {
+		for(int i = 0; i < 52; i++) {
+			assertEquals("nextCard() must deal the cards in order", reference.getCards(1).get(0), deck.nextCard());
+			assertEquals("nextCard() must remove one card", 51 - i, deck.size());
+		}
 		try {
-			ArrayList<Card> cardsInDeck = (ArrayList<Card>) deckField.get(deck);
-			
-			ArrayList<Card> expectedRetVal = getExpectedRetVal(cardsInDeck, 2);
-			ArrayList<Card> expectedRemainders = getExpectedRemainders(cardsInDeck, 2);
-			ArrayList<Card> actual = deck.getCards(2);
-			assertEquals("Requesting 2 cards from a new deck", 2, actual.size());
-			assertEquals("Requesting 2 cards from a new deck", expectedRetVal, actual);
-			assertEquals("Giving out 2 cards from a new deck", 50, cardsInDeck.size());
-			assertEquals("Giving out 2 cards from a new deck", expectedRemainders, cardsInDeck);
-			
-			expectedRetVal = getExpectedRetVal(cardsInDeck, 3);
-			expectedRemainders = getExpectedRemainders(cardsInDeck, 3);
-			actual = deck.getCards(3);
-			assertEquals("Requesting 3 cards from a deck that has 50 cards remaining", 3, actual.size());
-			assertEquals("Requesting 3 cards from a deck that has 50 cards remaining", expectedRetVal, actual);
-			assertEquals("Giving out 3 cards from a deck that has 50 cards remaining", 47, cardsInDeck.size());
-			assertEquals("Giving out 3 cards from a deck that has 50 cards remaining", expectedRemainders, cardsInDeck);
-			
-		} catch(Exception e) {
-			e.printStackTrace();
-			fail("Unexpected exception. Contact Frank ASAP");
+			deck.nextCard();
+			fail("Requesting a card from an empty deck. IndexOutOfBoundsException expected");
+		} catch(IndexOutOfBoundsException e) {
+			// expected
 		}
 	}
-	
+
+	@Test
+	public void testGetCardsWithArgumentMuchLessThanDeckSize() {
+		ArrayList<Card> actual = deck.getCards(2);
+		assertEquals("Requesting 2 cards from a new deck", 2, actual.size());
+		assertEquals("Requesting 2 cards from a new deck", reference.getCards(2), actual);
+		assertEquals("Giving out 2 cards from a new deck", 50, deck.size());
+
+		actual = deck.getCards(3);
+		assertEquals("Requesting 3 cards from a deck that has 50 cards remaining", 3, actual.size());
+		assertEquals("Requesting 3 cards from a deck that has 50 cards remaining", reference.getCards(3), actual);
+		assertEquals("Giving out 3 cards from a deck that has 50 cards remaining", 47, deck.size());
+		assertEquals("Giving out 3 cards from a deck that has 50 cards remaining", reference.getCards(47),
+				deck.getCards(47));
+	}
+
 	@Test
 	public void testGetCardsWithArgumentAboutHalfOfDeckSize() {
-		try {
-			ArrayList<Card> cardsInDeck = (ArrayList<Card>) deckField.get(deck);
-			
-			ArrayList<Card> expectedRetVal = getExpectedRetVal(cardsInDeck, 27);
-			ArrayList<Card> expectedRemainders = getExpectedRemainders(cardsInDeck, 27);
-			ArrayList<Card> actual = deck.getCards(27);
-			assertEquals("Requesting 27 cards from a new deck", 27, actual.size());
-			assertEquals("Requesting 27 cards from a new deck", expectedRetVal, actual);
-			assertEquals("Giving out 27 cards from a new deck", 25, cardsInDeck.size());
-			assertEquals("Giving out 27 cards from a new deck", expectedRemainders, cardsInDeck);
-			
-			expectedRetVal = getExpectedRetVal(cardsInDeck, 25);
-			expectedRemainders = getExpectedRemainders(cardsInDeck, 25);
-			actual = deck.getCards(25);
-			assertEquals("Requesting 25 cards from a deck that has 25 cards remaining", 25, actual.size());
-			assertEquals("Requesting 25 cards from a deck that has 25 cards remaining", expectedRetVal, actual);
-			assertEquals("Giving out 25 cards from a deck that has 25 cards remaining", 0, cardsInDeck.size());
-			assertEquals("Giving out 25 cards from a deck that has 25 cards remaining", expectedRemainders, cardsInDeck);
-		} catch(Exception e) {
-			e.printStackTrace();
-			fail("Unexpected exception. Contact Frank ASAP");
-		}
+		ArrayList<Card> actual = deck.getCards(27);
+		assertEquals("Requesting 27 cards from a new deck", 27, actual.size());
+		assertEquals("Requesting 27 cards from a new deck", reference.getCards(27), actual);
+		assertEquals("Giving out 27 cards from a new deck", 25, deck.size());
+
+		actual = deck.getCards(25);
+		assertEquals("Requesting 25 cards from a deck that has 25 cards remaining", 25, actual.size());
+		assertEquals("Requesting 25 cards from a deck that has 25 cards remaining", reference.getCards(25), actual);
+		assertEquals("Giving out 25 cards from a deck that has 25 cards remaining", 0, deck.size());
 	}
-	
+
 	@Test
 	public void testGetCardsWithArgumentAlmostEqualDeckSize() {
+		ArrayList<Card> actual = deck.getCards(50);
+		assertEquals("Requesting 50 cards from a new deck", 50, actual.size());
+		assertEquals("Requesting 50 cards from a new deck", reference.getCards(50), actual);
+		assertEquals("Giving out 50 cards from a new deck", 2, deck.size());
+
 		try {
-			ArrayList<Card> cardsInDeck = (ArrayList<Card>) deckField.get(deck);
-			
-			ArrayList<Card> expectedRetVal = getExpectedRetVal(cardsInDeck, 50);
-			ArrayList<Card> expectedRemainders = getExpectedRemainders(cardsInDeck, 50);
-			ArrayList<Card> actual = deck.getCards(50);
-			assertEquals("Requesting 50 cards from a new deck", 50, actual.size());
-			assertEquals("Requesting 50 cards from a new deck", expectedRetVal, actual);
-			assertEquals("Giving out 50 cards from a new deck", 2, cardsInDeck.size());
-			assertEquals("Giving out 50 cards from a new deck", expectedRemainders, cardsInDeck);
-			
-			try {
-				deck.getCards(49);
-				fail("Requesting 49 cards from a deck that has 2 cards remaining. IndexOutOfBoundsException expected");
-			} catch(IndexOutOfBoundsException e) {
-				// expected
-			}
-		} catch(Exception e) {
-			e.printStackTrace();
-			fail("Unexpected exception. Contact Frank ASAP");
+			deck.getCards(49);
+			fail("Requesting 49 cards from a deck that has 2 cards remaining. IndexOutOfBoundsException expected");
+		} catch(IndexOutOfBoundsException e) {
+			// expected
 		}
+		assertEquals("A failed request must not remove any card", 2, deck.size());
 	}
-	
+
 	@Test
 	public void testGetCardsWithIllegalArguments() {
 		try {
@@ -140,7 +118,7 @@ public class DeckTest {
 		} catch(IllegalArgumentException e) {
 			// expected
 		}
-		
+
 		try {
 			deck.getCards(-1);
 			fail("Requesting -1 card from the deck. IllegalArgumentException expected");
@@ -148,16 +126,4 @@ public class DeckTest {
 			// expected
 		}
 	}
-	
-	private Field getDeckField() throws Exception {
-		return Deck.class.getDeclaredField("_deck");
-	}
-	
-	private ArrayList<Card> getExpectedRetVal(ArrayList<Card> cardsInDeck, int n) {
-		return new ArrayList<Card>(cardsInDeck.subList(0, n));
-	}
-	
-	private ArrayList<Card> getExpectedRemainders(ArrayList<Card> cardsInDeck, int n) {
-		return new ArrayList<Card>(cardsInDeck.subList(n, cardsInDeck.size()));
-	}
 }
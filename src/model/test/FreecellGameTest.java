@@ -12,8 +12,10 @@ import org.junit.Test;
 import abstraction.Card;
 import abstraction.Rank;
 import abstraction.Suit;
+import model.Deck;
 import model.FreecellGame;
 import model.Game;
+import model.GameState;
 import model.Piles;
 import strategy.FreecellFreecellStrategy;
 import strategy.FreecellTableauStrategy;
@@ -133,6 +135,66 @@ public class FreecellGameTest {
 		testRemoveCard(4, 2, strategy);
 	}
 	
+	@Test
+	public void testSeededDeal() {
+		FreecellGame first = new FreecellGame(new Deck(116));
+		FreecellGame second = new FreecellGame(new Deck(116));
+		assertEquals("Games dealt from decks with the same seed must be identical",
+				GameState.of(first), GameState.of(second));
+		assertEquals("A game must remember the seed of its deck", 116L, first.getSeed());
+	}
+	
+	@Test
+	public void testNumberedDeals() {
+		String [] deal1 = {
+				"JD 2D 9H JC 5D 7H 7C 5H",
+				"KD KC 9S 5S AD QC KH 3H",
+				"2S KS 9D QD JS AS AH 3C",
+				"4C 5C TS QH 4H AC 4D 7S",
+				"3S TD 4S TH 8H 2C JH 7D",
+				"6D 8S 8D QS 6C 3D 8C TC",
+				"6S 9C 2H 6H" };
+		String [] deal617 = {
+				"7D AD 5C 3S 5S 8C 2D AH",
+				"TD 7S QD AC 6D 8H AS KH",
+				"TH QC 3H 9D 6S 8D 3D TC",
+				"KD 5H 9S 3C 8S 7H 4D JS",
+				"4C QS 9C 9H 7C 6H 2C 2S",
+				"4S TS 2H 5D JC 6C JH QH",
+				"JD KS KC 4H" };
+		testNumberedDeal(1, deal1);
+		testNumberedDeal(617, deal617);
+		try {
+			new FreecellGame(0);
+			fail("Deal numbers start at 1, IllegalArgumentException expected");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	private void testNumberedDeal(int dealNumber, String [] rows) {
+		FreecellGame numbered = new FreecellGame(dealNumber);
+		assertEquals("A numbered game must remember its number", dealNumber, numbered.getDealNumber());
+		for(int row = 0; row < rows.length; row++) {
+			String [] cards = rows[row].split(" ");
+			for(int col = 0; col < cards.length; col++) {
+				Card expected = parseCard(cards[col]);
+				assertEquals("Deal #" + dealNumber + " has " + cards[col] + " in row " + row + " of pile " + col,
+						expected.getOrdinal(), numbered.getOrdinalAt(Piles.TABLEAU, col, row));
+			}
+		}
+		assertEquals("Piles 0 to 3 must have 7 cards", 7, numbered.size(Piles.TABLEAU, 3));
+		assertEquals("Piles 4 to 7 must have 6 cards", 6, numbered.size(Piles.TABLEAU, 4));
+		assertEquals("Two games with the same number must be identical",
+				GameState.of(numbered), GameState.of(new FreecellGame(dealNumber)));
+	}
+	
+	private Card parseCard(String name) {
+		Rank rank = Rank.values()["A23456789TJQK".indexOf(name.charAt(0))];
+		Suit suit = Suit.values()["CDHS".indexOf(name.charAt(1))];
+		return Card.of(suit, rank);
+	}
+	
 	private void testAddCard(int howManyPiles, int whichPile, PileStrategy strategy) {
 		Suit [] suits = Suit.values();
 		Rank [] ranks = Rank.values();
@@ -140,7 +202,7 @@ public class FreecellGameTest {
 		
 		try {
 			for(int i = 0; i < 42; i++) {
-				Card card = new Card(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
+				Card card = Card.of(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
 				int pos = rand.nextInt(howManyPiles);
 				int originalSize = game.size(whichPile, pos);
 				if(strategy.isAddingLegal(card, game.getTopCard(whichPile, pos))) {
@@ -180,4 +242,18 @@ public class FreecellGameTest {
 			}
 		}
 	}
+
+	@Test
+	public void testToDealNumber() {
+		assertEquals("The first deal is a deal number", 1, FreecellGame.toDealNumber(1));
+		assertEquals("The last deal is a deal number", Integer.MAX_VALUE, FreecellGame.toDealNumber(Integer.MAX_VALUE));
+		for(long seed : new long [] { 0, -1, Integer.MAX_VALUE + 1L }) {
+			try {
+				FreecellGame.toDealNumber(seed);
+				fail(seed + " is not a deal number, IllegalArgumentException expected");
+			} catch(IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
 }
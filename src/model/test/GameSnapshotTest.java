@@ -0,0 +1,86 @@
+package model.test;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import abstraction.Card;
+import model.AcesUpGame;
+import model.FreecellGame;
+import model.Game;
+import model.GameSnapshot;
+import model.GameState;
+import model.Piles;
+
+public class GameSnapshotTest {
+	@Test
+	public void testApplyMoveMatchesGame() {
+		FreecellGame game = new FreecellGame(1);
+		GameSnapshot snapshot = GameSnapshot.of(game);
+		assertEquals("A snapshot must have the hash of its game", game.positionHash(), snapshot.positionHash());
+
+		// move every top card of a Tableau pile to a Freecell pile
+		for(int i = 0; i < 4; i++) {
+			Card card = game.getTopCard(Piles.TABLEAU, i);
+			assertTrue("Moving a card to an empty Freecell pile is legal",
+					snapshot.isMoveLegal(Piles.TABLEAU, i, Piles.FREECELL, i));
+			GameSnapshot next = snapshot.applyMove(Piles.TABLEAU, i, Piles.FREECELL, i);
+			assertTrue("The live game should accept the same move", game.addCard(card, Piles.FREECELL, i));
+			assertTrue("The live game should accept the same move", game.removeCard(Piles.TABLEAU, i));
+			assertEquals("The snapshot must be in the same position as the game",
+					GameState.of(game), GameState.of(next.toGame()));
+			assertEquals("The hash must be updated like the hash of the game", game.positionHash(), next.positionHash());
+			assertEquals("The parent must not be modified", card, snapshot.getTopCard(Piles.TABLEAU, i));
+			assertNull("The parent must not be modified", snapshot.getTopCard(Piles.FREECELL, i));
+			snapshot = next;
+		}
+		assertFalse("Freecell piles hold only one card", snapshot.isMoveLegal(Piles.TABLEAU, 5, Piles.FREECELL, 0));
+		assertFalse("Homecell cards can never be moved", snapshot.isMoveLegal(Piles.HOMECELL, 0, Piles.TABLEAU, 0));
+		try {
+			snapshot.applyMove(Piles.TABLEAU, 5, Piles.FREECELL, 0);
+			fail("Applying an illegal move should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testStructuralSharing() throws Exception {
+		Field pilesField = GameSnapshot.class.getDeclaredField("_piles");
+		pilesField.setAccessible(true);
+		GameSnapshot parent = GameSnapshot.of(new FreecellGame(617));
+		GameSnapshot child = parent.applyMove(Piles.TABLEAU, 2, Piles.FREECELL, 1);
+		byte [][][] parentPiles = (byte [][][]) pilesField.get(parent);
+		byte [][][] childPiles = (byte [][][]) pilesField.get(child);
+		assertSame("Untouched pile types must be shared", parentPiles[Piles.HOMECELL], childPiles[Piles.HOMECELL]);
+		for(int i = 0; i < 8; i++) {
+			if(i != 2) {
+				assertSame("Untouched piles must be shared", parentPiles[Piles.TABLEAU][i], childPiles[Piles.TABLEAU][i]);
+			}
+		}
+		assertNotSame("The source pile must be copied", parentPiles[Piles.TABLEAU][2], childPiles[Piles.TABLEAU][2]);
+		assertSame("Untouched piles must be shared", parentPiles[Piles.FREECELL][0], childPiles[Piles.FREECELL][0]);
+	}
+
+	@Test
+	public void testAcesUpRules() {
+		AcesUpGame game = new AcesUpGame();
+		GameSnapshot snapshot = GameSnapshot.of(game);
+		assertFalse("Stock cards can only be dealt", snapshot.isMoveLegal(Piles.STOCK, 0, Piles.TABLEAU, 0));
+		GameSnapshot dealt = snapshot.invokeDefaultSpecialAction();
+		game.invokeDefaultSpecialAction();
+		assertEquals("Dealing must match the game", GameState.of(game), GameState.of(dealt.toGame()));
+		assertEquals("Dealing must update the hash like the game", game.positionHash(), dealt.positionHash());
+		assertEquals("The parent must not be modified", 48, snapshot.size(Piles.STOCK, 0));
+
+		Game freecell = new FreecellGame();
+		try {
+			GameSnapshot.of(freecell).invokeDefaultSpecialAction();
+			fail("Only Ace's Up can deal from a Stock pile");
+		} catch(UnsupportedOperationException e) {
+			// expected
+		}
+	}
+}
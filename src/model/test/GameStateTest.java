@@ -0,0 +1,124 @@
+package model.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.Piles;
+
+public class GameStateTest {
+	@Test
+	public void testRoundTrip() {
+		Game [] games = { new BakersDozenGame(), new FreecellGame(), new AcesUpGame() };
+		for(Game game : games) {
+			GameState state = GameState.of(game);
+			Game copy = state.toGame();
+			assertEquals("toGame() must create a game of the same type", game.getGameId(), copy.getGameId());
+			assertSameBoard(game, copy);
+			assertEquals("A game created from a state must have the same state", state, GameState.of(copy));
+			assertEquals("Equal states must have equal hash codes", state.hashCode(), GameState.of(copy).hashCode());
+		}
+	}
+
+	@Test
+	public void testFixedSize() {
+		assertEquals("A Freecell state uses 7 longs", 7, GameState.of(new FreecellGame()).toLongArray().length);
+		assertEquals("A Baker's Dozen state uses 7 longs", 7, GameState.of(new BakersDozenGame()).toLongArray().length);
+		assertEquals("An Ace's Up state uses 6 longs", 6, GameState.of(new AcesUpGame()).toLongArray().length);
+	}
+
+	@Test
+	public void testStateChangesWithPosition() {
+		AcesUpGame game = new AcesUpGame();
+		GameState before = GameState.of(game);
+		game.invokeDefaultSpecialAction();
+		GameState after = GameState.of(game);
+		assertNotEquals("Dealing from the stock must change the state", before, after);
+		long hash = game.positionHash();
+		before.restore(game);
+		assertNotEquals("Restoring a different state must change the hash", hash, game.positionHash());
+		assertEquals("Restoring a state must give the same hash as a fresh game in that position",
+				before.toGame().positionHash(), game.positionHash());
+		assertEquals("Restoring a state must bring the game back to that position", before, GameState.of(game));
+		assertEquals("The stock should have 48 cards again", 48, game.size(Piles.STOCK, 0));
+	}
+
+	@Test
+	public void testCopyAndLongArray() {
+		GameState state = GameState.of(new FreecellGame());
+		GameState copy = state.copy();
+		assertNotSame("copy() must create a new object", state, copy);
+		assertEquals("copy() must create an equal state", state, copy);
+		GameState decoded = GameState.fromLongArray(state.getGameId(), state.toLongArray());
+		assertEquals("fromLongArray() must invert toLongArray()", state, decoded);
+	}
+
+	@Test
+	public void testRestoreWithBadInputs() {
+		GameState state = GameState.of(new FreecellGame());
+		try {
+			state.restore(new BakersDozenGame());
+			fail("A Freecell state can not be restored into a Baker's Dozen game, IllegalArgumentException expected");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			GameState.of(null);
+			fail("GameState.of(null) should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testOfPiles() {
+		// Ace's Up with the Aces on the Tableau piles and every other card discarded
+		int [][] piles = new int[6][0];
+		piles[4] = new int[48];
+		for(int card = 0, n = 0; card < 52; card++) {
+			if(card % 13 == 0) {
+				piles[card / 13] = new int [] { card };
+			} else {
+				piles[4][n++] = card;
+			}
+		}
+		GameState state = GameState.of(AcesUpGame.GAME_ID, piles);
+		Game game = state.toGame();
+		assertEquals("Every pile must hold its cards", 1, game.size(Piles.TABLEAU, 3));
+		assertEquals("Every pile must hold its cards", 48, game.size(Piles.HOMECELL, 0));
+		assertEquals("Every pile must hold its cards", 0, game.size(Piles.STOCK, 0));
+		assertEquals("A state built from piles must match the game it creates", state, GameState.of(game));
+		assertEquals("The state must be as large as any other of its type", 6, state.toLongArray().length);
+
+		piles[4][0] = 52;
+		try {
+			GameState.of(AcesUpGame.GAME_ID, piles);
+			fail("52 is not the ordinal of a card, IllegalArgumentException expected");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		piles[4] = null;
+		try {
+			GameState.of(AcesUpGame.GAME_ID, piles);
+			fail("A null pile should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private void assertSameBoard(Game expected, Game actual) {
+		for(int i = 0; i < expected.pileTypes(); i++) {
+			for(int j = 0; j < expected.count(i); j++) {
+				assertEquals("Pile sizes must match", expected.size(i, j), actual.size(i, j));
+				for(int k = 0; k < expected.size(i, j); k++) {
+					assertEquals("Cards must match", expected.getOrdinalAt(i, j, k), actual.getOrdinalAt(i, j, k));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package model.test;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.Deck;
+import model.FreecellGame;
+import model.Game;
+import model.GameSnapshot;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+public class MoveTest {
+	@Test
+	public void testEncoding() {
+		int move = Move.of(Piles.FREECELL, 3, Piles.TABLEAU, 12, 40);
+		assertEquals("Source pile must be decoded", Piles.FREECELL, Move.srcPile(move));
+		assertEquals("Source position must be decoded", 3, Move.srcPos(move));
+		assertEquals("Destination pile must be decoded", Piles.TABLEAU, Move.dstPile(move));
+		assertEquals("Destination position must be decoded", 12, Move.dstPos(move));
+		assertEquals("Count must be decoded", 40, Move.count(move));
+		assertFalse("A regular move is not a deal", Move.isDeal(move));
+		assertEquals("A single card move has a count of 1", 1, Move.count(Move.of(0, 0, 1, 0)));
+		assertTrue("DEAL is a deal", Move.isDeal(Move.DEAL));
+	}
+
+	@Test
+	public void testBuffer() {
+		MoveBuffer buffer = new MoveBuffer();
+		for(int i = 0; i < 1000; i++) {
+			buffer.add(i);
+		}
+		assertEquals("The buffer must grow", 1000, buffer.size());
+		assertEquals("Moves must be kept in order", 999, buffer.get(999));
+		buffer.clear();
+		assertEquals("Clearing empties the buffer", 0, buffer.size());
+		try {
+			buffer.get(0);
+			fail("Reading past the end should throw an IndexOutOfBoundsException");
+		} catch(IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testFreecellMovesMatchRules() {
+		assertMovesMatchRules(new FreecellGame(1));
+		assertMovesMatchRules(new FreecellGame(617));
+	}
+
+	@Test
+	public void testBakersDozenMovesMatchRules() {
+		assertMovesMatchRules(new BakersDozenGame(new Deck(11)));
+	}
+
+	@Test
+	public void testAcesUpDeal() {
+		AcesUpGame game = new AcesUpGame(new Deck(5));
+		MoveBuffer buffer = new MoveBuffer();
+		int n = game.generateMoves(buffer);
+		assertEquals("A deal is generated while the Stock pile is not empty", Move.DEAL, buffer.get(n - 1));
+		for(int i = 0; i < n - 1; i++) {
+			assertEquals("No Tableau pile is empty, so cards can only be discarded",
+					Piles.HOMECELL, Move.dstPile(buffer.get(i)));
+		}
+
+		GameState before = GameState.of(game);
+		long hash = game.positionHash();
+		game.applyMove(Move.DEAL);
+		assertEquals("A deal moves 4 cards from the Stock pile", 44, game.size(Piles.STOCK, 0));
+		game.undoMove(Move.DEAL);
+		assertEquals("Undoing a deal must restore the position", before, GameState.of(game));
+		assertEquals("Undoing a deal must restore the hash", hash, game.positionHash());
+	}
+
+	@Test
+	public void testRandomPlayoutUndo() {
+		Game [] games = { new FreecellGame(42), new BakersDozenGame(new Deck(42)), new AcesUpGame(new Deck(42)) };
+		Random random = new Random(7);
+		MoveBuffer buffer = new MoveBuffer();
+		for(Game game : games) {
+			GameState start = GameState.of(game);
+			long hash = game.positionHash();
+			int [] played = new int[200];
+			int n = 0;
+			while(n < played.length && game.generateMoves(buffer) > 0) {
+				played[n] = buffer.get(random.nextInt(buffer.size()));
+				game.applyMove(played[n++]);
+			}
+			while(n > 0) {
+				game.undoMove(played[--n]);
+			}
+			assertEquals("Undoing every move must restore the position", start, GameState.of(game));
+			assertEquals("Undoing every move must restore the hash", hash, game.positionHash());
+		}
+	}
+
+	/**
+	 * Compares the generated moves with every move a snapshot considers legal, keeping only the
+	 * first empty destination of each pile type.
+	 */
+	@Test
+	public void testFreecellSafeMoves() {
+		// the Two of Clubs lies under the King of Spades, and the Three of Diamonds waits for it
+		Game game = position(FreecellGame.GAME_ID, new int [][] {
+				{ 1, 51 }, { 15 }, { 29 }, {}, {}, {}, {}, {},
+				{ 0 }, { 13, 14 }, { 26, 27, 28 }, { 39, 40 },
+				{}, {}, {}, {} });
+		MoveBuffer played = new MoveBuffer();
+		int move = Move.of(Piles.TABLEAU, 0, Piles.FREECELL, 0);
+		game.applyMove(move);
+		assertEquals("The Two of Clubs, then the Three of Diamonds are safe", 2, game.playSafeMoves(move, played));
+		assertEquals("The uncovered card is played first", Move.of(Piles.TABLEAU, 0, Piles.HOMECELL, 0), played.get(0));
+		assertEquals("Cards made safe are played next", Move.of(Piles.TABLEAU, 1, Piles.HOMECELL, 1), played.get(1));
+		assertEquals("The Four of Hearts could still hold the Three of Clubs", 29,
+				game.getTopOrdinal(Piles.TABLEAU, 2));
+
+		move = Move.of(Piles.TABLEAU, 2, Piles.FREECELL, 1);
+		game.applyMove(move);
+		assertEquals("Uncovering nothing plays nothing", 0, game.playSafeMoves(move, played));
+		assertEquals("The buffer must be cleared", 0, played.size());
+	}
+
+	@Test
+	public void testBakersDozenSafeMoves() {
+		// the Two of Spades lies under the Seven of Clubs, and the Three of Hearts waits for it
+		int [][] piles = new int[17][0];
+		piles[0] = new int [] { 40, 6 };
+		piles[1] = new int [] { 28 };
+		piles[2] = new int [] { 20 };
+		piles[3] = new int [] { 3 };
+		piles[13] = new int [] { 0, 1 };
+		piles[14] = new int [] { 13, 14 };
+		piles[15] = new int [] { 26, 27 };
+		piles[16] = new int [] { 39 };
+		Game game = position(BakersDozenGame.GAME_ID, piles);
+		MoveBuffer played = new MoveBuffer();
+		int move = Move.of(Piles.TABLEAU, 0, Piles.TABLEAU, 2);
+		game.applyMove(move);
+		assertEquals("The Two of Spades, then the Three of Hearts are safe", 2, game.playSafeMoves(move, played));
+		assertEquals("The uncovered card is played first", Move.of(Piles.TABLEAU, 0, Piles.HOMECELL, 3), played.get(0));
+		assertEquals("Cards made safe are played next", Move.of(Piles.TABLEAU, 1, Piles.HOMECELL, 2), played.get(1));
+		assertEquals("The Four of Clubs could still hold the Three of Clubs", 3, game.getTopOrdinal(Piles.TABLEAU, 3));
+	}
+
+	@Test
+	public void testFreecellSupermoves() {
+		// King of Spades, Queen of Hearts, Jack of Clubs, Ten of Diamonds, then the Queen of Diamonds
+		int [][] piles = new int[16][0];
+		piles[0] = new int [] { 51, 37, 10, 22 };
+		piles[1] = new int [] { 24 };
+		for(int pos = 2; pos < 8; pos++) {
+			piles[pos] = new int [] { pos - 2 };
+		}
+		FreecellGame game = (FreecellGame) position(FreecellGame.GAME_ID, piles);
+		assertEquals("The whole pile is a run", 4, game.runLength(0));
+		assertEquals("(4 + 1) * 2^0 cards can be moved", 5, game.maxSupermove(false));
+		assertEquals("The Jack and the Ten fit on the Queen", 2, game.supermoveSize(0, 1));
+
+		MoveBuffer buffer = new MoveBuffer();
+		int n = game.generateMoves(buffer);
+		int supermove = Move.of(Piles.TABLEAU, 0, Piles.TABLEAU, 1, 2);
+		boolean generated = false;
+		for(int i = 0; i < n; i++) {
+			generated |= buffer.get(i) == supermove;
+		}
+		assertTrue("The supermove must be generated", generated);
+
+		GameState before = GameState.of(game);
+		assertTrue("The run must be moved at once", game.moveCards(0, 1, 2));
+		assertEquals("The order of the run must be kept", 22, game.getTopOrdinal(Piles.TABLEAU, 1));
+		assertEquals("The order of the run must be kept", 10, game.getOrdinalAt(Piles.TABLEAU, 1, 1));
+		assertEquals("The Queen of Hearts is uncovered", 37, game.getTopOrdinal(Piles.TABLEAU, 0));
+		game.undoMove(supermove);
+		assertEquals("Undoing a supermove must restore the position", before, GameState.of(game));
+
+		// with every Freecell pile taken, only one card can be moved
+		for(int pos = 0; pos < 4; pos++) {
+			piles[12 + pos] = new int [] { 6 + pos };
+		}
+		game = (FreecellGame) position(FreecellGame.GAME_ID, piles);
+		assertEquals("(0 + 1) * 2^0 cards can be moved", 1, game.maxSupermove(false));
+		assertEquals("The run does not fit through the Freecell piles", 0, game.supermoveSize(0, 1));
+		before = GameState.of(game);
+		assertFalse("An oversized supermove is illegal", game.moveCards(0, 1, 2));
+		assertEquals("An illegal supermove must not modify the game", before, GameState.of(game));
+
+		// an empty Tableau pile doubles the capacity, except when it is the destination
+		piles[2] = new int[0];
+		game = (FreecellGame) position(FreecellGame.GAME_ID, piles);
+		assertEquals("(0 + 1) * 2^1 cards can be moved", 2, game.maxSupermove(false));
+		assertEquals("(0 + 1) * 2^0 cards can be moved to the empty pile", 1, game.maxSupermove(true));
+		assertEquals("Only the Ten fits in the empty pile", 1, game.supermoveSize(0, 2));
+		assertTrue("The run fits through the empty pile", game.moveCards(0, 1, 2));
+	}
+
+	@Test
+	public void testAcesUpHasNoSafeMoves() {
+		Game game = new AcesUpGame(new Deck(8));
+		MoveBuffer played = new MoveBuffer();
+		assertEquals("Ace's Up never plays cards by itself", 0, game.playSafeMoves(Move.DEAL, played));
+	}
+
+	@Test
+	public void testWonAndStuck() {
+		int [][] piles = new int[16][0];
+		for(int suit = 0; suit < 4; suit++) {
+			piles[8 + suit] = new int[13];
+			for(int rank = 0; rank < 13; rank++) {
+				piles[8 + suit][rank] = suit * 13 + rank;
+			}
+		}
+		Game game = position(FreecellGame.GAME_ID, piles);
+		assertTrue("Every card is home", game.isWon());
+		assertFalse("A won game is not stuck", game.isStuck());
+		assertFalse("A new game is neither won nor stuck", new FreecellGame(1).isWon());
+		assertFalse("A new game is neither won nor stuck", new FreecellGame(1).isStuck());
+
+		// black cards only, so nothing builds: Seven of Spades under Two of Clubs, Three to Seven of
+		// Clubs, Two and Three of Spades, Four to Six of Spades in the Freecell piles
+		piles = new int[16][0];
+		piles[0] = new int [] { 45, 1 };
+		for(int pos = 1; pos < 8; pos++) {
+			piles[pos] = new int [] { pos < 6 ? pos + 1 : pos + 34 };
+		}
+		for(int pos = 0; pos < 3; pos++) {
+			piles[12 + pos] = new int [] { 42 + pos };
+		}
+		game = position(FreecellGame.GAME_ID, piles);
+		assertFalse("A card can be moved to the empty Freecell pile", game.isStuck());
+		int move = Move.of(Piles.TABLEAU, 0, Piles.FREECELL, 3);
+		game.applyMove(move);
+		assertTrue("No card can be moved", game.isStuck());
+		assertTrue("The answer must not change while the game does not", game.isStuck());
+		assertFalse("No card can be moved", game.isWon());
+		game.undoMove(move);
+		assertFalse("Undoing a move must be noticed", game.isStuck());
+
+		int [][] acesUp = new int[6][0];
+		acesUp[4] = new int[48];
+		for(int card = 0, n = 0; card < 52; card++) {
+			if(card % 13 == 0) {
+				acesUp[card / 13] = new int [] { card };
+			} else {
+				acesUp[4][n++] = card;
+			}
+		}
+		game = position(AcesUpGame.GAME_ID, acesUp);
+		assertTrue("Only the Aces are left", game.isWon());
+		assertFalse("A won game is not stuck", game.isStuck());
+		assertFalse("Dealing is a move", new AcesUpGame(new Deck(1)).isStuck());
+	}
+
+	private static Game position(int gameId, int [][] piles) {
+		return GameState.of(gameId, piles).toGame();
+	}
+
+	private static void assertMovesMatchRules(Game game) {
+		GameSnapshot snapshot = GameSnapshot.of(game);
+		HashSet<Integer> expected = new HashSet<Integer>();
+		for(int srcPile = 0; srcPile < snapshot.pileTypes(); srcPile++) {
+			for(int srcPos = 0; srcPos < snapshot.count(srcPile); srcPos++) {
+				for(int dstPile = 0; dstPile < snapshot.pileTypes(); dstPile++) {
+					boolean empty = false;
+					for(int dstPos = 0; dstPos < snapshot.count(dstPile); dstPos++) {
+						if(!snapshot.isMoveLegal(srcPile, srcPos, dstPile, dstPos)) {
+							continue;
+						}
+						if(snapshot.size(dstPile, dstPos) == 0) {
+							if(empty) {
+								continue;
+							}
+							empty = true;
+						}
+						expected.add(Move.of(srcPile, srcPos, dstPile, dstPos));
+					}
+				}
+			}
+		}
+
+		MoveBuffer buffer = new MoveBuffer();
+		int n = game.generateMoves(buffer);
+		HashSet<Integer> actual = new HashSet<Integer>();
+		HashSet<Integer> all = new HashSet<Integer>();
+		GameState before = GameState.of(game);
+		long hash = game.positionHash();
+		for(int i = 0; i < n; i++) {
+			int move = buffer.get(i);
+			all.add(move);
+			game.applyMove(move);
+			// snapshots only move single cards
+			if(Move.count(move) == 1) {
+				actual.add(move);
+				assertEquals("Applying a move must update the hash like a snapshot",
+						snapshot.applyMove(Move.srcPile(move), Move.srcPos(move), Move.dstPile(move), Move.dstPos(move)).positionHash(),
+						game.positionHash());
+			}
+			game.undoMove(move);
+			assertEquals("Undoing a move must restore the position", before, GameState.of(game));
+		}
+		assertEquals("No move may be generated twice", n, all.size());
+		assertEquals("Every legal move must be generated", expected, actual);
+		assertEquals("The hash must be restored", hash, game.positionHash());
+	}
+}
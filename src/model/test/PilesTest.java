@@ -3,9 +3,7 @@ package model.test;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.Random;
-import java.util.Stack;
 
 import org.junit.Test;
 
@@ -21,19 +19,18 @@ import strategy.FreecellTableauStrategy;
 import strategy.HomecellStrategy;
 import strategy.PileStrategy;
 
-@SuppressWarnings("unchecked")
 public class PilesTest {
 	@Test
 	public void testConstructor() {
 		try {
 			// getInitialSetUp is tested in /*StrategyTest/
 			Field pileStrategyField = Piles.class.getDeclaredField("_pileStrategy");
-			Field pilesField = Piles.class.getDeclaredField("_piles");
+			Field pilesField = Piles.class.getDeclaredField("_cards");
 			pileStrategyField.setAccessible(true);
 			pilesField.setAccessible(true);
 			Piles piles = new Piles(new BakersDozenTableauStrategy(), new Deck());
 			PileStrategy strategy = (PileStrategy) pileStrategyField.get(piles);
-			ArrayList<Stack<Card>> pilesValue = (ArrayList<Stack<Card>>) pilesField.get(piles);
+			byte [] pilesValue = (byte []) pilesField.get(piles);
 			assertTrue("Creating a Piles instance with BakersDozenTableauStrategy,"
 					+ "_pileStrategy should be set to an instance of BakersDozenTableauStrategy",
 					strategy instanceof BakersDozenTableauStrategy);
@@ -41,7 +38,7 @@ public class PilesTest {
 					pilesValue);
 			piles = new Piles(new HomecellStrategy(), new Deck());
 			strategy = (PileStrategy) pileStrategyField.get(piles);
-			pilesValue = (ArrayList<Stack<Card>>) pilesField.get(piles);
+			pilesValue = (byte []) pilesField.get(piles);
 			assertTrue("Creating a Piles instance with HomecellStrategy,"
 					+ "_pileStrategy should be set to an instance of HomecellStrategy",
 					strategy instanceof HomecellStrategy);
@@ -49,7 +46,7 @@ public class PilesTest {
 					pilesValue);
 			piles = new Piles(new FreecellFreecellStrategy(), new Deck());
 			strategy = (PileStrategy) pileStrategyField.get(piles);
-			pilesValue = (ArrayList<Stack<Card>>) pilesField.get(piles);
+			pilesValue = (byte []) pilesField.get(piles);
 			assertTrue("Creating a Piles instance with FreecellFreecellStrategy,"
 					+ "_pileStrategy should be set to an instance of FreecellFreecellStrategy",
 					strategy instanceof FreecellFreecellStrategy);
@@ -90,8 +87,8 @@ public class PilesTest {
 	public void testRemoveCardType2() {
 		PileStrategy strategy = new AcesUpTableauStrategy();
 		Piles piles = new Piles(strategy, new Deck());
-		Card [] cards = { new Card(Suit.DIAMOND, Rank.FIVE), new Card(Suit.DIAMOND, Rank.EIGHT),
-				          new Card(Suit.HEART, Rank.FOUR),   new Card(Suit.SPADE, Rank.KING) };
+		Card [] cards = { Card.of(Suit.DIAMOND, Rank.FIVE), Card.of(Suit.DIAMOND, Rank.EIGHT),
+				          Card.of(Suit.HEART, Rank.FOUR),   Card.of(Suit.SPADE, Rank.KING) };
 		piles.setPiles(cards);
 		assertTrue("expected true to be returned when removing is legal", piles.removeCard(0, Piles.HOMECELL));
 		assertNull("after removing the only card in the first pile, the pile should be empty", piles.getTopCard(0));
@@ -115,22 +112,31 @@ public class PilesTest {
 	@Test
 	public void testGetTopCard() {
 		try {
-			Field pilesField = Piles.class.getDeclaredField("_piles");
-			pilesField.setAccessible(true);
+			Field cardsField = Piles.class.getDeclaredField("_cards");
+			Field offsetsField = Piles.class.getDeclaredField("_offsets");
+			Field capacitiesField = Piles.class.getDeclaredField("_capacities");
+			Field sizesField = Piles.class.getDeclaredField("_sizes");
+			Field topsField = Piles.class.getDeclaredField("_tops");
+			topsField.setAccessible(true);
+			cardsField.setAccessible(true);
+			offsetsField.setAccessible(true);
+			capacitiesField.setAccessible(true);
+			sizesField.setAccessible(true);
 			Piles piles = new Piles(new BakersDozenTableauStrategy(), new Deck());
-			ArrayList<Stack<Card>> value = new ArrayList<Stack<Card>>();
-			for(int i = 0; i < 3; i++) {
-				value.add(new Stack<Card>());
-			}
-			value.get(1).push(new Card(Suit.DIAMOND, Rank.FIVE));
-			value.get(2).push(new Card(Suit.HEART, Rank.JACK));
-			value.get(2).push(new Card(Suit.SPADE, Rank.KING));
-			pilesField.set(piles, value);
+			byte [] cards = new byte[6];
+			cards[2] = Card.of(Suit.DIAMOND, Rank.FIVE).getOrdinal();
+			cards[4] = Card.of(Suit.HEART, Rank.JACK).getOrdinal();
+			cards[5] = Card.of(Suit.SPADE, Rank.KING).getOrdinal();
+			cardsField.set(piles, cards);
+			offsetsField.set(piles, new int [] { 0, 2, 4 });
+			capacitiesField.set(piles, new int [] { 2, 2, 2 });
+			sizesField.set(piles, new int [] { 0, 1, 2 });
+			topsField.set(piles, new byte [] { Card.NO_CARD, cards[2], cards[5] });
 			assertEquals("getTopCard did not return the correct value", null, piles.getTopCard(0));
 			assertEquals("getTopCard should not modify pile size", 0, piles.size(0));
-			assertEquals("getTopCard did not return the correct value", new Card(Suit.DIAMOND, Rank.FIVE), piles.getTopCard(1));
+			assertEquals("getTopCard did not return the correct value", Card.of(Suit.DIAMOND, Rank.FIVE), piles.getTopCard(1));
 			assertEquals("getTopCard should not modify pile size", 1, piles.size(1));
-			assertEquals("getTopCard did not return the correct value", new Card(Suit.SPADE, Rank.KING), piles.getTopCard(2));
+			assertEquals("getTopCard did not return the correct value", Card.of(Suit.SPADE, Rank.KING), piles.getTopCard(2));
 			assertEquals("getTopCard should not modify piles size", 2, piles.size(2));
 		} catch(Exception e) {
 			e.printStackTrace();
@@ -138,13 +144,53 @@ public class PilesTest {
 		}
 	}
 	
+	@Test
+	public void testForceAddCardBeyondInitialCapacity() {
+		Piles piles = new Piles(new FreecellFreecellStrategy(), new Deck());
+		for(int i = 0; i < Card.NUM_CARDS; i++) {
+			piles.forceAddCard(Card.fromOrdinal(i), 1);
+		}
+		assertEquals("A pile should be able to hold the whole deck", Card.NUM_CARDS, piles.size(1));
+		for(int i = Card.NUM_CARDS - 1; i >= 0; i--) {
+			assertEquals("Cards must come off the pile in reverse order", Card.fromOrdinal(i), piles.getTopCard(1));
+			assertEquals("Cards must be readable by index", i, piles.getOrdinalAt(1, i));
+			assertTrue("Removing from a non-empty Freecell pile is legal", piles.removeCard(1));
+		}
+		for(int i = 0; i < piles.count(); i++) {
+			assertEquals("Growing one pile must not modify other piles", 0, piles.size(i));
+		}
+	}
+	
+	@Test
+	public void testPositionHash() {
+		Piles piles = new Piles(new FreecellFreecellStrategy(), new Deck());
+		assertEquals("The hash of empty piles should be 0", 0L, piles.positionHash());
+		Card aceOfSpades = Card.of(Suit.SPADE, Rank.ACE);
+		Card kingOfHearts = Card.of(Suit.HEART, Rank.KING);
+		piles.forceAddCard(aceOfSpades, 0);
+		long oneCard = piles.positionHash();
+		assertNotEquals("Adding a card should change the hash", 0L, oneCard);
+		piles.forceAddCard(kingOfHearts, 1);
+		long twoCards = piles.positionHash();
+		assertNotEquals("Adding a card should change the hash", oneCard, twoCards);
+		assertTrue("Removing a card from a Freecell pile is legal", piles.removeCard(1));
+		assertEquals("Removing the last added card should restore the hash", oneCard, piles.positionHash());
+		piles.forceAddCard(kingOfHearts, 2);
+		assertNotEquals("The same card in a different pile should have a different hash", twoCards, piles.positionHash());
+		
+		Piles other = new Piles(new FreecellFreecellStrategy(), new Deck());
+		other.forceAddCard(kingOfHearts, 2);
+		other.forceAddCard(aceOfSpades, 0);
+		assertEquals("The hash should only depend on the position", piles.positionHash(), other.positionHash());
+	}
+	
 	private void testAddCard(int howManyPiles, PileStrategy strategy, Piles piles) {
 		Suit [] suits = Suit.values();
 		Rank [] ranks = Rank.values();
 		Random rand = new Random();
 		
 		for(int i = 0; i < 42; i++) {
-			Card card = new Card(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
+			Card card = Card.of(suits[rand.nextInt(4)], ranks[rand.nextInt(13)]);
 			int pos = rand.nextInt(howManyPiles);
 			int originalSize = piles.size(pos);
 			Card originalTop = piles.getTopCard(pos);
@@ -0,0 +1,141 @@
+package model.test;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.Deck;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+import model.WireCodec;
+
+public class WireCodecTest {
+	@Test
+	public void testBoardRoundTrip() {
+		Game [] games = { new BakersDozenGame(new Deck(5)), new FreecellGame(617), new AcesUpGame(new Deck(5)) };
+		for(Game game : games) {
+			GameState state = GameState.of(game);
+			ByteBuffer buffer = ByteBuffer.allocate(WireCodec.boardLength(game.getGameId()));
+			WireCodec.writeBoard(state, buffer);
+			assertFalse("The length must be exact", buffer.hasRemaining());
+			buffer.flip();
+			assertEquals("A board must decode to the same position", state, WireCodec.readBoard(buffer));
+			assertFalse("Reading must consume the whole message", buffer.hasRemaining());
+		}
+		assertEquals("One byte per pile and per card, plus the header", 2 + 16 + 52,
+				WireCodec.boardLength(FreecellGame.GAME_ID));
+	}
+
+	@Test
+	public void testMovesKeepClientInSync() {
+		FreecellGame server = new FreecellGame(1);
+		ByteBuffer buffer = ByteBuffer.allocate(WireCodec.boardLength(FreecellGame.GAME_ID));
+		WireCodec.writeBoard(GameState.of(server), buffer);
+		buffer.flip();
+		Game client = WireCodec.readBoard(buffer).toGame();
+
+		MoveBuffer generated = new MoveBuffer();
+		MoveBuffer received = new MoveBuffer();
+		for(int step = 0; step < 20; step++) {
+			int n = server.generateMoves(generated);
+			if(n == 0) {
+				break;
+			}
+			int [] moves = { generated.get(step % n) };
+			server.applyMove(moves[0]);
+			buffer = ByteBuffer.allocate(WireCodec.movesLength(1));
+			WireCodec.writeMoves(moves, 1, buffer);
+			buffer.flip();
+			assertEquals("One move was sent", 1, WireCodec.readMoves(buffer, received));
+			client.applyMove(received.get(0));
+			assertEquals("The client must follow the server", GameState.of(server), GameState.of(client));
+		}
+	}
+
+	@Test
+	public void testMovesRoundTrip() {
+		int [] moves = { Move.DEAL, Move.of(Piles.TABLEAU, 12, Piles.HOMECELL, 3),
+				Move.of(Piles.TABLEAU, 7, Piles.TABLEAU, 0, 13) };
+		ByteBuffer buffer = ByteBuffer.allocate(WireCodec.movesLength(moves.length));
+		WireCodec.writeMoves(moves, moves.length, buffer);
+		assertEquals("3 bytes per move, plus the header", 11, buffer.position());
+		buffer.flip();
+		MoveBuffer decoded = new MoveBuffer();
+		assertEquals(3, WireCodec.readMoves(buffer, decoded));
+		int [] actual = { decoded.get(0), decoded.get(1), decoded.get(2) };
+		assertTrue("Moves must decode to the same moves", Arrays.equals(moves, actual));
+	}
+
+	@Test
+	public void testSplitMoves() {
+		int [] moves = new int[WireCodec.MAX_MOVES + 10];
+		for(int i = 0; i < moves.length; i++) {
+			moves[i] = Move.of(Piles.TABLEAU, i % 8, Piles.FREECELL, i % 4);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(WireCodec.movesLength(WireCodec.MAX_MOVES) + WireCodec.movesLength(10));
+		WireCodec.writeMoves(moves, 0, WireCodec.MAX_MOVES, buffer);
+		WireCodec.writeMoves(moves, WireCodec.MAX_MOVES, 10, buffer);
+		assertFalse("The messages must fill the buffer", buffer.hasRemaining());
+		buffer.flip();
+		MoveBuffer decoded = new MoveBuffer();
+		assertEquals(WireCodec.MAX_MOVES, WireCodec.readMoves(buffer, decoded));
+		assertEquals("The first message holds the first moves", moves[WireCodec.MAX_MOVES - 1], decoded.get(WireCodec.MAX_MOVES - 1));
+		assertEquals(10, WireCodec.readMoves(buffer, decoded));
+		assertEquals("The second message holds the rest", moves[WireCodec.MAX_MOVES], decoded.get(0));
+		try {
+			WireCodec.writeMoves(moves, WireCodec.MAX_MOVES, 11, ByteBuffer.allocate(100));
+			fail("Moves past the end of the array should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testMalformedMessages() {
+		byte [] board = new byte[WireCodec.boardLength(FreecellGame.GAME_ID)];
+		WireCodec.writeBoard(GameState.of(new FreecellGame(1)), ByteBuffer.wrap(board));
+		assertMalformedBoard(Arrays.copyOf(board, board.length - 1));
+		byte [] twice = board.clone();
+		twice[3] = twice[4];
+		assertMalformedBoard(twice);
+		byte [] unknown = board.clone();
+		unknown[1] = 9;
+		assertMalformedBoard(unknown);
+		try {
+			WireCodec.readMoves(ByteBuffer.wrap(board), new MoveBuffer());
+			fail("A board is not a moves message");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			WireCodec.readMoves(ByteBuffer.wrap(new byte [] { WireCodec.MOVES, 1, 0x10, 0, 0 }), new MoveBuffer());
+			fail("A move uses 19 bits");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			WireCodec.writeMoves(new int[300], 300, ByteBuffer.allocate(WireCodec.movesLength(300)));
+			fail("A message holds at most 255 moves");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void assertMalformedBoard(byte [] board) {
+		try {
+			WireCodec.readBoard(ByteBuffer.wrap(board));
+			fail("A malformed board should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
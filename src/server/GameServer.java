@@ -0,0 +1,436 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import abstraction.Card;
+import model.GameState;
+import model.WireCodec;
+import session.GameOverEvent;
+import session.GameSession;
+import session.MoveRejectedEvent;
+import session.PilesChangedEvent;
+import session.SessionListener;
+import session.SessionRegistry;
+
+/**
+ * Serves games over HTTP on the loopback interface, so that bots and test harnesses can play
+ * without the user interface. Every game is a {@link GameSession} kept in a {@link SessionRegistry}.
+ * <pre>
+ * POST   /games?game=freecell[&amp;seed=N]         creates a game, answers its id
+ * GET    /games/ID                             answers the state of a game
+ * POST   /games/ID/move?from=TYPE,POS&amp;to=TYPE,POS[&amp;count=N]
+ *                                              moves cards, answers the new state
+ * POST   /games/ID/deal                        deals from the Stock pile of Ace's Up, answers the new state
+ * DELETE /games/ID                             ends a game
+ * </pre>
+ * Games are {@code bakersdozen}, {@code freecell} or {@code acesup}. A state is plain text: a line
+ * {@code status playing|won|stuck}, a line {@code state GAME} followed by the words of
+ * {@link model.GameState#toLongArray()} in hexadecimal, then one line {@code pile TYPE POS SIZE TOP}
+ * per pile, TOP being the top card or {@code -}. Without {@code count}, a move is chosen as by
+ * {@link GameSession#move(int, int, int, int)}. An illegal move is answered with 409, an unknown
+ * game with 404 and a malformed request with 400.
+ * <p>
+ * With {@code format=binary} in the query, a state is answered as a {@link WireCodec} BOARD
+ * message, and a move or a deal as MOVES messages holding the moves played, so that a client
+ * which already has the board only receives a few bytes per move. The moves are split into as
+ * many messages as {@link WireCodec#MAX_MOVES} requires, and the client reads messages until the
+ * answer is exhausted.
+ * <p>
+ * Each request runs on a virtual thread when the Java runtime has them, otherwise on a cached pool
+ * of platform threads. Requests on different games run in parallel; requests on one game are
+ * serialized on its session.
+ */
+public final class GameServer {
+	/**
+	 * Constants
+	 *
+	 * VARIANTS - the name of each game in requests, indexed by game id.
+	 * PREFIX   - the path of every request.
+	 */
+	private static final String [] VARIANTS = { "bakersdozen", "freecell", "acesup" };
+	private static final String PREFIX = "/games";
+
+	/**
+	 * _server   - the HTTP server.
+	 * _executor - runs the requests.
+	 * _registry - the games being played.
+	 */
+	private final HttpServer      _server;
+	private final ExecutorService _executor;
+	private final SessionRegistry _registry;
+
+	/**
+	 * Creates a server on the loopback interface. It does not accept requests until it is started.
+	 * @param port     - the port, 0 for any free port.
+	 * @param registry - the registry of the games.
+	 * @throws IOException if the port can not be bound.
+	 * @throws IllegalArgumentException if registry is {@code null}.
+	 */
+	public GameServer(int port, SessionRegistry registry) throws IOException {
+		if(registry == null) {
+			throw new IllegalArgumentException("Registry can not be null.");
+		}
+		_registry = registry;
+		_executor = newExecutor();
+		_server   = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		_server.setExecutor(_executor);
+		_server.createContext(PREFIX, new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				GameServer.this.handle(exchange);
+			}
+		});
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8116;
+		GameServer server = new GameServer(port, new SessionRegistry());
+		server.start();
+		System.out.println("Serving games on http://localhost:" + server.getPort() + PREFIX);
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		_server.start();
+	}
+
+	/**
+	 * Stops accepting requests, waits up to a second for the requests in progress, then stops
+	 * their threads.
+	 */
+	public void stop() {
+		_server.stop(1);
+		_executor.shutdown();
+		try {
+			_executor.awaitTermination(1, TimeUnit.SECONDS);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		_executor.shutdownNow();
+	}
+
+	/**
+	 * @return the port the server is bound to.
+	 */
+	public int getPort() {
+		return _server.getAddress().getPort();
+	}
+
+	/**
+	 * Creates an executor which starts a virtual thread per task. Virtual threads are looked up by
+	 * reflection so that the server still compiles and runs on runtimes without them, where a
+	 * cached pool of daemon platform threads is used instead.
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch(ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "game-server");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Answers one request. Errors of the client are answered with their status code; anything
+	 * else is answered with 500.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String [] path = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+			if(path.length > 0 && !path[0].isEmpty()) {
+				throw new RequestException(404, "Unknown request.");
+			}
+			String method = exchange.getRequestMethod();
+			HashMap<String, String> query = parseQuery(exchange.getRequestURI());
+			boolean binary = "binary".equals(query.get("format"));
+			if(path.length <= 1) {
+				if(!method.equals("POST")) {
+					throw new RequestException(405, "Use POST to create a game.");
+				}
+				long id = create(query);
+				respond(exchange, 201, id + "\n");
+				return;
+			}
+
+			long id = parseId(path[1]);
+			GameSession session = _registry.get(id);
+			if(session == null) {
+				throw new RequestException(404, "No game " + id + ".");
+			}
+			String action = path.length > 2 ? path[2] : "";
+			if(path.length > 3) {
+				throw new RequestException(404, "Unknown request.");
+			}
+			if(action.isEmpty() && method.equals("GET") && binary) {
+				respond(exchange, 200, boardOf(session));
+			} else if(action.isEmpty() && method.equals("GET")) {
+				respond(exchange, 200, stateOf(session));
+			} else if(action.isEmpty() && method.equals("DELETE")) {
+				_registry.remove(id);
+				respond(exchange, 200, "");
+			} else if(action.equals("move") && method.equals("POST")) {
+				int [] from = parsePile(query.get("from"));
+				int [] to = parsePile(query.get("to"));
+				int count = 0;
+				if(query.containsKey("count")) {
+					long n = parseLong(query.get("count"));
+					if(n < 1 || n > Card.NUM_CARDS) {
+						throw new RequestException(400, "The number of cards must be from 1 to 52.");
+					}
+					count = (int) n;
+				}
+				play(exchange, session, from, to, count, binary);
+			} else if(action.equals("deal") && method.equals("POST")) {
+				play(exchange, session, null, null, 0, binary);
+			} else {
+				throw new RequestException(404, "Unknown request.");
+			}
+		} catch(RequestException e) {
+			respond(exchange, e.status, e.getMessage() + "\n");
+		} catch(RuntimeException e) {
+			respond(exchange, 500, "Internal error.\n");
+		}
+	}
+
+	/**
+	 * Creates a game and registers it.
+	 * @return the id of the game.
+	 */
+	private long create(HashMap<String, String> query) throws RequestException {
+		int gameId = -1;
+		for(int i = 0; i < VARIANTS.length; i++) {
+			if(VARIANTS[i].equalsIgnoreCase(query.get("game"))) {
+				gameId = i;
+			}
+		}
+		if(gameId < 0) {
+			throw new RequestException(400, "Game must be one of bakersdozen, freecell or acesup.");
+		}
+		long seed;
+		if(query.containsKey("seed")) {
+			seed = parseLong(query.get("seed"));
+		} else {
+			seed = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+		}
+		GameSession session;
+		try {
+			session = GameSession.newGame(gameId, seed);
+		} catch(IllegalArgumentException e) {
+			// the game was checked above, so only the seed can be wrong
+			throw new RequestException(400, e.getMessage());
+		}
+		return _registry.register(session);
+	}
+
+	/**
+	 * Plays a move of count cards, 0 to let the session choose, or a deal if from is {@code null},
+	 * and answers the new state, or the moves played if binary.
+	 */
+	private void play(HttpExchange exchange, GameSession session, int [] from, int [] to, int count, boolean binary)
+			throws IOException, RequestException {
+		boolean legal;
+		String state;
+		final int [][] played = new int[1][];
+		SessionListener recorder = new SessionListener() {
+			@Override
+			public void pilesChanged(PilesChangedEvent event) {
+				played[0] = event.getMoves();
+			}
+
+			@Override
+			public void moveRejected(MoveRejectedEvent event) {}
+
+			@Override
+			public void gameOver(GameOverEvent event) {}
+		};
+		// a session is used by one thread at a time; nothing blocks while its lock is held
+		synchronized(session) {
+			session.addListener(recorder);
+			try {
+				if(from == null) {
+					legal = session.deal();
+				} else {
+					checkPile(session, from);
+					checkPile(session, to);
+					legal = session.move(from[0], from[1], to[0], to[1], count);
+				}
+			} finally {
+				session.removeListener(recorder);
+			}
+			state = binary ? null : stateOf(session);
+		}
+		if(!binary) {
+			respond(exchange, legal ? 200 : 409, state);
+		} else if(!legal) {
+			respond(exchange, 409, new byte[0]);
+		} else {
+			int [] moves = played[0];
+			int messages = (moves.length + WireCodec.MAX_MOVES - 1) / WireCodec.MAX_MOVES;
+			// every message after the first only adds its header
+			ByteBuffer out = ByteBuffer.allocate(WireCodec.movesLength(moves.length) + (messages - 1) * WireCodec.movesLength(0));
+			for(int offset = 0; offset < moves.length; offset += WireCodec.MAX_MOVES) {
+				WireCodec.writeMoves(moves, offset, Math.min(moves.length - offset, WireCodec.MAX_MOVES), out);
+			}
+			respond(exchange, 200, out.array());
+		}
+	}
+
+	/**
+	 * @return the state of a game as a {@link WireCodec} BOARD message.
+	 */
+	private static byte [] boardOf(GameSession session) {
+		GameState state;
+		synchronized(session) {
+			state = session.getState();
+		}
+		ByteBuffer out = ByteBuffer.allocate(WireCodec.boardLength(state.getGameId()));
+		WireCodec.writeBoard(state, out);
+		return out.array();
+	}
+
+	/**
+	 * @return the state of a game, as described in the documentation of this class.
+	 */
+	private static String stateOf(GameSession session) {
+		StringBuilder sb = new StringBuilder();
+		synchronized(session) {
+			sb.append("status ").append(session.isWon() ? "won" : session.isOver() ? "stuck" : "playing").append('\n');
+			sb.append("state ").append(VARIANTS[session.getGameId()]);
+			for(long word : session.getState().toLongArray()) {
+				sb.append(' ').append(Long.toHexString(word));
+			}
+			sb.append('\n');
+			for(int type = 0; type < session.pileTypes(); type++) {
+				for(int pos = 0; pos < session.count(type); pos++) {
+					Card top = session.getTopCard(type, pos);
+					sb.append("pile ").append(type).append(' ').append(pos).append(' ')
+							.append(session.size(type, pos)).append(' ').append(top == null ? "-" : top.toString())
+							.append('\n');
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void checkPile(GameSession session, int [] pile) throws RequestException {
+		if(pile[0] >= session.pileTypes() || pile[1] >= session.count(pile[0])) {
+			throw new RequestException(400, "No pile " + pile[0] + "," + pile[1] + " in this game.");
+		}
+	}
+
+	/**
+	 * @return the type and the position of a pile written as {@code TYPE,POS}.
+	 */
+	private static int [] parsePile(String value) throws RequestException {
+		if(value == null) {
+			throw new RequestException(400, "A move needs from and to.");
+		}
+		String [] parts = value.split(",");
+		if(parts.length != 2) {
+			throw new RequestException(400, "A pile is written TYPE,POS.");
+		}
+		long type = parseLong(parts[0]);
+		long pos = parseLong(parts[1]);
+		if(type < 0 || pos < 0 || type > Integer.MAX_VALUE || pos > Integer.MAX_VALUE) {
+			throw new RequestException(400, "A pile is written TYPE,POS.");
+		}
+		return new int [] { (int) type, (int) pos };
+	}
+
+	private static long parseId(String value) throws RequestException {
+		try {
+			return Long.parseLong(value);
+		} catch(NumberFormatException e) {
+			throw new RequestException(404, "No game " + value + ".");
+		}
+	}
+
+	private static long parseLong(String value) throws RequestException {
+		try {
+			return Long.parseLong(value.trim());
+		} catch(NumberFormatException e) {
+			throw new RequestException(400, "Not a number: " + value + ".");
+		}
+	}
+
+	/**
+	 * @return the parameters of the query of a request. A parameter given twice keeps its last value.
+	 */
+	private static HashMap<String, String> parseQuery(URI uri) {
+		HashMap<String, String> query = new HashMap<String, String>();
+		String raw = uri.getQuery();
+		if(raw == null) {
+			return query;
+		}
+		for(String pair : raw.split("&")) {
+			int equals = pair.indexOf('=');
+			if(equals > 0) {
+				query.put(pair.substring(0, equals), pair.substring(equals + 1));
+			}
+		}
+		return query;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void respond(HttpExchange exchange, int status, byte [] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+		send(exchange, status, body);
+	}
+
+	private static void send(HttpExchange exchange, int status, byte [] bytes) throws IOException {
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * A request which can not be answered, with the status code to answer instead.
+	 */
+	private static final class RequestException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * status - the HTTP status code of the answer.
+		 */
+		final int status;
+
+		RequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package server.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.MoveBuffer;
+import model.WireCodec;
+import server.GameServer;
+import session.SessionRegistry;
+
+public class GameServerTest {
+	private SessionRegistry registry;
+	private GameServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		registry = new SessionRegistry();
+		server = new GameServer(0, registry);
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop();
+	}
+
+	@Test
+	public void testPlayOneGame() throws IOException {
+		String [] created = request("POST", "/games?game=freecell&seed=1");
+		assertEquals("Creating a game answers 201", "201", created[0]);
+		String id = created[1].trim();
+		assertEquals("The game must be registered", 1, registry.size());
+
+		String [] state = request("GET", "/games/" + id);
+		assertEquals("200", state[0]);
+		assertTrue("A new game is being played", state[1].startsWith("status playing\nstate freecell "));
+		assertTrue("The first Tableau pile holds 7 cards", state[1].contains("\npile 0 0 7 "));
+		assertTrue("The Freecell piles are empty", state[1].contains("\npile 2 0 0 -\n"));
+
+		String [] moved = request("POST", "/games/" + id + "/move?from=0,0&to=2,0");
+		assertEquals("Moving a card to an empty Freecell pile is legal", "200", moved[0]);
+		assertTrue("The new state is answered", moved[1].contains("pile 2 0 1 "));
+		assertEquals("Freecell piles hold only one card", "409",
+				request("POST", "/games/" + id + "/move?from=0,1&to=2,0")[0]);
+		assertEquals("Only Ace's Up can deal", "409", request("POST", "/games/" + id + "/deal")[0]);
+		assertEquals("A pile which does not exist is a bad request", "400",
+				request("POST", "/games/" + id + "/move?from=0,9&to=2,0")[0]);
+		assertEquals("A move needs a destination", "400", request("POST", "/games/" + id + "/move?from=0,1")[0]);
+		assertEquals("Several cards can only be moved between Tableau piles", "409",
+				request("POST", "/games/" + id + "/move?from=0,1&to=2,1&count=2")[0]);
+		assertEquals("A move of no card is a bad request", "400",
+				request("POST", "/games/" + id + "/move?from=0,1&to=2,1&count=0")[0]);
+		assertEquals("One card can be asked for", "200", request("POST", "/games/" + id + "/move?from=0,1&to=2,1&count=1")[0]);
+
+		assertEquals("200", request("DELETE", "/games/" + id)[0]);
+		assertEquals("An ended game is gone", "404", request("GET", "/games/" + id)[0]);
+		assertEquals("The game must be removed", 0, registry.size());
+	}
+
+	@Test
+	public void testBadRequests() throws IOException {
+		assertEquals("Unknown games are bad requests", "400", request("POST", "/games?game=poker")[0]);
+		assertEquals("Freecell deals are numbered from 1", "400", request("POST", "/games?game=freecell&seed=0")[0]);
+		assertEquals("Games are created with POST", "405", request("GET", "/games")[0]);
+		assertEquals("Only /games and its sub-paths are games", "404", request("POST", "/gamesXYZ?game=freecell")[0]);
+		assertEquals("Nothing was created", 0, registry.size());
+		assertEquals("No such game", "404", request("GET", "/games/42")[0]);
+		assertEquals("No such game", "404", request("GET", "/games/abc")[0]);
+		String id = request("POST", "/games?game=acesup&seed=3")[1].trim();
+		assertEquals("No such request", "404", request("POST", "/games/" + id + "/undo")[0]);
+		assertEquals("Ace's Up can deal", "200", request("POST", "/games/" + id + "/deal")[0]);
+	}
+
+	@Test
+	public void testBinaryFormat() throws IOException {
+		String id = request("POST", "/games?game=freecell&seed=1")[1].trim();
+		byte [] board = requestBytes("GET", "/games/" + id + "?format=binary");
+		Game client = WireCodec.readBoard(ByteBuffer.wrap(board)).toGame();
+		assertEquals("The board must be the deal", GameState.of(new FreecellGame(1)), GameState.of(client));
+
+		byte [] moves = requestBytes("POST", "/games/" + id + "/move?from=0,0&to=2,0&format=binary");
+		MoveBuffer played = new MoveBuffer();
+		int n = WireCodec.readMoves(ByteBuffer.wrap(moves), played);
+		for(int i = 0; i < n; i++) {
+			client.applyMove(played.get(i));
+		}
+		byte [] after = requestBytes("GET", "/games/" + id + "?format=binary");
+		assertEquals("The client must follow the server", WireCodec.readBoard(ByteBuffer.wrap(after)),
+				GameState.of(client));
+	}
+
+	@Test
+	public void testConcurrentPlayers() throws InterruptedException {
+		final AtomicInteger failures = new AtomicInteger();
+		Thread [] players = new Thread[16];
+		for(int i = 0; i < players.length; i++) {
+			final int seed = i + 1;
+			players[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						String id = request("POST", "/games?game=freecell&seed=" + seed)[1].trim();
+						for(int pos = 0; pos < 4; pos++) {
+							if(!request("POST", "/games/" + id + "/move?from=0," + pos + "&to=2," + pos)[0].equals("200")) {
+								failures.incrementAndGet();
+							}
+						}
+					} catch(IOException e) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+			players[i].start();
+		}
+		for(Thread player : players) {
+			player.join();
+		}
+		assertEquals("Every player must be served", 0, failures.get());
+		assertEquals("Every game must be registered", players.length, registry.size());
+	}
+
+	/**
+	 * @return the status code and the body of the answer.
+	 */
+	private String [] request(String method, String path) throws IOException {
+		HttpURLConnection connection = open(method, path);
+		int status = connection.getResponseCode();
+		return new String [] { Integer.toString(status), new String(read(connection, status), StandardCharsets.UTF_8) };
+	}
+
+	/**
+	 * @return the body of a successful answer.
+	 */
+	private byte [] requestBytes(String method, String path) throws IOException {
+		HttpURLConnection connection = open(method, path);
+		assertEquals("The request must succeed", 200, connection.getResponseCode());
+		return read(connection, 200);
+	}
+
+	private HttpURLConnection open(String method, String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+				.openConnection();
+		connection.setRequestMethod(method);
+		return connection;
+	}
+
+	private static byte [] read(HttpURLConnection connection, int status) throws IOException {
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if(in != null) {
+			byte [] buffer = new byte[4096];
+			for(int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+				body.write(buffer, 0, n);
+			}
+			in.close();
+		}
+		return body.toByteArray();
+	}
+}
@@ -0,0 +1,23 @@
+package session;
+
+/**
+ * Sent once, after the move which won the game or left no move to play.
+ */
+public final class GameOverEvent extends SessionEvent {
+	/**
+	 * _won - whether the game was won.
+	 */
+	private final boolean _won;
+
+	GameOverEvent(GameSession session, boolean won) {
+		super(session);
+		_won = won;
+	}
+
+	/**
+	 * @return whether the game was won, otherwise no move is left.
+	 */
+	public boolean isWon() {
+		return _won;
+	}
+}
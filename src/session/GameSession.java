@@ -0,0 +1,351 @@
+package session;
+
+import java.util.ArrayList;
+
+import abstraction.Card;
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.Deck;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+/**
+ * One game being played, independent of any user interface. A session takes moves, plays them
+ * if they are legal, plays the cards which are safe to send home, and tells its
+ * {@link SessionListener}s what changed. Nothing in this package depends on AWT or Swing, so
+ * sessions can be run by the thousands in a server.
+ * <p>
+ * A session is not thread-safe: each session must only be used by one thread at a time.
+ */
+public final class GameSession {
+	/**
+	 * _game      - the game played.
+	 * _listeners - the listeners, in the order in which they were added.
+	 * _played    - receives the cards played home after each move.
+	 * _over      - whether the game is over, so that it is only reported once.
+	 */
+	private final Game                       _game;
+	private final ArrayList<SessionListener> _listeners;
+	private final MoveBuffer                 _played;
+	private boolean                          _over;
+
+	/**
+	 * Creates a session for a new or restored game. The session takes ownership of the game, which
+	 * must not be modified by anything else. Every card which is already safe to send home is
+	 * played at once, before any listener is added, so a game which those cards finish starts over
+	 * and takes no moves.
+	 * @param game - the game.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public GameSession(Game game) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+		_game      = game;
+		_listeners = new ArrayList<SessionListener>();
+		_played    = new MoveBuffer();
+		_game.playSafeMoves(_played);
+		_over      = isOver();
+	}
+
+	/**
+	 * Creates a session for a new game of the specified type, dealt from a seeded deck so that the
+	 * deal can be reproduced.
+	 * @param gameId - the id of the type of game.
+	 * @param seed   - the seed of the deck. Freecell games use it as their deal number, from 1 to
+	 *                 {@link Integer#MAX_VALUE}.
+	 * @return the new session.
+	 * @throws IllegalArgumentException if gameId does not correspond to any game, or the seed is
+	 *         not a Freecell deal number.
+	 */
+	public static GameSession newGame(int gameId, long seed) {
+		if(gameId == BakersDozenGame.GAME_ID) {
+			return new GameSession(new BakersDozenGame(new Deck(seed)));
+		} else if(gameId == FreecellGame.GAME_ID) {
+			return new GameSession(new FreecellGame(FreecellGame.toDealNumber(seed)));
+		} else if(gameId == AcesUpGame.GAME_ID) {
+			return new GameSession(new AcesUpGame(new Deck(seed)));
+		}
+		throw new IllegalArgumentException("Game id does not correspond to any game.");
+	}
+
+	/**
+	 * Adds a listener, which receives every event from now on.
+	 * @param listener - the listener.
+	 * @throws IllegalArgumentException if listener is {@code null}.
+	 */
+	public void addListener(SessionListener listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException("Listener can not be null.");
+		}
+		_listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener. Nothing happens if it was not added.
+	 * @param listener - the listener.
+	 */
+	public void removeListener(SessionListener listener) {
+		_listeners.remove(listener);
+	}
+
+	/**
+	 * Moves the top card of one pile onto another. Between two Tableau piles of a Freecell game,
+	 * the largest part of the run on top of the source which fits on the destination card is
+	 * moved; onto an empty pile, only the top card is. Then every card which is safe to send home
+	 * is played. Once the game is over, every move is rejected.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @return whether the move was legal.
+	 * @throws IllegalArgumentException if a pile does not exist in this game.
+	 */
+	public boolean move(int srcPile, int srcPos, int dstPile, int dstPos) {
+		return move(srcPile, srcPos, dstPile, dstPos, 0);
+	}
+
+	/**
+	 * Moves a number of cards from the top of one pile onto another, as
+	 * {@link #move(int, int, int, int)} does. Several cards can only be moved at once between two
+	 * Tableau piles of a Freecell game, e.g. part of a run onto an empty pile.
+	 * @param srcPile - the type of the source pile.
+	 * @param srcPos  - the position of the source pile.
+	 * @param dstPile - the type of the destination pile.
+	 * @param dstPos  - the position of the destination pile.
+	 * @param count   - the number of cards to move, 0 to let the session choose as
+	 *                  {@link #move(int, int, int, int)} does.
+	 * @return whether the move was legal.
+	 * @throws IllegalArgumentException if a pile does not exist in this game, or count is negative.
+	 */
+	public boolean move(int srcPile, int srcPos, int dstPile, int dstPos, int count) {
+		checkPile(srcPile, srcPos);
+		checkPile(dstPile, dstPos);
+		if(count < 0) {
+			throw new IllegalArgumentException("The number of cards can not be negative.");
+		}
+		int move = Move.of(srcPile, srcPos, dstPile, dstPos);
+		Card card = _game.getTopCard(srcPile, srcPos);
+		if(_over || card == null || (srcPile == dstPile && srcPos == dstPos)) {
+			return reject(move);
+		}
+
+		boolean supermove = _game instanceof FreecellGame && srcPile == Piles.TABLEAU && dstPile == Piles.TABLEAU;
+		if(count == 0) {
+			count = 1;
+			if(supermove && _game.size(dstPile, dstPos) > 0) {
+				count = Math.max(1, ((FreecellGame) _game).supermoveSize(srcPos, dstPos));
+			}
+		}
+		if(count >= 2) {
+			move = Move.of(srcPile, srcPos, dstPile, dstPos, count);
+			if(!supermove || !((FreecellGame) _game).moveCards(srcPos, dstPos, count)) {
+				return reject(move);
+			}
+		} else if(_game instanceof AcesUpGame) {
+			if(!_game.isAddingLegal(card, dstPile, dstPos) || !_game.isRemovingLegal(srcPile, srcPos, dstPile)) {
+				return reject(move);
+			}
+			_game.removeCard(srcPile, srcPos, dstPile);
+			_game.addCard(card, dstPile, dstPos);
+		} else if(_game.isAddingLegal(card, dstPile, dstPos) && _game.isRemovingLegal(srcPile, srcPos)) {
+			_game.addCard(card, dstPile, dstPos);
+			_game.removeCard(srcPile, srcPos);
+		} else {
+			return reject(move);
+		}
+		played(move);
+		return true;
+	}
+
+	/**
+	 * Deals one card from the Stock pile onto each Tableau pile of an Ace's Up game.
+	 * @return whether the deal was legal: the game is an Ace's Up game and the Stock pile is not empty.
+	 */
+	public boolean deal() {
+		if(_over || !(_game instanceof AcesUpGame) || _game.size(Piles.STOCK, 0) == 0) {
+			return reject(Move.DEAL);
+		}
+		_game.invokeDefaultSpecialAction();
+		played(Move.DEAL);
+		return true;
+	}
+
+	/**
+	 * Plays a move read back from a {@link MoveJournal} without telling the listeners. The move was
+	 * legal when it was written, so only that it fits the piles is checked. {@link #replayed()} must
+	 * be called after the last move.
+	 * @param move - the encoded move.
+	 * @throws IllegalArgumentException if the move does not fit the piles.
+	 */
+	void replay(int move) {
+		if(Move.isDeal(move)) {
+			if(!(_game instanceof AcesUpGame) || _game.size(Piles.STOCK, 0) == 0) {
+				throw new IllegalArgumentException("No deal is possible.");
+			}
+		} else {
+			checkPile(Move.srcPile(move), Move.srcPos(move));
+			checkPile(Move.dstPile(move), Move.dstPos(move));
+			if(_game.size(Move.srcPile(move), Move.srcPos(move)) < Move.count(move)) {
+				throw new IllegalArgumentException("Not enough cards to move.");
+			}
+		}
+		_game.applyMove(move);
+	}
+
+	/**
+	 * Finishes replaying moves: a game which was over when its journal ended stays over.
+	 */
+	void replayed() {
+		_over = isOver();
+	}
+
+	/**
+	 * @return the id of the type of game played.
+	 */
+	public int getGameId() {
+		return _game.getGameId();
+	}
+
+	/**
+	 * @return the number of pile types.
+	 */
+	public int pileTypes() {
+		return _game.pileTypes();
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @return the number of piles of the specified type.
+	 */
+	public int count(int pile) {
+		return _game.count(pile);
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the size of the pile.
+	 */
+	public int size(int pile, int pos) {
+		return _game.size(pile, pos);
+	}
+
+	/**
+	 * @param pile - which pile. (0-Tableau, 1-Homecell, 2-Freecell)
+	 * @param pos  - position of the pile.
+	 * @return the top card of the pile, {@code null} if the pile is empty.
+	 */
+	public Card getTopCard(int pile, int pos) {
+		return _game.getTopCard(pile, pos);
+	}
+
+	/**
+	 * @return whether the game is won.
+	 */
+	public boolean isWon() {
+		return _game.isWon();
+	}
+
+	/**
+	 * @return whether the game is over: won, or with no move left.
+	 */
+	public boolean isOver() {
+		return _game.isWon() || _game.isStuck();
+	}
+
+	/**
+	 * @return a copy of the current position, e.g. to search it on another thread.
+	 */
+	public GameState getState() {
+		return GameState.of(_game);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the pile does not exist in this game.
+	 */
+	private void checkPile(int pile, int pos) {
+		if(pile < 0 || pile >= _game.pileTypes() || pos < 0 || pos >= _game.count(pile)) {
+			throw new IllegalArgumentException("The pile does not exist in this game.");
+		}
+	}
+
+	/**
+	 * Tells the listeners that a move was rejected.
+	 * @return {@code false}.
+	 */
+	private boolean reject(int move) {
+		MoveRejectedEvent event = new MoveRejectedEvent(this, move);
+		for(int i = 0; i < _listeners.size(); i++) {
+			_listeners.get(i).moveRejected(event);
+		}
+		return false;
+	}
+
+	/**
+	 * Plays the cards which became safe to send home after a move, then tells the listeners which
+	 * piles changed and whether the game is over.
+	 */
+	private void played(int move) {
+		int n = _game.playSafeMoves(move, _played);
+		int [] moves = new int[n + 1];
+		moves[0] = move;
+		for(int i = 0; i < n; i++) {
+			moves[i + 1] = _played.get(i);
+		}
+
+		boolean [][] changed = new boolean[_game.pileTypes()][];
+		for(int type = 0; type < changed.length; type++) {
+			changed[type] = new boolean[_game.count(type)];
+		}
+		int piles = 0;
+		for(int m : moves) {
+			if(Move.isDeal(m)) {
+				piles += mark(changed, Piles.STOCK, 0);
+				for(int pos = 0; pos < changed[Piles.TABLEAU].length; pos++) {
+					piles += mark(changed, Piles.TABLEAU, pos);
+				}
+			} else {
+				piles += mark(changed, Move.srcPile(m), Move.srcPos(m));
+				piles += mark(changed, Move.dstPile(m), Move.dstPos(m));
+			}
+		}
+		int [][] list = new int[piles][];
+		int index = 0;
+		for(int type = 0; type < changed.length; type++) {
+			for(int pos = 0; pos < changed[type].length; pos++) {
+				if(changed[type][pos]) {
+					list[index++] = new int [] { type, pos };
+				}
+			}
+		}
+
+		PilesChangedEvent event = new PilesChangedEvent(this, moves, list);
+		for(int i = 0; i < _listeners.size(); i++) {
+			_listeners.get(i).pilesChanged(event);
+		}
+		if(isOver()) {
+			_over = true;
+			GameOverEvent over = new GameOverEvent(this, _game.isWon());
+			for(int i = 0; i < _listeners.size(); i++) {
+				_listeners.get(i).gameOver(over);
+			}
+		}
+	}
+
+	/**
+	 * Marks a pile as changed.
+	 * @return 1 if it was not marked yet, otherwise 0.
+	 */
+	private static int mark(boolean [][] changed, int pile, int pos) {
+		if(changed[pile][pos]) {
+			return 0;
+		}
+		changed[pile][pos] = true;
+		return 1;
+	}
+}
@@ -0,0 +1,126 @@
+package session;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a journal written by a {@link MoveJournal}. The file is mapped into memory, so that moves
+ * are read straight from the page cache without being copied, and rebuilding a session takes time
+ * proportional to the number of moves played. A record cut short by a crash is ignored.
+ * <p>
+ * A reader only sees the moves written before it was opened. It can be used by several threads
+ * at the same time.
+ */
+public final class JournalReader {
+	/**
+	 * _records - the mapped file.
+	 * _gameId  - the id of the type of game.
+	 * _seed    - the seed with which the game was dealt.
+	 * _moves   - the number of whole records.
+	 */
+	private final MappedByteBuffer _records;
+	private final int              _gameId;
+	private final long             _seed;
+	private final int              _moves;
+
+	private JournalReader(MappedByteBuffer records) {
+		_records = records;
+		_gameId  = records.getInt(4);
+		_seed    = records.getLong(8);
+		_moves   = (records.capacity() - MoveJournal.HEADER) / MoveJournal.RECORD;
+	}
+
+	/**
+	 * Maps a journal into memory.
+	 * @param file - the file.
+	 * @return the reader.
+	 * @throws IllegalArgumentException if file is {@code null}, is not a journal or is too large to
+	 *         be mapped at once (more than 2 GB).
+	 * @throws IOException if the file can not be read.
+	 */
+	public static JournalReader open(Path file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File can not be null.");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if(size < MoveJournal.HEADER || size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Not a move journal, or too large to be mapped.");
+			}
+			MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if(records.getInt(0) != MoveJournal.MAGIC) {
+				throw new IllegalArgumentException("Not a move journal.");
+			}
+			return new JournalReader(records);
+		} finally {
+			// the mapping stays valid once the channel is closed
+			channel.close();
+		}
+	}
+
+	/**
+	 * @return the id of the type of game.
+	 */
+	public int getGameId() {
+		return _gameId;
+	}
+
+	/**
+	 * @return the seed with which the game was dealt.
+	 */
+	public long getSeed() {
+		return _seed;
+	}
+
+	/**
+	 * @return the number of moves in the journal.
+	 */
+	public int moveCount() {
+		return _moves;
+	}
+
+	/**
+	 * @param i - the index of the move, from 0 in the order in which the moves were played.
+	 * @return the encoded move.
+	 * @throws IndexOutOfBoundsException if i is negative or not less than {@link #moveCount()}.
+	 */
+	public int move(int i) {
+		if(i < 0 || i >= _moves) {
+			throw new IndexOutOfBoundsException("No move " + i + " in the journal.");
+		}
+		return _records.getInt(MoveJournal.HEADER + i * MoveJournal.RECORD);
+	}
+
+	/**
+	 * Rebuilds the session as it was after the last move of the journal.
+	 * @return a new session, without listeners.
+	 * @throws IllegalArgumentException if the journal does not describe a game.
+	 */
+	public GameSession replay() {
+		return replay(_moves);
+	}
+
+	/**
+	 * Rebuilds the session as it was after some of the moves of the journal, e.g. to step through
+	 * a game. The moves sent home after a move are moves of their own.
+	 * @param count - the number of moves to play, from the first.
+	 * @return a new session, without listeners.
+	 * @throws IllegalArgumentException if count is negative or greater than {@link #moveCount()},
+	 *         or the journal does not describe a game.
+	 */
+	public GameSession replay(int count) {
+		if(count < 0 || count > _moves) {
+			throw new IllegalArgumentException("Illegal number of moves.");
+		}
+		GameSession session = GameSession.newGame(_gameId, _seed);
+		for(int i = 0; i < count; i++) {
+			session.replay(_records.getInt(MoveJournal.HEADER + i * MoveJournal.RECORD));
+		}
+		session.replayed();
+		return session;
+	}
+}
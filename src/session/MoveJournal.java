@@ -0,0 +1,171 @@
+package session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.FreecellGame;
+
+/**
+ * Writes every move played in a {@link GameSession} to the end of a file, so that the session can
+ * be rebuilt by a {@link JournalReader} after a crash, audited or replayed. The file starts with
+ * a header, then holds one record per move, never rewritten:
+ * <pre>
+ * header  magic number, game id (4 bytes each), then the seed of the deal (8 bytes)
+ * record  the encoded {@link model.Move} (4 bytes), in the order in which the moves were played,
+ *         including the cards sent home after each move
+ * </pre>
+ * A journal must be added as a listener to a session which has not been played yet, dealt with
+ * {@link GameSession#newGame(int, long)} from the same game id and seed. Rejected moves are not
+ * written. Like its session, a journal must only be used by one thread at a time.
+ */
+public final class MoveJournal implements SessionListener, Closeable {
+	/**
+	 * Constants
+	 *
+	 * MAGIC  - the first 4 bytes of a journal.
+	 * HEADER - the number of bytes of the header.
+	 * RECORD - the number of bytes of a record.
+	 */
+	static final int MAGIC  = 0x534F4C4A;
+	static final int HEADER = 16;
+	static final int RECORD = 4;
+
+	/**
+	 * _channel - the file, positioned at its end.
+	 * _buffer  - holds the records of one event before they are written.
+	 */
+	private final FileChannel _channel;
+	private ByteBuffer        _buffer;
+
+	private MoveJournal(FileChannel channel) {
+		_channel = channel;
+		_buffer  = ByteBuffer.allocate(16 * RECORD);
+	}
+
+	/**
+	 * Creates a journal for a new game, replacing the file if it exists.
+	 * @param file   - the file.
+	 * @param gameId - the id of the type of game.
+	 * @param seed   - the seed with which the game was dealt: for Freecell, its deal number.
+	 * @return the journal, to be added as a listener to the session.
+	 * @throws IllegalArgumentException if file is {@code null}, gameId does not correspond to any game,
+	 *         or the seed is not a Freecell deal number (1 to {@link Integer#MAX_VALUE}).
+	 * @throws IOException if the file can not be written.
+	 */
+	public static MoveJournal create(Path file, int gameId, long seed) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File can not be null.");
+		}
+		if(gameId != BakersDozenGame.GAME_ID && gameId != FreecellGame.GAME_ID && gameId != AcesUpGame.GAME_ID) {
+			throw new IllegalArgumentException("Game id does not correspond to any game.");
+		}
+		if(gameId == FreecellGame.GAME_ID) {
+			FreecellGame.toDealNumber(seed);
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			header.putInt(MAGIC).putInt(gameId).putLong(seed).flip();
+			write(channel, header);
+		} catch(IOException e) {
+			channel.close();
+			throw e;
+		}
+		return new MoveJournal(channel);
+	}
+
+	/**
+	 * Opens an existing journal to write more moves to it, e.g. after its session was rebuilt with
+	 * {@link JournalReader#replay()}. A record cut short by a crash is dropped.
+	 * @param file - the file.
+	 * @return the journal, to be added as a listener to the rebuilt session.
+	 * @throws IllegalArgumentException if file is {@code null} or is not a journal.
+	 * @throws IOException if the file can not be read or written.
+	 */
+	public static MoveJournal append(Path file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File can not be null.");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			while(header.hasRemaining() && channel.read(header) >= 0) {
+				// read the whole header
+			}
+			if(header.hasRemaining() || header.getInt(0) != MAGIC) {
+				throw new IllegalArgumentException("Not a move journal.");
+			}
+			long end = HEADER + (channel.size() - HEADER) / RECORD * RECORD;
+			channel.truncate(end);
+			channel.position(end);
+		} catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return new MoveJournal(channel);
+	}
+
+	/**
+	 * Writes the moves played to the end of the journal.
+	 * @throws UncheckedIOException if the journal can not be written.
+	 */
+	@Override
+	public void pilesChanged(PilesChangedEvent event) {
+		int [] moves = event.getMoves();
+		if(_buffer.capacity() < moves.length * RECORD) {
+			_buffer = ByteBuffer.allocate(moves.length * RECORD);
+		}
+		_buffer.clear();
+		for(int move : moves) {
+			_buffer.putInt(move);
+		}
+		_buffer.flip();
+		try {
+			write(_channel, _buffer);
+		} catch(IOException e) {
+			throw new UncheckedIOException("Can not write to the journal.", e);
+		}
+	}
+
+	@Override
+	public void moveRejected(MoveRejectedEvent event) {
+		// a rejected move does not change the game
+	}
+
+	@Override
+	public void gameOver(GameOverEvent event) {
+		// replaying the moves ends the game again
+	}
+
+	/**
+	 * Forces the moves written so far to the storage device, so that they survive a crash of the
+	 * operating system, not only of the process.
+	 * @throws IOException if the journal can not be written.
+	 */
+	public void sync() throws IOException {
+		_channel.force(false);
+	}
+
+	/**
+	 * Closes the file. Moves played afterwards can not be written.
+	 * @throws IOException if the file can not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		_channel.close();
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+}
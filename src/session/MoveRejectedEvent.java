@@ -0,0 +1,23 @@
+package session;
+
+/**
+ * Sent when a move asked for is illegal. The game is not modified.
+ */
+public final class MoveRejectedEvent extends SessionEvent {
+	/**
+	 * _move - the encoded move which was rejected (see {@link model.Move}).
+	 */
+	private final int _move;
+
+	MoveRejectedEvent(GameSession session, int move) {
+		super(session);
+		_move = move;
+	}
+
+	/**
+	 * @return the encoded move which was rejected.
+	 */
+	public int getMove() {
+		return _move;
+	}
+}
@@ -0,0 +1,49 @@
+package session;
+
+/**
+ * Sent after a move was played, together with every card the session then played home on its own.
+ */
+public final class PilesChangedEvent extends SessionEvent {
+	/**
+	 * _moves - the encoded moves played, in order (see {@link model.Move}).
+	 * _piles - the type and the position of every pile which changed, each listed once.
+	 */
+	private final int []   _moves;
+	private final int [][] _piles;
+
+	PilesChangedEvent(GameSession session, int [] moves, int [][] piles) {
+		super(session);
+		_moves = moves;
+		_piles = piles;
+	}
+
+	/**
+	 * @return the encoded moves played, in order. The first one is the move asked for.
+	 */
+	public int [] getMoves() {
+		return _moves.clone();
+	}
+
+	/**
+	 * @return the number of piles which changed.
+	 */
+	public int getPileCount() {
+		return _piles.length;
+	}
+
+	/**
+	 * @param index - the index of the pile, from 0 to {@link #getPileCount()} - 1.
+	 * @return the type of a pile which changed. (0-Tableau, 1-Homecell, 2-Freecell)
+	 */
+	public int getPileType(int index) {
+		return _piles[index][0];
+	}
+
+	/**
+	 * @param index - the index of the pile, from 0 to {@link #getPileCount()} - 1.
+	 * @return the position of a pile which changed.
+	 */
+	public int getPilePos(int index) {
+		return _piles[index][1];
+	}
+}
@@ -0,0 +1,22 @@
+package session;
+
+/**
+ * Something which happened to a {@link GameSession}, delivered to its {@link SessionListener}s.
+ */
+public abstract class SessionEvent {
+	/**
+	 * _session - the session in which the event happened.
+	 */
+	private final GameSession _session;
+
+	protected SessionEvent(GameSession session) {
+		_session = session;
+	}
+
+	/**
+	 * @return the session in which the event happened.
+	 */
+	public GameSession getSession() {
+		return _session;
+	}
+}
@@ -0,0 +1,25 @@
+package session;
+
+/**
+ * Receives the events of a {@link GameSession}. Events are delivered on the thread which played
+ * the move, before the call which played it returns.
+ */
+public interface SessionListener {
+	/**
+	 * Called after a move was played.
+	 * @param event - the moves played and the piles they changed.
+	 */
+	void pilesChanged(PilesChangedEvent event);
+
+	/**
+	 * Called when a move asked for is illegal.
+	 * @param event - the move rejected.
+	 */
+	void moveRejected(MoveRejectedEvent event);
+
+	/**
+	 * Called once, after the last {@link #pilesChanged(PilesChangedEvent)} of a game.
+	 * @param event - whether the game was won.
+	 */
+	void gameOver(GameOverEvent event);
+}
@@ -0,0 +1,66 @@
+package session;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the {@link GameSession}s being played and hands out the ids through which they are looked
+ * up, so that one process can host any number of games at the same time. A registry is
+ * thread-safe, but the sessions it holds are not: each session must still only be used by one
+ * thread at a time.
+ */
+public final class SessionRegistry {
+	/**
+	 * _sessions - the sessions, by id.
+	 * _nextId   - the id of the next session registered.
+	 */
+	private final ConcurrentHashMap<Long, GameSession> _sessions;
+	private final AtomicLong                           _nextId;
+
+	/**
+	 * Creates an empty registry.
+	 */
+	public SessionRegistry() {
+		_sessions = new ConcurrentHashMap<Long, GameSession>();
+		_nextId   = new AtomicLong(1);
+	}
+
+	/**
+	 * Registers a session under a new id. Ids are never reused by a registry.
+	 * @param session - the session.
+	 * @return the id of the session, greater than 0.
+	 * @throws IllegalArgumentException if session is {@code null}.
+	 */
+	public long register(GameSession session) {
+		if(session == null) {
+			throw new IllegalArgumentException("Session can not be null.");
+		}
+		long id = _nextId.getAndIncrement();
+		_sessions.put(id, session);
+		return id;
+	}
+
+	/**
+	 * @param id - the id of the session.
+	 * @return the session, {@code null} if no session is registered under this id.
+	 */
+	public GameSession get(long id) {
+		return _sessions.get(id);
+	}
+
+	/**
+	 * Removes a session from this registry.
+	 * @param id - the id of the session.
+	 * @return the session removed, {@code null} if no session was registered under this id.
+	 */
+	public GameSession remove(long id) {
+		return _sessions.remove(id);
+	}
+
+	/**
+	 * @return the number of sessions registered.
+	 */
+	public int size() {
+		return _sessions.size();
+	}
+}
@@ -0,0 +1,220 @@
+package session.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.FreecellGame;
+import model.GameState;
+import model.Move;
+import model.Piles;
+import session.GameOverEvent;
+import session.GameSession;
+import session.MoveRejectedEvent;
+import session.PilesChangedEvent;
+import session.SessionEvent;
+import session.SessionListener;
+
+public class GameSessionTest {
+	@Test
+	public void testMoveEvents() {
+		GameSession session = GameSession.newGame(FreecellGame.GAME_ID, 1);
+		Recorder recorder = new Recorder();
+		session.addListener(recorder);
+
+		assertTrue("Moving a card to an empty Freecell pile is legal",
+				session.move(Piles.TABLEAU, 0, Piles.FREECELL, 0));
+		assertEquals("One move, one event", 1, recorder.events.size());
+		PilesChangedEvent changed = (PilesChangedEvent) recorder.events.get(0);
+		assertSame("The event must come from the session", session, changed.getSession());
+		assertEquals("The move asked for comes first", Move.of(Piles.TABLEAU, 0, Piles.FREECELL, 0), changed.getMoves()[0]);
+		boolean src = false;
+		boolean dst = false;
+		for(int i = 0; i < changed.getPileCount(); i++) {
+			src |= changed.getPileType(i) == Piles.TABLEAU && changed.getPilePos(i) == 0;
+			dst |= changed.getPileType(i) == Piles.FREECELL && changed.getPilePos(i) == 0;
+		}
+		assertTrue("Both piles changed", src && dst);
+
+		GameState before = session.getState();
+		assertFalse("Freecell piles hold only one card", session.move(Piles.TABLEAU, 1, Piles.FREECELL, 0));
+		MoveRejectedEvent rejected = (MoveRejectedEvent) recorder.events.get(1);
+		assertEquals("The move rejected must be reported", Move.of(Piles.TABLEAU, 1, Piles.FREECELL, 0), rejected.getMove());
+		assertEquals("A rejected move must not modify the game", before, session.getState());
+		assertFalse("Only Ace's Up can deal", session.deal());
+		assertTrue("Only Ace's Up can deal", recorder.events.get(2) instanceof MoveRejectedEvent);
+
+		session.removeListener(recorder);
+		session.move(Piles.TABLEAU, 1, Piles.FREECELL, 1);
+		assertEquals("A removed listener receives nothing", 3, recorder.events.size());
+		try {
+			session.move(Piles.TABLEAU, 8, Piles.FREECELL, 1);
+			fail("A pile which does not exist should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testDeal() {
+		GameSession session = GameSession.newGame(AcesUpGame.GAME_ID, 7);
+		Recorder recorder = new Recorder();
+		session.addListener(recorder);
+		assertTrue("The Stock pile is full", session.deal());
+		PilesChangedEvent changed = (PilesChangedEvent) recorder.events.get(0);
+		assertEquals("Dealing changes the Stock pile and every Tableau pile", 5, changed.getPileCount());
+		assertEquals("Dealing is one move", Move.DEAL, changed.getMoves()[0]);
+		assertEquals("One card is dealt on each Tableau pile", 44, session.size(Piles.STOCK, 0));
+	}
+
+	@Test
+	public void testGameOver() {
+		// Ace's Up with the Two of Spades on the Ace of Clubs, the other Aces alone and every
+		// other card discarded
+		int [][] piles = new int[6][0];
+		piles[0] = new int [] { 0, 3 * 13 + 1 };
+		for(int suit = 1; suit < 4; suit++) {
+			piles[suit] = new int [] { (suit == 1 ? 3 : suit - 1) * 13 };
+		}
+		piles[4] = new int[47];
+		for(int card = 0, n = 0; card < 52; card++) {
+			if(card % 13 != 0 && card != 3 * 13 + 1) {
+				piles[4][n++] = card;
+			}
+		}
+		GameSession session = new GameSession(GameState.of(AcesUpGame.GAME_ID, piles).toGame());
+		Recorder recorder = new Recorder();
+		session.addListener(recorder);
+		assertFalse("The game is not over yet", session.isOver());
+
+		assertTrue("The Two of Spades can be discarded", session.move(Piles.TABLEAU, 0, Piles.HOMECELL, 0));
+		assertEquals("The move is reported before the end of the game", 2, recorder.events.size());
+		assertTrue("The move is reported before the end of the game", recorder.events.get(0) instanceof PilesChangedEvent);
+		assertTrue("The game is won", ((GameOverEvent) recorder.events.get(1)).isWon());
+		assertTrue("The game is won", session.isWon());
+		assertFalse("A finished game takes no more moves", session.move(Piles.TABLEAU, 1, Piles.TABLEAU, 0));
+	}
+
+	@Test
+	public void testSafeCardsOnStart() {
+		// every card is home but the King of Spades, which is in a Freecell pile
+		int [][] piles = new int[16][0];
+		for(int suit = 0; suit < 4; suit++) {
+			piles[8 + suit] = new int[suit == 3 ? 12 : 13];
+			for(int rank = 0; rank < piles[8 + suit].length; rank++) {
+				piles[8 + suit][rank] = suit * 13 + rank;
+			}
+		}
+		piles[12] = new int [] { 51 };
+		GameSession session = new GameSession(GameState.of(FreecellGame.GAME_ID, piles).toGame());
+		assertTrue("A restored session plays its safe cards home at once", session.isWon());
+		assertTrue("A session won by its safe cards starts over", session.isOver());
+		assertFalse("A session which starts over rejects moves", session.move(Piles.HOMECELL, 3, Piles.FREECELL, 0));
+
+		// deal #2 has an Ace on top of a Tableau pile
+		session = GameSession.newGame(FreecellGame.GAME_ID, 2);
+		int home = 0;
+		for(int pos = 0; pos < session.count(Piles.HOMECELL); pos++) {
+			home += session.size(Piles.HOMECELL, pos);
+		}
+		assertTrue("A new session plays its safe cards home at once", home > 0);
+	}
+
+	@Test
+	public void testSupermoveCount() {
+		GameSession session = supermovePosition();
+		assertTrue("One card can be moved to an empty pile", session.move(Piles.TABLEAU, 0, Piles.TABLEAU, 2));
+		assertEquals("Only the top card is moved to an empty pile by default", 1, session.size(Piles.TABLEAU, 2));
+		assertEquals("Only the top card is moved to an empty pile by default", 3, session.size(Piles.TABLEAU, 0));
+
+		session = supermovePosition();
+		assertTrue("The run fits on the Queen of Diamonds", session.move(Piles.TABLEAU, 0, Piles.TABLEAU, 1));
+		assertEquals("The part of the run which fits on a card is moved by default", 3, session.size(Piles.TABLEAU, 1));
+
+		session = supermovePosition();
+		assertTrue("Two cards fit through the empty Freecell pile", session.move(Piles.TABLEAU, 0, Piles.TABLEAU, 2, 2));
+		assertEquals("The number of cards asked for is moved", 2, session.size(Piles.TABLEAU, 2));
+
+		session = supermovePosition();
+		Recorder recorder = new Recorder();
+		session.addListener(recorder);
+		GameState before = session.getState();
+		assertFalse("Three cards do not fit through one Freecell pile", session.move(Piles.TABLEAU, 0, Piles.TABLEAU, 2, 3));
+		assertEquals("The move rejected must be reported with its count", Move.of(Piles.TABLEAU, 0, Piles.TABLEAU, 2, 3),
+				((MoveRejectedEvent) recorder.events.get(0)).getMove());
+		assertFalse("Several cards can only be moved between Tableau piles", session.move(Piles.TABLEAU, 0, Piles.FREECELL, 3, 2));
+		assertEquals("A rejected move must not modify the game", before, session.getState());
+		try {
+			session.move(Piles.TABLEAU, 0, Piles.TABLEAU, 2, -1);
+			fail("A negative number of cards should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		try {
+			new GameSession(null);
+			fail("A session without a game should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			GameSession.newGame(-1, 1);
+			fail("An unknown game id should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			GameSession.newGame(BakersDozenGame.GAME_ID, 1).addListener(null);
+			fail("A null listener should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @return a Freecell session with the King of Spades, Queen of Hearts, Jack of Clubs and Ten of
+	 *         Diamonds on the first Tableau pile, the Queen of Diamonds on the second, an empty third
+	 *         pile and one empty Freecell pile.
+	 */
+	private static GameSession supermovePosition() {
+		int [][] piles = new int[16][0];
+		piles[0] = new int [] { 51, 37, 10, 22 };
+		piles[1] = new int [] { 24 };
+		for(int pos = 3; pos < 8; pos++) {
+			piles[pos] = new int [] { pos + 1 };
+		}
+		for(int pos = 0; pos < 3; pos++) {
+			piles[12 + pos] = new int [] { 30 + pos };
+		}
+		return new GameSession(GameState.of(FreecellGame.GAME_ID, piles).toGame());
+	}
+
+	/**
+	 * Records every event, in order.
+	 */
+	private static final class Recorder implements SessionListener {
+		final ArrayList<SessionEvent> events = new ArrayList<SessionEvent>();
+
+		@Override
+		public void pilesChanged(PilesChangedEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void moveRejected(MoveRejectedEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void gameOver(GameOverEvent event) {
+			events.add(event);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package session.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.FreecellGame;
+import model.GameState;
+import session.GameOverEvent;
+import session.GameSession;
+import session.JournalReader;
+import session.MoveJournal;
+import session.MoveRejectedEvent;
+import session.PilesChangedEvent;
+import session.SessionListener;
+
+public class MoveJournalTest {
+	private Path _file;
+
+	@Before
+	public void setUp() throws IOException {
+		_file = Files.createTempFile("journal", ".bin");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(_file);
+	}
+
+	@Test
+	public void testReplay() throws IOException {
+		GameSession session = GameSession.newGame(FreecellGame.GAME_ID, 1);
+		Positions positions = new Positions(session);
+		MoveJournal journal = MoveJournal.create(_file, FreecellGame.GAME_ID, 1);
+		session.addListener(journal);
+		session.addListener(positions);
+		assertTrue("Moves must be played, and illegal ones tried", play(session, 30) > 0);
+		journal.close();
+
+		JournalReader reader = JournalReader.open(_file);
+		assertEquals("The game id must be read back", FreecellGame.GAME_ID, reader.getGameId());
+		assertEquals("The seed must be read back", 1, reader.getSeed());
+		assertEquals("Every move played must be written", positions.moves, reader.moveCount());
+		assertEquals("Replaying every move rebuilds the session", session.getState(), reader.replay().getState());
+		for(int i = 0; i < positions.counts.size(); i++) {
+			assertEquals("Replaying some moves rebuilds the session as it was",
+					positions.states.get(i), reader.replay(positions.counts.get(i)).getState());
+		}
+		assertEquals("Replaying no move deals the game again",
+				GameSession.newGame(FreecellGame.GAME_ID, 1).getState(), reader.replay(0).getState());
+		try {
+			reader.replay(reader.moveCount() + 1);
+			fail("Replaying more moves than written should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAppendAfterCrash() throws IOException {
+		GameSession session = GameSession.newGame(AcesUpGame.GAME_ID, 7);
+		MoveJournal journal = MoveJournal.create(_file, AcesUpGame.GAME_ID, 7);
+		session.addListener(journal);
+		assertTrue("The Stock pile is full", session.deal());
+		play(session, 5);
+		journal.close();
+
+		// a crash in the middle of a record leaves part of it behind
+		FileChannel channel = FileChannel.open(_file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		channel.write(ByteBuffer.wrap(new byte [] { 1, 2 }));
+		channel.close();
+		JournalReader reader = JournalReader.open(_file);
+		assertEquals("A record cut short must be ignored", session.getState(), reader.replay().getState());
+
+		GameSession rebuilt = reader.replay();
+		journal = MoveJournal.append(_file);
+		rebuilt.addListener(journal);
+		assertTrue("The Stock pile is not empty", rebuilt.deal());
+		play(rebuilt, 5);
+		journal.close();
+		assertEquals("Moves played after a crash must follow the others", rebuilt.getState(),
+				JournalReader.open(_file).replay().getState());
+	}
+
+	@Test
+	public void testNotAJournal() throws IOException {
+		Files.write(_file, new byte[32]);
+		try {
+			JournalReader.open(_file);
+			fail("A file without the magic number should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			MoveJournal.append(_file);
+			fail("A file without the magic number should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			MoveJournal.create(_file, -1, 1);
+			fail("An unknown game id should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			MoveJournal.create(_file, FreecellGame.GAME_ID, 1L << 32 | 1);
+			fail("A seed which is not a Freecell deal number should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+
+		// a header whose seed was overwritten with one no Freecell deal has
+		MoveJournal.create(_file, FreecellGame.GAME_ID, 1).close();
+		byte [] bytes = Files.readAllBytes(_file);
+		ByteBuffer.wrap(bytes).putLong(8, 0);
+		Files.write(_file, bytes);
+		try {
+			JournalReader.open(_file).replay();
+			fail("A journal of no Freecell deal should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Plays up to the specified number of legal moves, each the first which is legal from the
+	 * piles in order, starting after the source of the previous move so that the game moves on.
+	 * @return the number of moves played.
+	 */
+	private static int play(GameSession session, int moves) {
+		int piles = 0;
+		for(int type = 0; type < session.pileTypes(); type++) {
+			piles += session.count(type);
+		}
+		int start = 0;
+		for(int m = 0; m < moves; m++) {
+			boolean played = false;
+			for(int k = 0; k < piles * piles && !played && !session.isOver(); k++) {
+				int src = (start + k / piles) % piles;
+				int dst = k % piles;
+				played = session.move(type(session, src), pos(session, src), type(session, dst), pos(session, dst));
+				if(played) {
+					start = src + 1;
+				}
+			}
+			if(!played) {
+				return m;
+			}
+		}
+		return moves;
+	}
+
+	private static int type(GameSession session, int pile) {
+		int type = 0;
+		while(pile >= session.count(type)) {
+			pile -= session.count(type++);
+		}
+		return type;
+	}
+
+	private static int pos(GameSession session, int pile) {
+		int type = 0;
+		while(pile >= session.count(type)) {
+			pile -= session.count(type++);
+		}
+		return pile;
+	}
+
+	/**
+	 * Records the position after each event, with the number of moves played so far.
+	 */
+	private static final class Positions implements SessionListener {
+		final GameSession          session;
+		final ArrayList<GameState> states = new ArrayList<GameState>();
+		final ArrayList<Integer>   counts = new ArrayList<Integer>();
+		int                        moves;
+
+		Positions(GameSession session) {
+			this.session = session;
+		}
+
+		@Override
+		public void pilesChanged(PilesChangedEvent event) {
+			moves += event.getMoves().length;
+			states.add(session.getState());
+			counts.add(moves);
+		}
+
+		@Override
+		public void moveRejected(MoveRejectedEvent event) {
+			// nothing changed
+		}
+
+		@Override
+		public void gameOver(GameOverEvent event) {
+			// nothing changed
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package session.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.FreecellGame;
+import session.GameSession;
+import session.SessionRegistry;
+
+public class SessionRegistryTest {
+	@Test
+	public void testRegisterAndRemove() {
+		SessionRegistry registry = new SessionRegistry();
+		GameSession first = GameSession.newGame(FreecellGame.GAME_ID, 1);
+		GameSession second = GameSession.newGame(FreecellGame.GAME_ID, 2);
+		long firstId = registry.register(first);
+		long secondId = registry.register(second);
+		assertNotEquals("Every session must get its own id", firstId, secondId);
+		assertSame("A session must be found by its id", first, registry.get(firstId));
+		assertSame("A session must be found by its id", second, registry.get(secondId));
+		assertEquals("Both sessions are registered", 2, registry.size());
+
+		assertSame("Removing a session must return it", first, registry.remove(firstId));
+		assertNull("A removed session can not be found", registry.get(firstId));
+		assertNull("A session can only be removed once", registry.remove(firstId));
+		assertEquals("Ids are never reused", secondId + 1, registry.register(first));
+		try {
+			registry.register(null);
+			fail("Registering null should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testConcurrentRegistration() throws InterruptedException {
+		final SessionRegistry registry = new SessionRegistry();
+		final GameSession session = GameSession.newGame(FreecellGame.GAME_ID, 1);
+		Thread [] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for(int j = 0; j < 1000; j++) {
+						registry.register(session);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals("No registration may be lost", 4000, registry.size());
+	}
+}
@@ -0,0 +1,281 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import abstraction.Card;
+import model.AcesUpGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+/**
+ * Finds the largest number of cards that can be discarded in an Ace's Up game, and a sequence of
+ * moves which discards them.
+ * <p>
+ * Once the order of the Stock pile is known the game has no hidden information, so the best
+ * result from a position only depends on the number of cards left in the Stock pile and on the
+ * four Tableau piles. The search explores every line of play depth first and remembers the best
+ * result of every such position, so positions reached by discarding the same cards in a different
+ * order are only searched once. Moving the only card of a Tableau pile to an empty pile is never
+ * tried; every other move either discards a card, deals from the Stock pile or fills an empty
+ * pile, so no line of play can repeat a position. A card is discarded at once, without trying
+ * anything else, when no lower card of its suit is left in play (see {@link Search#isSafe(int)}).
+ * <p>
+ * Some deals have tens of millions of such positions, so the search gives up once a limit on the
+ * number of positions is reached, and reports the best line found until then. Discards are tried
+ * first, which usually finds the best result long before the limit even when it can not be proven.
+ */
+public final class AcesUpSolver {
+	/**
+	 * Constant
+	 *
+	 * MAX_DISCARDS - the number of discarded cards of a won game: every card except the Aces.
+	 */
+	public static final int MAX_DISCARDS = 48;
+
+	/**
+	 * Constant
+	 *
+	 * DEFAULT_MAX_STATES - the default number of positions searched before giving up.
+	 */
+	public static final long DEFAULT_MAX_STATES = 500000;
+
+	/**
+	 * _maxStates - the number of positions searched before giving up.
+	 */
+	private final long _maxStates;
+
+	/**
+	 * Creates a solver with the default limit.
+	 */
+	public AcesUpSolver() {
+		this(DEFAULT_MAX_STATES);
+	}
+
+	/**
+	 * Creates a solver.
+	 * @param maxStates - the number of positions searched before giving up.
+	 * @throws IllegalArgumentException if maxStates <= 0.
+	 */
+	public AcesUpSolver(long maxStates) {
+		if(maxStates <= 0) {
+			throw new IllegalArgumentException("The state limit must be positive.");
+		}
+		_maxStates = maxStates;
+	}
+
+	/**
+	 * Finds the best result of the current position of a game. The game is not modified.
+	 * @param game - the game to solve.
+	 * @return {@link SolverResult.Status#SOLVED} if every card but the Aces can be discarded,
+	 *         {@link SolverResult.Status#UNSOLVABLE} if they can not, and
+	 *         {@link SolverResult.Status#GAVE_UP} if the limit was reached first. The result holds
+	 *         the largest number of cards which can still be discarded, or the largest number found
+	 *         before giving up, as its score, and moves which discard them.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public SolverResult solve(AcesUpGame game) {
+		return solve(game, new AtomicBoolean(), FreecellSolver.noDeadline());
+	}
+
+	/**
+	 * Finds the best result of the current position of a game, giving up as soon as the search is
+	 * cancelled or the deadline is passed. The game is not modified.
+	 * @param game      - the game to solve.
+	 * @param cancelled - set by another thread to stop the search.
+	 * @param deadline  - the value of {@link System#nanoTime()} at which the search stops.
+	 * @return the result of the search, as {@link #solve(AcesUpGame)} describes it.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	SolverResult solve(AcesUpGame game, AtomicBoolean cancelled, long deadline) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+
+		long start = System.nanoTime();
+		Search search = new Search(GameState.of(game).toGame(), _maxStates, cancelled, deadline);
+		int score = search.best(0);
+		int [] moves = search.line();
+		SolverResult.Status status;
+		if(discarded(game) + score == MAX_DISCARDS) {
+			status = SolverResult.Status.SOLVED;
+		} else if(search._memo.size() >= _maxStates || search._stopped) {
+			status = SolverResult.Status.GAVE_UP;
+		} else {
+			status = SolverResult.Status.UNSOLVABLE;
+		}
+		return new SolverResult(status, moves, score, search._memo.size(), System.nanoTime() - start);
+	}
+
+	/**
+	 * @return the number of cards on the Homecell piles.
+	 */
+	private static int discarded(Game game) {
+		int count = 0;
+		for(int pos = 0; pos < game.count(Piles.HOMECELL); pos++) {
+			count += game.size(Piles.HOMECELL, pos);
+		}
+		return count;
+	}
+
+	private static boolean isDiscard(int move) {
+		return !Move.isDeal(move) && Move.dstPile(move) == Piles.HOMECELL;
+	}
+
+	/**
+	 * The future of a position only depends on the Tableau and Stock piles, so the order in
+	 * which cards were discarded is left out of its key.
+	 * @return the key of the current position of a game.
+	 */
+	private static long keyOf(Game game) {
+		return game.positionHash() ^ game.positionHash(Piles.HOMECELL);
+	}
+
+	/**
+	 * The state of one search.
+	 */
+	private static final class Search {
+		/**
+		 * Constant
+		 *
+		 * NO_MOVE      - the best move of a position from which nothing more can be discarded.
+		 * UNKNOWN      - the memoized value of a position which was not searched yet.
+		 * CHECK_STATES - the number of positions searched between two checks for cancellation.
+		 */
+		private static final int  NO_MOVE      = -1;
+		private static final long UNKNOWN      = -1L;
+		private static final int  CHECK_STATES = 256;
+
+		/**
+		 * _work      - the game moves are played on.
+		 * _maxStates - the number of positions searched before giving up.
+		 * _memo      - the best result of every position searched, in the high half, and the move
+		 *              which achieves it, in the low half, keyed by {@link #keyOf(Game)}. Once the
+		 *              limit is reached, positions left unfinished hold the best result found.
+		 * _buffers   - one move buffer per recursion level.
+		 * _discarded - the set of ordinals of the cards on the Homecell piles.
+		 * _cancelled - set by another thread to stop the search.
+		 * _deadline  - the value of {@link System#nanoTime()} at which the search stops.
+		 * _stopped   - whether the search was cancelled or ran out of time. Positions left
+		 *              unfinished hold the best result found, as when the limit is reached.
+		 */
+		private final Game                  _work;
+		private final long                  _maxStates;
+		private final LongMap               _memo;
+		private final ArrayList<MoveBuffer> _buffers;
+		private long                        _discarded;
+		private final AtomicBoolean         _cancelled;
+		private final long                  _deadline;
+		private boolean                     _stopped;
+
+		Search(Game work, long maxStates, AtomicBoolean cancelled, long deadline) {
+			_work      = work;
+			_maxStates = maxStates;
+			_memo      = new LongMap();
+			_buffers = new ArrayList<MoveBuffer>();
+			_cancelled = cancelled;
+			_deadline  = deadline;
+			for(int pos = 0; pos < work.count(Piles.HOMECELL); pos++) {
+				for(int k = 0; k < work.size(Piles.HOMECELL, pos); k++) {
+					_discarded |= 1L << work.getOrdinalAt(Piles.HOMECELL, pos, k);
+				}
+			}
+		}
+
+		/**
+		 * @param level - the recursion level.
+		 * @return the largest number of cards which can be discarded from the current position.
+		 */
+		int best(int level) {
+			long key = keyOf(_work);
+			long known = _memo.get(key, UNKNOWN);
+			if(known != UNKNOWN) {
+				return (int) (known >>> 32);
+			}
+
+			if(level == _buffers.size()) {
+				_buffers.add(new MoveBuffer());
+			}
+			MoveBuffer buffer = _buffers.get(level);
+			int n = _work.generateMoves(buffer);
+			int first = 0;
+			for(int i = 0; i < n; i++) {
+				int move = buffer.get(i);
+				if(isDiscard(move) && isSafe(_work.getTopOrdinal(Piles.TABLEAU, Move.srcPos(move)))) {
+					first = i;
+					n = i + 1;
+					break;
+				}
+			}
+			int limit = MAX_DISCARDS - discarded(_work);
+			int best = 0;
+			int bestMove = NO_MOVE;
+			// discards first, so that good lines are found before the limit is reached
+			for(int pass = 0; pass < 2; pass++) {
+				for(int i = first; i < n && best < limit && _memo.size() < _maxStates && !_stopped; i++) {
+					int move = buffer.get(i);
+					boolean discard = isDiscard(move);
+					if(discard != (pass == 0) || (!discard && !Move.isDeal(move)
+							&& _work.size(Piles.TABLEAU, Move.srcPos(move)) == 1)) {
+						continue;
+					}
+					byte card = discard ? _work.getTopOrdinal(Piles.TABLEAU, Move.srcPos(move)) : Card.NO_CARD;
+					_work.applyMove(move);
+					if(discard) {
+						_discarded |= 1L << card;
+					}
+					int value = (discard ? 1 : 0) + best(level + 1);
+					if(discard) {
+						_discarded &= ~(1L << card);
+					}
+					_work.undoMove(move);
+					if(value > best) {
+						best = value;
+						bestMove = move;
+					}
+				}
+			}
+			_memo.put(key, (long) best << 32 | (bestMove & 0xFFFFFFFFL));
+			if(_memo.size() % CHECK_STATES == 0 && (_cancelled.get() || System.nanoTime() - _deadline >= 0)) {
+				_stopped = true;
+			}
+			return best;
+		}
+
+		/**
+		 * A card is only worth keeping once it can be discarded if it could later be needed to
+		 * discard a lower card of its suit. Without such a card left in play, discarding it at
+		 * once leaves a position with every option of the position which keeps it.
+		 * @return whether discarding a card as soon as possible can not lower the result.
+		 */
+		private boolean isSafe(int card) {
+			int lower = Card.rankOf(card) - 2;
+			long mask = ((1L << lower) - 1) << (Card.suitOf(card) * 13 + 1);
+			return (mask & ~_discarded) == 0;
+		}
+
+		/**
+		 * Plays the best move of every position from the root of a finished search.
+		 * @return the moves played.
+		 */
+		int [] line() {
+			int [] moves = new int[64];
+			int length = 0;
+			while(true) {
+				int move = (int) _memo.get(keyOf(_work), UNKNOWN);
+				if(move == NO_MOVE) {
+					return Arrays.copyOf(moves, length);
+				}
+				if(length == moves.length) {
+					moves = Arrays.copyOf(moves, length * 2);
+				}
+				moves[length++] = move;
+				_work.applyMove(move);
+			}
+		}
+	}
+}
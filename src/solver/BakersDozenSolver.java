@@ -0,0 +1,355 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import abstraction.Card;
+import model.BakersDozenGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+/**
+ * Solves Baker's Dozen deals with an iterative deepening depth-first search (IDA*).
+ * <p>
+ * Baker's Dozen has no Freecell piles and empty Tableau piles can not be filled, so a card lying
+ * above a lower card of its own suit can only be moved out of the way onto a card of the next
+ * rank. When every card of the next rank is already on a Homecell pile or buried beneath the card
+ * in the same pile, the lower card can never be freed and the position is abandoned at once
+ * (see {@link #isHopeless(Game)}). Cards are played home as soon as every card of the rank below
+ * is home, since no card could ever be placed on them any more.
+ * <p>
+ * Each iteration searches, depth first and most promising move first, every position whose number
+ * of moves plus twice the estimated number of moves left does not exceed the current bound; the
+ * next bound is the smallest value which exceeded it. Weighting the estimate trades the shortest
+ * solution for far fewer iterations. A position reached again in the same iteration at the same or
+ * a larger depth is skipped. If an iteration ends without exceeding its bound anywhere, every
+ * reachable position has been searched and the deal is unsolvable.
+ */
+public final class BakersDozenSolver {
+	/**
+	 * Constant
+	 *
+	 * DEFAULT_MAX_NODES - the default number of positions expanded before giving up.
+	 */
+	public static final long DEFAULT_MAX_NODES = 2000000;
+
+	/**
+	 * Constants
+	 *
+	 * WEIGHT      - the weight of the estimate of the moves left in the bound of an iteration.
+	 * CHECK_NODES - the number of positions expanded between two checks for cancellation.
+	 */
+	private static final int WEIGHT      = 2;
+	private static final int CHECK_NODES = 256;
+
+	/**
+	 * _maxNodes - the number of positions expanded, over all iterations, before giving up.
+	 */
+	private final long _maxNodes;
+
+	/**
+	 * Creates a solver with the default limit.
+	 */
+	public BakersDozenSolver() {
+		this(DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates a solver.
+	 * @param maxNodes - the number of positions expanded, over all iterations, before giving up.
+	 * @throws IllegalArgumentException if maxNodes <= 0.
+	 */
+	public BakersDozenSolver(long maxNodes) {
+		if(maxNodes <= 0) {
+			throw new IllegalArgumentException("The node limit must be positive.");
+		}
+		_maxNodes = maxNodes;
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game. The game is not modified.
+	 * @param game - the game to solve.
+	 * @return the result of the search. The moves of a solution can be applied to the game with
+	 *         {@link Game#applyMove(int)}.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public SolverResult solve(BakersDozenGame game) {
+		return solve(game, new AtomicBoolean(), FreecellSolver.noDeadline());
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game, giving up as soon as the search
+	 * is cancelled or the deadline is passed. The game is not modified.
+	 * @param game      - the game to solve.
+	 * @param cancelled - set by another thread to stop the search.
+	 * @param deadline  - the value of {@link System#nanoTime()} at which the search stops.
+	 * @return the result of the search.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	SolverResult solve(BakersDozenGame game, AtomicBoolean cancelled, long deadline) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+
+		long start = System.nanoTime();
+		Search search = new Search(GameState.of(game).toGame(), _maxNodes, cancelled, deadline);
+		SolverResult.Status status = search.run();
+		int [] moves = status == SolverResult.Status.SOLVED ? Arrays.copyOf(search._path, search._length) : null;
+		return new SolverResult(status, moves, search._nodes, System.nanoTime() - start);
+	}
+
+	/**
+	 * Determines whether a Baker's Dozen position can no longer be won because some card lies
+	 * above a lower card of its own suit and can never be moved: every card of the next rank is
+	 * either on a Homecell pile or buried beneath it in the same Tableau pile.
+	 * @param game - the position.
+	 * @return whether the position is lost.
+	 * @throws IllegalArgumentException if game is {@code null} or is not a Baker's Dozen game.
+	 */
+	public static boolean isHopeless(Game game) {
+		if(game == null || game.getGameId() != BakersDozenGame.GAME_ID) {
+			throw new IllegalArgumentException("Game must be a Baker's Dozen game.");
+		}
+
+		int [] heights = new int[4];
+		FreecellRules.homeCount(game, heights);
+		for(int pos = 0; pos < game.count(Piles.TABLEAU); pos++) {
+			int size = game.size(Piles.TABLEAU, pos);
+			for(int k = 1; k < size; k++) {
+				byte card = game.getOrdinalAt(Piles.TABLEAU, pos, k);
+				if(isBlocking(game, pos, k, card) && isStuck(game, heights, pos, k, Card.rankOf(card))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether a card lies above a lower card of its own suit.
+	 */
+	private static boolean isBlocking(Game game, int pos, int index, byte card) {
+		for(int j = 0; j < index; j++) {
+			byte below = game.getOrdinalAt(Piles.TABLEAU, pos, j);
+			if(Card.suitOf(below) == Card.suitOf(card) && below < card) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether every card of the rank above is home or beneath the card in its pile.
+	 */
+	private static boolean isStuck(Game game, int [] heights, int pos, int index, int rank) {
+		if(rank == 13) {
+			return true;
+		}
+		int unavailable = 0;
+		for(int suit = 0; suit < 4; suit++) {
+			if(heights[suit] > rank) {
+				unavailable++;
+			}
+		}
+		for(int j = 0; j < index; j++) {
+			byte below = game.getOrdinalAt(Piles.TABLEAU, pos, j);
+			if(Card.rankOf(below) == rank + 1) {
+				unavailable++;
+			}
+		}
+		return unavailable == 4;
+	}
+
+	/**
+	 * The state of one search.
+	 */
+	private static final class Search {
+		/**
+		 * _work      - the game moves are played on.
+		 * _maxNodes  - the number of positions expanded before giving up.
+		 * _cancelled - set by another thread to stop the search.
+		 * _deadline  - the value of {@link System#nanoTime()} at which the search stops.
+		 * _stopped   - whether the search was cancelled or ran out of time.
+		 * _heights   - scratch array of the Homecell heights.
+		 * _buffers   - one move buffer per recursion level.
+		 * _table     - the smallest depth at which each position was reached in this iteration.
+		 * _path      - the moves played from the root.
+		 * _length    - the number of moves in _path.
+		 * _nodes     - the number of positions expanded.
+		 * _next      - the smallest bound exceeded in this iteration.
+		 */
+		private final Game                   _work;
+		private final long                   _maxNodes;
+		private final AtomicBoolean          _cancelled;
+		private final long                   _deadline;
+		private boolean                      _stopped;
+		private final int []                 _heights;
+		private final ArrayList<MoveBuffer>  _buffers;
+		private final TranspositionTable     _table;
+		private int []                       _path;
+		private int                          _length;
+		private long                         _nodes;
+		private int                          _next;
+
+		Search(Game work, long maxNodes, AtomicBoolean cancelled, long deadline) {
+			_work      = work;
+			_maxNodes  = maxNodes;
+			_cancelled = cancelled;
+			_deadline  = deadline;
+			_heights   = new int[4];
+			_buffers   = new ArrayList<MoveBuffer>();
+			_table     = new HashTranspositionTable();
+			_path      = new int[256];
+		}
+
+		SolverResult.Status run() {
+			playSafeMoves();
+			int bound = WEIGHT * estimate();
+			while(true) {
+				_table.clear();
+				_next = Integer.MAX_VALUE;
+				if(search(0, _length, bound)) {
+					return SolverResult.Status.SOLVED;
+				}
+				if(_nodes >= _maxNodes || _stopped) {
+					return SolverResult.Status.GAVE_UP;
+				}
+				if(_next == Integer.MAX_VALUE) {
+					return SolverResult.Status.UNSOLVABLE;
+				}
+				bound = _next;
+			}
+		}
+
+		/**
+		 * Searches the current position.
+		 * @param level - the recursion level.
+		 * @param depth - the number of moves played.
+		 * @param bound - the bound of this iteration.
+		 * @return whether a solution was found, in which case it is left in _path.
+		 */
+		private boolean search(int level, int depth, int bound) {
+			if(FreecellRules.homeCount(_work, _heights) == Card.NUM_CARDS) {
+				return true;
+			}
+			int h = WEIGHT * estimate();
+			if(depth + h > bound) {
+				_next = Math.min(_next, depth + h);
+				return false;
+			}
+			if(_stopped || _nodes >= _maxNodes || !_table.offer(_work.positionHash(), depth) || isHopeless(_work)) {
+				return false;
+			}
+			_nodes++;
+			if(_nodes % CHECK_NODES == 0 && (_cancelled.get() || System.nanoTime() - _deadline >= 0)) {
+				_stopped = true;
+				return false;
+			}
+
+			if(level == _buffers.size()) {
+				_buffers.add(new MoveBuffer());
+			}
+			MoveBuffer buffer = _buffers.get(level);
+			int n = _work.generateMoves(buffer);
+			// try the moves leading to the most promising positions first
+			long [] order = new long[n];
+			int count = 0;
+			for(int i = 0; i < n; i++) {
+				int move = buffer.get(i);
+				if(isUseless(move)) {
+					continue;
+				}
+				int length = _length;
+				push(move);
+				_work.applyMove(move);
+				playSafeMoves();
+				order[count++] = (long) estimate() << 32 | i;
+				while(_length > length) {
+					_work.undoMove(_path[--_length]);
+				}
+			}
+			Arrays.sort(order, 0, count);
+			for(int j = 0; j < count; j++) {
+				int move = buffer.get((int) order[j]);
+				int length = _length;
+				push(move);
+				_work.applyMove(move);
+				playSafeMoves();
+				if(search(level + 1, depth + _length - length, bound)) {
+					return true;
+				}
+				while(_length > length) {
+					_work.undoMove(_path[--_length]);
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Estimates the number of moves left: every card must be moved home, every card lying
+		 * above a lower card of its own suit must be moved onto another pile first and will
+		 * probably be in the way again, and every card lying above the next card of a suit must be
+		 * moved out of the way.
+		 */
+		private int estimate() {
+			int h = Card.NUM_CARDS - FreecellRules.homeCount(_work, _heights);
+			for(int pos = 0; pos < _work.count(Piles.TABLEAU); pos++) {
+				int size = _work.size(Piles.TABLEAU, pos);
+				for(int k = 0; k < size; k++) {
+					byte card = _work.getOrdinalAt(Piles.TABLEAU, pos, k);
+					if(k > 0 && isBlocking(_work, pos, k, card)) {
+						h += 2;
+					}
+					if(Card.rankOf(card) == _heights[Card.suitOf(card)] + 1) {
+						h += size - 1 - k;
+					}
+				}
+			}
+			return h;
+		}
+
+		/**
+		 * Moving the only card of a Tableau pile onto another pile just covers that pile, since
+		 * the emptied pile can never be used again.
+		 */
+		private boolean isUseless(int move) {
+			return Move.dstPile(move) == Piles.TABLEAU && _work.size(Piles.TABLEAU, Move.srcPos(move)) == 1;
+		}
+
+		/**
+		 * Plays home every top card whose rank is at most one more than every Homecell pile.
+		 */
+		private void playSafeMoves() {
+			boolean moved = true;
+			while(moved) {
+				moved = false;
+				FreecellRules.homeCount(_work, _heights);
+				int lowest = Math.min(Math.min(_heights[0], _heights[1]), Math.min(_heights[2], _heights[3]));
+				for(int pos = 0; pos < _work.count(Piles.TABLEAU) && !moved; pos++) {
+					byte card = _work.getTopOrdinal(Piles.TABLEAU, pos);
+					if(card == Card.NO_CARD || Card.rankOf(card) > lowest + 1) {
+						continue;
+					}
+					int home = FreecellRules.homecellOf(_work, card);
+					if(home >= 0) {
+						int move = Move.of(Piles.TABLEAU, pos, Piles.HOMECELL, home);
+						push(move);
+						_work.applyMove(move);
+						moved = true;
+					}
+				}
+			}
+		}
+
+		private void push(int move) {
+			if(_length == _path.length) {
+				_path = Arrays.copyOf(_path, _length * 2);
+			}
+			_path[_length++] = move;
+		}
+	}
+}
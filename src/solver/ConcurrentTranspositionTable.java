@@ -0,0 +1,82 @@
+package solver;
+
+/**
+ * A thread-safe {@link TranspositionTable} split into independently locked stripes, each of which
+ * is a {@link HashTranspositionTable}. Positions are assigned to stripes by the top bits of their
+ * hash, so threads searching different parts of a game tree rarely wait for each other.
+ */
+public final class ConcurrentTranspositionTable implements TranspositionTable {
+	/**
+	 * Constant
+	 *
+	 * STRIPE_BITS - the number of hash bits which select a stripe.
+	 */
+	private static final int STRIPE_BITS = 6;
+
+	/**
+	 * _stripes - the stripes, each guarded by its own monitor.
+	 */
+	private final HashTranspositionTable [] _stripes;
+
+	/**
+	 * Creates an empty table.
+	 */
+	public ConcurrentTranspositionTable() {
+		this(1 << 20);
+	}
+
+	/**
+	 * Creates an empty table which holds about the given number of positions before growing.
+	 * @param expected - the expected number of positions.
+	 * @throws IllegalArgumentException if expected <= 0.
+	 */
+	public ConcurrentTranspositionTable(int expected) {
+		if(expected <= 0) {
+			throw new IllegalArgumentException("The expected size must be positive.");
+		}
+		_stripes = new HashTranspositionTable[1 << STRIPE_BITS];
+		for(int i = 0; i < _stripes.length; i++) {
+			_stripes[i] = new HashTranspositionTable(Math.max(1, expected >> STRIPE_BITS));
+		}
+	}
+
+	@Override
+	public boolean offer(long hash, int depth) {
+		HashTranspositionTable stripe = stripeOf(hash);
+		synchronized(stripe) {
+			return stripe.offer(hash, depth);
+		}
+	}
+
+	@Override
+	public int depthOf(long hash) {
+		HashTranspositionTable stripe = stripeOf(hash);
+		synchronized(stripe) {
+			return stripe.depthOf(hash);
+		}
+	}
+
+	@Override
+	public long size() {
+		long size = 0;
+		for(HashTranspositionTable stripe : _stripes) {
+			synchronized(stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for(HashTranspositionTable stripe : _stripes) {
+			synchronized(stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	private HashTranspositionTable stripeOf(long hash) {
+		return _stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+	}
+}
@@ -0,0 +1,137 @@
+package solver;
+
+import java.util.Arrays;
+
+import abstraction.Card;
+import model.Game;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+/**
+ * The knowledge of Freecell shared by the Freecell solvers: which moves are pointless, how far a
+ * position is from being won, and how to hash a position so that equivalent positions collide.
+ * Which cards are safe to play home is left to {@link Game#playSafeMoves(MoveBuffer)}.
+ */
+final class FreecellRules {
+	private FreecellRules() {}
+
+	/**
+	 * Hashes a position regardless of the order of its Tableau and Freecell piles, since permuting
+	 * them does not change which deals can be won. Each Tableau pile is hashed from its cards and
+	 * their heights, the Freecell piles from their cards, and the Homecell piles are implied by the
+	 * cards which are not anywhere else.
+	 */
+	static long canonicalHash(Game game) {
+		long hash = 0;
+		for(int pos = 0; pos < game.count(Piles.TABLEAU); pos++) {
+			int size = game.size(Piles.TABLEAU, pos);
+			if(size == 0) {
+				continue;
+			}
+			long pile = 0;
+			for(int k = 0; k < size; k++) {
+				pile += mix(k << 6 | game.getOrdinalAt(Piles.TABLEAU, pos, k));
+			}
+			hash += mix(pile);
+		}
+		for(int pos = 0; pos < game.count(Piles.FREECELL); pos++) {
+			byte card = game.getTopOrdinal(Piles.FREECELL, pos);
+			if(card != Card.NO_CARD) {
+				hash += mix(~card);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Moves between Freecell piles, and moves of a whole Tableau pile to an empty Tableau pile,
+	 * only lead to equivalent positions.
+	 */
+	static boolean isUseless(Game game, int move) {
+		int srcPile = Move.srcPile(move);
+		int dstPile = Move.dstPile(move);
+		if(srcPile == Piles.FREECELL && dstPile == Piles.FREECELL) {
+			return true;
+		}
+		return srcPile == Piles.TABLEAU && dstPile == Piles.TABLEAU
+				&& game.size(Piles.TABLEAU, Move.srcPos(move)) == Move.count(move)
+				&& game.size(Piles.TABLEAU, Move.dstPos(move)) == 0;
+	}
+
+	/**
+	 * @return the position of the Homecell pile the card can be added to, -1 if there is none.
+	 */
+	static int homecellOf(Game game, int card) {
+		int empty = -1;
+		for(int pos = 0; pos < game.count(Piles.HOMECELL); pos++) {
+			byte top = game.getTopOrdinal(Piles.HOMECELL, pos);
+			if(top == Card.NO_CARD) {
+				if(empty < 0) {
+					empty = pos;
+				}
+			} else if(Card.suitOf(top) == Card.suitOf(card)) {
+				return top == card - 1 ? pos : -1;
+			}
+		}
+		return Card.rankOf(card) == 1 ? empty : -1;
+	}
+
+	/**
+	 * Fills {@code heights} with the rank of the top Homecell card of each suit.
+	 * @return the number of cards on the Homecell piles.
+	 */
+	static int homeCount(Game game, int [] heights) {
+		Arrays.fill(heights, 0);
+		int home = 0;
+		for(int pos = 0; pos < game.count(Piles.HOMECELL); pos++) {
+			byte top = game.getTopOrdinal(Piles.HOMECELL, pos);
+			if(top != Card.NO_CARD) {
+				heights[Card.suitOf(top)] = Card.rankOf(top);
+				home += Card.rankOf(top);
+			}
+		}
+		return home;
+	}
+
+	/**
+	 * Estimates the number of moves left: every card must still be moved home, every card lying
+	 * above the next card of a suit must be moved out of the way first, and every card which is
+	 * not on a card of the next rank and opposite color, as well as every card on a Freecell pile,
+	 * will need about two more moves to be built into a sequence.
+	 */
+	static int estimate(Game game, int [] heights, int home) {
+		int h = Card.NUM_CARDS - home;
+		for(int pos = 0; pos < game.count(Piles.TABLEAU); pos++) {
+			int size = game.size(Piles.TABLEAU, pos);
+			for(int k = 0; k < size; k++) {
+				byte card = game.getOrdinalAt(Piles.TABLEAU, pos, k);
+				if(Card.rankOf(card) == heights[Card.suitOf(card)] + 1) {
+					h += size - 1 - k;
+				}
+				if(k > 0) {
+					byte below = game.getOrdinalAt(Piles.TABLEAU, pos, k - 1);
+					if(Card.rankOf(below) != Card.rankOf(card) + 1 || Card.isRed(below) == Card.isRed(card)) {
+						h += 2;
+					}
+				}
+			}
+		}
+		for(int pos = 0; pos < game.count(Piles.FREECELL); pos++) {
+			if(game.getTopOrdinal(Piles.FREECELL, pos) != Card.NO_CARD) {
+				h += 2;
+			}
+		}
+		return h;
+	}
+}
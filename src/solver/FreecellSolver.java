@@ -0,0 +1,254 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import abstraction.Card;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.MoveBuffer;
+
+/**
+ * Solves Freecell deals with a weighted A* search over the moves generated by
+ * {@link Game#generateMoves(MoveBuffer)}, so the search follows exactly the rules of
+ * {@code FreecellTableauStrategy}, {@code FreecellFreecellStrategy} and {@code HomecellStrategy}.
+ * <p>
+ * Positions are scored with {@code f = g + weight * h}, where {@code g} is the number of moves made
+ * and {@code h} estimates the number of moves left. Open positions are kept as compact
+ * {@link GameState}s and every position reached is recorded in a {@link TranspositionTable} keyed
+ * by a hash which, unlike {@link Game#positionHash()}, ignores the order of the Tableau and Freecell
+ * piles. After every move, cards which can never be needed on the Tableau are played to the
+ * Homecell piles as part of the same step.
+ * <p>
+ * If the open list runs out before the node limit is reached, every reachable position has been
+ * searched and the deal is reported as unsolvable.
+ */
+public final class FreecellSolver {
+	/**
+	 * Constants
+	 *
+	 * DEFAULT_MAX_NODES - the default number of positions expanded before giving up.
+	 * DEFAULT_WEIGHT    - the default weight of the heuristic.
+	 */
+	public static final long DEFAULT_MAX_NODES = 200000;
+	public static final int  DEFAULT_WEIGHT    = 5;
+
+	/**
+	 * Constant
+	 *
+	 * BUDGET_CHUNK - the number of nodes a search takes from a shared budget at once.
+	 */
+	private static final long BUDGET_CHUNK = 256;
+
+	/**
+	 * _maxNodes - the number of positions expanded before giving up.
+	 * _weight   - the weight of the heuristic, 1 being plain A*.
+	 */
+	private final long _maxNodes;
+	private final int  _weight;
+
+	/**
+	 * Creates a solver with the default limits.
+	 */
+	public FreecellSolver() {
+		this(DEFAULT_MAX_NODES, DEFAULT_WEIGHT);
+	}
+
+	/**
+	 * Creates a solver.
+	 * @param maxNodes - the number of positions expanded before giving up.
+	 * @param weight   - the weight of the heuristic, 1 being plain A*. Larger weights find
+	 *                   solutions faster but longer.
+	 * @throws IllegalArgumentException if maxNodes <= 0 or weight < 1.
+	 */
+	public FreecellSolver(long maxNodes, int weight) {
+		if(maxNodes <= 0 || weight < 1) {
+			throw new IllegalArgumentException("The node limit and the weight must be positive.");
+		}
+		_maxNodes = maxNodes;
+		_weight   = weight;
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game. The game is not modified.
+	 * @param game - the game to solve.
+	 * @return the result of the search. The moves of a solution can be applied to the game with
+	 *         {@link Game#applyMove(int)}.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public SolverResult solve(FreecellGame game) {
+		return solve(game, new AtomicBoolean(), noDeadline());
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game, giving up as soon as the search
+	 * is cancelled or the deadline is passed. The game is not modified.
+	 * @param game      - the game to solve.
+	 * @param cancelled - set by another thread to stop the search.
+	 * @param deadline  - the value of {@link System#nanoTime()} at which the search stops.
+	 * @return the result of the search.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	SolverResult solve(FreecellGame game, AtomicBoolean cancelled, long deadline) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+
+		long start = System.nanoTime();
+		GameState root = GameState.of(game);
+		TranspositionTable table = new HashTranspositionTable();
+		table.offer(FreecellRules.canonicalHash(game), 0);
+		SolverResult result = search(root, 0, table, _weight, new AtomicLong(_maxNodes), cancelled, deadline);
+		return new SolverResult(result.getStatus(), result.getMoves(), result.getNodes(), System.nanoTime() - start);
+	}
+
+	/**
+	 * @return a deadline for {@link System#nanoTime()} which is not reached for centuries, since
+	 *         deadlines are compared by difference.
+	 */
+	static long noDeadline() {
+		return System.nanoTime() + Long.MAX_VALUE;
+	}
+
+	/**
+	 * Runs a weighted A* search from a position which has already been recorded in the table.
+	 * Positions are only expanded by the search which reached them at the smallest depth, so
+	 * several searches can share one table and together cover every reachable position.
+	 * @param root      - the position to search from.
+	 * @param rootDepth - the number of moves made to reach the root.
+	 * @param table     - the table of reached positions, keyed by {@link FreecellRules#canonicalHash(Game)}.
+	 * @param weight    - the weight of the heuristic.
+	 * @param budget    - the number of positions which may still be expanded, shared by all searches.
+	 * @param cancelled - set to stop the search.
+	 * @param deadline  - the value of {@link System#nanoTime()} at which the search stops.
+	 * @return the result of the search, whose moves start from the root.
+	 */
+	static SolverResult search(GameState root, int rootDepth, TranspositionTable table, int weight,
+			AtomicLong budget, AtomicBoolean cancelled, long deadline) {
+		long start = System.nanoTime();
+		Game work = root.toGame();
+		int [] heights = new int[4];
+		if(FreecellRules.homeCount(work, heights) == Card.NUM_CARDS) {
+			return new SolverResult(SolverResult.Status.SOLVED, null, 0, System.nanoTime() - start);
+		}
+
+		ArrayList<GameState> states = new ArrayList<GameState>();
+		ArrayList<int []> steps = new ArrayList<int []>();
+		int [] parents = new int[1024];
+		int [] depths = new int[1024];
+		states.add(root);
+		steps.add(null);
+		parents[0] = -1;
+		depths[0] = rootDepth;
+		LongHeap open = new LongHeap();
+		open.push(0L);
+
+		MoveBuffer buffer = new MoveBuffer();
+		MoveBuffer auto = new MoveBuffer();
+		long nodes = 0;
+		long granted = 0;
+		try {
+			while(!open.isEmpty()) {
+				if(nodes == granted) {
+					long grant = acquire(budget);
+					if(grant == 0 || cancelled.get() || System.nanoTime() - deadline >= 0) {
+						return new SolverResult(SolverResult.Status.GAVE_UP, null, nodes, System.nanoTime() - start);
+					}
+					granted += grant;
+				}
+				int node = (int) open.pop();
+				states.get(node).restore(work);
+				if(table.depthOf(FreecellRules.canonicalHash(work)) < depths[node]) {
+					continue; // a shorter path to this position was found after it was queued
+				}
+				nodes++;
+
+				int depth = depths[node] + 1;
+				int n = work.generateMoves(buffer);
+				for(int i = 0; i < n; i++) {
+					int move = buffer.get(i);
+					if(FreecellRules.isUseless(work, move)) {
+						continue;
+					}
+					work.applyMove(move);
+					int autoCount = work.playSafeMoves(auto);
+					int home = FreecellRules.homeCount(work, heights);
+					if(home == Card.NUM_CARDS) {
+						int [] step = stepOf(move, auto, autoCount);
+						return new SolverResult(SolverResult.Status.SOLVED, solution(steps, parents, node, step),
+								nodes, System.nanoTime() - start);
+					}
+					if(table.offer(FreecellRules.canonicalHash(work), depth)) {
+						int child = states.size();
+						if(child == parents.length) {
+							parents = Arrays.copyOf(parents, child * 2);
+							depths = Arrays.copyOf(depths, child * 2);
+						}
+						states.add(GameState.of(work));
+						steps.add(stepOf(move, auto, autoCount));
+						parents[child] = node;
+						depths[child] = depth;
+						long f = depth - rootDepth + (long) weight * FreecellRules.estimate(work, heights, home);
+						open.push(f << 32 | child);
+					}
+					for(int j = autoCount - 1; j >= 0; j--) {
+						work.undoMove(auto.get(j));
+					}
+					work.undoMove(move);
+				}
+			}
+			return new SolverResult(SolverResult.Status.UNSOLVABLE, null, nodes, System.nanoTime() - start);
+		} finally {
+			budget.addAndGet(granted - nodes);
+		}
+	}
+
+	/**
+	 * Takes up to {@link #BUDGET_CHUNK} nodes from a shared budget, so that searches sharing a
+	 * budget rarely touch it.
+	 * @return the number of nodes taken, 0 if the budget is spent.
+	 */
+	private static long acquire(AtomicLong budget) {
+		while(true) {
+			long remaining = budget.get();
+			if(remaining <= 0) {
+				return 0;
+			}
+			long grant = Math.min(remaining, BUDGET_CHUNK);
+			if(budget.compareAndSet(remaining, remaining - grant)) {
+				return grant;
+			}
+		}
+	}
+
+	private static int [] stepOf(int move, MoveBuffer auto, int autoCount) {
+		int [] step = new int[autoCount + 1];
+		step[0] = move;
+		for(int j = 0; j < autoCount; j++) {
+			step[j + 1] = auto.get(j);
+		}
+		return step;
+	}
+
+	/**
+	 * Concatenates the steps from the root to a node followed by the final step.
+	 */
+	private static int [] solution(ArrayList<int []> steps, int [] parents, int node, int [] last) {
+		int length = last.length;
+		for(int i = node; parents[i] >= 0; i = parents[i]) {
+			length += steps.get(i).length;
+		}
+		int [] moves = new int[length];
+		int end = length - last.length;
+		System.arraycopy(last, 0, moves, end, last.length);
+		for(int i = node; parents[i] >= 0; i = parents[i]) {
+			int [] step = steps.get(i);
+			end -= step.length;
+			System.arraycopy(step, 0, moves, end, step.length);
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,123 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * A single-threaded {@link TranspositionTable} backed by two parallel primitive arrays with open
+ * addressing and linear probing, so recording a position never allocates except when the table
+ * grows. The table doubles once it is half full.
+ */
+public final class HashTranspositionTable implements TranspositionTable {
+	/**
+	 * Constant
+	 *
+	 * EMPTY - the key of an unused slot. A position whose hash is EMPTY is stored under ~EMPTY.
+	 */
+	private static final long EMPTY = 0L;
+
+	/**
+	 * _keys   - the hash of the position of each slot.
+	 * _depths - the smallest depth of the position of each slot.
+	 * _size   - the number of used slots.
+	 */
+	private long [] _keys;
+	private int []  _depths;
+	private int     _size;
+
+	/**
+	 * Creates an empty table.
+	 */
+	public HashTranspositionTable() {
+		this(1 << 16);
+	}
+
+	/**
+	 * Creates an empty table which holds the given number of positions before growing.
+	 * @param expected - the expected number of positions.
+	 * @throws IllegalArgumentException if expected <= 0.
+	 */
+	public HashTranspositionTable(int expected) {
+		if(expected <= 0) {
+			throw new IllegalArgumentException("The expected size must be positive.");
+		}
+		int capacity = Integer.highestOneBit(Math.max(expected, 8) - 1) << 2;
+		_keys   = new long[capacity];
+		_depths = new int[capacity];
+	}
+
+	@Override
+	public boolean offer(long hash, int depth) {
+		long key = hash == EMPTY ? ~EMPTY : hash;
+		int mask = _keys.length - 1;
+		int slot = spread(key) & mask;
+		while(_keys[slot] != EMPTY) {
+			if(_keys[slot] == key) {
+				if(depth < _depths[slot]) {
+					_depths[slot] = depth;
+					return true;
+				}
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		_keys[slot] = key;
+		_depths[slot] = depth;
+		if(++_size * 2 > _keys.length) {
+			grow();
+		}
+		return true;
+	}
+
+	@Override
+	public int depthOf(long hash) {
+		long key = hash == EMPTY ? ~EMPTY : hash;
+		int mask = _keys.length - 1;
+		int slot = spread(key) & mask;
+		while(_keys[slot] != EMPTY) {
+			if(_keys[slot] == key) {
+				return _depths[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return ABSENT;
+	}
+
+	@Override
+	public long size() {
+		return _size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(_keys, EMPTY);
+		_size = 0;
+	}
+
+	private void grow() {
+		long [] keys = _keys;
+		int [] depths = _depths;
+		_keys = new long[keys.length * 2];
+		_depths = new int[keys.length * 2];
+		int mask = _keys.length - 1;
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != EMPTY) {
+				int slot = spread(keys[i]) & mask;
+				while(_keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				_keys[slot] = keys[i];
+				_depths[slot] = depths[i];
+			}
+		}
+	}
+
+	/**
+	 * The keys are either {@link FreecellRules#canonicalHash(model.Game)} values, sums of SplitMix64
+	 * outputs, or {@link model.Game#positionHash()} values, XORs of random Zobrist keys. The low bits
+	 * of a sum or XOR of uniform values are uniform too, so folding the high half into the low half
+	 * is enough.
+	 */
+	private static int spread(long key) {
+		return (int) (key ^ (key >>> 32));
+	}
+}
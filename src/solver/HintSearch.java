@@ -0,0 +1,105 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import model.Piles;
+
+/**
+ * Suggests a move within a time budget, improving the suggestion for as long as the budget lasts.
+ * <p>
+ * The first suggestion is picked at once: a move to a Homecell pile if there is one, otherwise the
+ * first move which does not lead to an equivalent position. Then the solver of the game is run with
+ * a node limit which doubles every time it gives up, and the first move of the best line found so
+ * far replaces the suggestion. The search stops as soon as a solver gives a definite answer, the
+ * budget is spent or the search is cancelled, so the longer it is allowed to run the better the hint.
+ * A run of a solver is stopped within a few hundred positions once the budget is spent or the
+ * search is cancelled.
+ */
+public final class HintSearch {
+	/**
+	 * Constants
+	 *
+	 * NO_MOVE      - the suggestion when no move is legal.
+	 * FIRST_BUDGET - the node limit of the first run of a solver.
+	 */
+	public static final int   NO_MOVE      = -1;
+	private static final long FIRST_BUDGET = 1000;
+
+	private HintSearch() {}
+
+	/**
+	 * Searches for the best move from a position.
+	 * @param position  - the position.
+	 * @param nanos     - the time budget, in nanoseconds.
+	 * @param cancelled - set by another thread to stop the search early.
+	 * @return the best move found, which can be applied with {@link Game#applyMove(int)}, or
+	 *         {@link #NO_MOVE} if there is no legal move.
+	 * @throws IllegalArgumentException if position or cancelled is {@code null}, or nanos <= 0.
+	 */
+	public static int bestMove(GameState position, long nanos, AtomicBoolean cancelled) {
+		if(position == null || cancelled == null) {
+			throw new IllegalArgumentException("Position and cancelled can not be null.");
+		}
+		if(nanos <= 0) {
+			throw new IllegalArgumentException("The time budget must be positive.");
+		}
+
+		long deadline = System.nanoTime() + nanos;
+		Game game = position.toGame();
+		int best = quickMove(game);
+		if(best == NO_MOVE) {
+			return NO_MOVE;
+		}
+		for(long budget = FIRST_BUDGET; System.nanoTime() - deadline < 0 && !cancelled.get(); budget *= 2) {
+			SolverResult result = solve(game, budget, cancelled, deadline);
+			if(result.length() > 0) {
+				best = result.getMoves()[0];
+			}
+			if(result.getStatus() != SolverResult.Status.GAVE_UP) {
+				break;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Only Freecell moves are checked for usefulness, since {@link FreecellRules} assumes its rules.
+	 * @return a move to a Homecell pile, otherwise the first useful move, {@link #NO_MOVE} if none.
+	 */
+	private static int quickMove(Game game) {
+		MoveBuffer buffer = new MoveBuffer();
+		int n = game.generateMoves(buffer);
+		boolean freecell = game.getGameId() == FreecellGame.GAME_ID;
+		int first = NO_MOVE;
+		for(int i = 0; i < n; i++) {
+			int move = buffer.get(i);
+			if(!Move.isDeal(move) && Move.dstPile(move) == Piles.HOMECELL) {
+				return move;
+			}
+			if(first == NO_MOVE && (!freecell || !FreecellRules.isUseless(game, move))) {
+				first = move;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Runs the solver of the game with a node limit, until it is cancelled or the deadline is
+	 * passed. The game is not modified.
+	 */
+	private static SolverResult solve(Game game, long budget, AtomicBoolean cancelled, long deadline) {
+		if(game instanceof FreecellGame) {
+			return new FreecellSolver(budget, FreecellSolver.DEFAULT_WEIGHT).solve((FreecellGame) game, cancelled, deadline);
+		} else if(game instanceof BakersDozenGame) {
+			return new BakersDozenSolver(budget).solve((BakersDozenGame) game, cancelled, deadline);
+		}
+		return new AcesUpSolver(budget).solve((AcesUpGame) game, cancelled, deadline);
+	}
+}
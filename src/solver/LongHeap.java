@@ -0,0 +1,64 @@
+package solver;
+
+/**
+ * A binary min-heap of primitive {@code long}s. Searches pack a priority in the high bits and a
+ * node index in the low bits of each element, so the open list never boxes anything.
+ */
+final class LongHeap {
+	/**
+	 * _elements - the heap, element 0 being the smallest.
+	 * _size     - the number of elements.
+	 */
+	private long [] _elements;
+	private int     _size;
+
+	LongHeap() {
+		_elements = new long[1024];
+	}
+
+	void push(long element) {
+		if(_size == _elements.length) {
+			long [] elements = new long[_elements.length * 2];
+			System.arraycopy(_elements, 0, elements, 0, _size);
+			_elements = elements;
+		}
+		int i = _size++;
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(_elements[parent] <= element) {
+				break;
+			}
+			_elements[i] = _elements[parent];
+			i = parent;
+		}
+		_elements[i] = element;
+	}
+
+	long pop() {
+		long result = _elements[0];
+		long last = _elements[--_size];
+		int i = 0;
+		int half = _size >>> 1;
+		while(i < half) {
+			int child = 2 * i + 1;
+			if(child + 1 < _size && _elements[child + 1] < _elements[child]) {
+				child++;
+			}
+			if(last <= _elements[child]) {
+				break;
+			}
+			_elements[i] = _elements[child];
+			i = child;
+		}
+		_elements[i] = last;
+		return result;
+	}
+
+	boolean isEmpty() {
+		return _size == 0;
+	}
+
+	int size() {
+		return _size;
+	}
+}
@@ -0,0 +1,87 @@
+package solver;
+
+/**
+ * A map from {@code long} keys to {@code long} values with open addressing and linear probing,
+ * for memoizing searches without boxing. Keys are position hashes, so they are already uniformly
+ * distributed.
+ */
+final class LongMap {
+	/**
+	 * Constant
+	 *
+	 * EMPTY - the key of an unused slot. A key equal to EMPTY is stored under ~EMPTY.
+	 */
+	private static final long EMPTY = 0L;
+
+	/**
+	 * _keys   - the key of each slot.
+	 * _values - the value of each slot.
+	 * _size   - the number of used slots.
+	 */
+	private long [] _keys;
+	private long [] _values;
+	private int     _size;
+
+	LongMap() {
+		_keys   = new long[1 << 12];
+		_values = new long[1 << 12];
+	}
+
+	/**
+	 * @return the value of the key, {@code missing} if there is none.
+	 */
+	long get(long key, long missing) {
+		key = key == EMPTY ? ~EMPTY : key;
+		int mask = _keys.length - 1;
+		for(int slot = spread(key) & mask; _keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(_keys[slot] == key) {
+				return _values[slot];
+			}
+		}
+		return missing;
+	}
+
+	void put(long key, long value) {
+		key = key == EMPTY ? ~EMPTY : key;
+		int mask = _keys.length - 1;
+		int slot = spread(key) & mask;
+		while(_keys[slot] != EMPTY && _keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		if(_keys[slot] == EMPTY) {
+			_keys[slot] = key;
+			if(++_size * 2 > _keys.length) {
+				_values[slot] = value;
+				grow();
+				return;
+			}
+		}
+		_values[slot] = value;
+	}
+
+	int size() {
+		return _size;
+	}
+
+	private void grow() {
+		long [] keys = _keys;
+		long [] values = _values;
+		_keys   = new long[keys.length * 2];
+		_values = new long[keys.length * 2];
+		int mask = _keys.length - 1;
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != EMPTY) {
+				int slot = spread(keys[i]) & mask;
+				while(_keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				_keys[slot] = keys[i];
+				_values[slot] = values[i];
+			}
+		}
+	}
+
+	private static int spread(long key) {
+		return (int) (key ^ (key >>> 32));
+	}
+}
@@ -0,0 +1,207 @@
+package solver;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe {@link TranspositionTable} of fixed size, stored outside the Java heap in direct
+ * {@link ByteBuffer}s. Its memory is allocated once, so a search can visit any number of positions
+ * within a fixed budget and the garbage collector never has to scan or move the table.
+ * <p>
+ * The table is divided into buckets of {@link #BUCKET_SLOTS} slots, one cache line each, and a
+ * position can only be stored in the bucket selected by its hash. When that bucket is full, the
+ * clock algorithm picks the position to forget: every slot has a reference bit, set whenever its
+ * position is looked up, and a full bucket is swept clearing reference bits until a slot without
+ * one is found. Positions a search keeps coming back to are therefore kept.
+ * <p>
+ * Slots are updated without locks. Each slot holds the data of its position, and its hash xored
+ * with that data: a slot torn by two threads writing it at the same time no longer matches either
+ * hash and is simply treated as empty. A position which is forgotten, or whose slot is torn, can
+ * be offered again and expanded twice, which costs time but never correctness, since a search
+ * only uses the table to avoid repeating work. For the same reason two threads offering the same
+ * new position at the same time may both be told it is new.
+ */
+public final class OffHeapTranspositionTable implements TranspositionTable {
+	/**
+	 * Constants
+	 *
+	 * DEFAULT_MAX_BYTES - the default memory budget of a table.
+	 * BUCKET_SLOTS      - the number of slots of a bucket.
+	 * SLOT_BYTES        - the size of a slot: the hash xored with the data, then the data.
+	 * BUFFER_BYTES      - the size of the largest buffer, since a buffer is indexed by an {@code int}.
+	 * USED              - the bit of the data of every used slot, so that an empty slot is all zeros.
+	 * REFERENCED        - the bit of the data of a slot whose position was looked up since the last sweep.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 64L << 20;
+	public static final int  BUCKET_SLOTS      = 4;
+	private static final int SLOT_BYTES        = 16;
+	private static final int BUFFER_BYTES      = 1 << 30;
+	private static final long USED             = 1L << 32;
+	private static final long REFERENCED       = 1L << 33;
+
+	/**
+	 * _buffers     - the slots, split into buffers of at most {@link #BUFFER_BYTES} bytes.
+	 * _bufferShift - log2 of the number of buckets of one buffer.
+	 * _bucketMask  - the number of buckets minus 1.
+	 * _size        - the number of used slots.
+	 */
+	private final ByteBuffer [] _buffers;
+	private final int           _bufferShift;
+	private final long          _bucketMask;
+	private final LongAdder     _size;
+
+	/**
+	 * Creates an empty table of the default size.
+	 */
+	public OffHeapTranspositionTable() {
+		this(DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Creates an empty table using as much memory as possible without exceeding a budget. The
+	 * number of slots is rounded down to a power of 2.
+	 * @param maxBytes - the memory budget, in bytes.
+	 * @throws IllegalArgumentException if maxBytes is smaller than one bucket.
+	 */
+	public OffHeapTranspositionTable(long maxBytes) {
+		long bucketBytes = (long) BUCKET_SLOTS * SLOT_BYTES;
+		if(maxBytes < bucketBytes) {
+			throw new IllegalArgumentException("The budget must hold at least one bucket.");
+		}
+		long bytes = Long.highestOneBit(maxBytes);
+		int bufferBytes = (int) Math.min(bytes, BUFFER_BYTES);
+		_buffers = new ByteBuffer[(int) (bytes / bufferBytes)];
+		for(int i = 0; i < _buffers.length; i++) {
+			_buffers[i] = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.nativeOrder());
+		}
+		_bufferShift = Long.numberOfTrailingZeros(bufferBytes / bucketBytes);
+		_bucketMask  = bytes / bucketBytes - 1;
+		_size        = new LongAdder();
+	}
+
+	@Override
+	public boolean offer(long hash, int depth) {
+		long bucket = bucketOf(hash);
+		ByteBuffer buffer = _buffers[(int) (bucket >>> _bufferShift)];
+		int base = offsetOf(bucket);
+		int free = -1;
+		for(int i = 0; i < BUCKET_SLOTS; i++) {
+			int offset = base + i * SLOT_BYTES;
+			long data = buffer.getLong(offset + 8);
+			long check = buffer.getLong(offset);
+			if(data == 0 && check == 0) {
+				if(free < 0) {
+					free = offset;
+				}
+			} else if((check ^ data) == hash) {
+				if(depth < (int) data) {
+					write(buffer, offset, hash, data & ~0xFFFFFFFFL | REFERENCED | (depth & 0xFFFFFFFFL));
+					return true;
+				}
+				reference(buffer, offset, hash, data);
+				return false;
+			}
+		}
+		if(free < 0) {
+			free = evict(buffer, base, (int) (hash >>> 32));
+		} else {
+			_size.increment();
+		}
+		write(buffer, free, hash, USED | (depth & 0xFFFFFFFFL));
+		return true;
+	}
+
+	@Override
+	public int depthOf(long hash) {
+		long bucket = bucketOf(hash);
+		ByteBuffer buffer = _buffers[(int) (bucket >>> _bufferShift)];
+		int base = offsetOf(bucket);
+		for(int i = 0; i < BUCKET_SLOTS; i++) {
+			int offset = base + i * SLOT_BYTES;
+			long data = buffer.getLong(offset + 8);
+			long check = buffer.getLong(offset);
+			if(data != 0 && (check ^ data) == hash) {
+				reference(buffer, offset, hash, data);
+				return (int) data;
+			}
+		}
+		return ABSENT;
+	}
+
+	/**
+	 * Two threads may claim the same empty slot, so the size is approximate while other threads
+	 * are offering positions.
+	 */
+	@Override
+	public long size() {
+		return _size.sum();
+	}
+
+	/**
+	 * Must not be called while other threads use the table.
+	 */
+	@Override
+	public void clear() {
+		for(ByteBuffer buffer : _buffers) {
+			for(int offset = 0; offset < buffer.capacity(); offset += 8) {
+				buffer.putLong(offset, 0L);
+			}
+		}
+		_size.reset();
+	}
+
+	/**
+	 * @return the number of positions this table can hold.
+	 */
+	public long capacity() {
+		return (_bucketMask + 1) * BUCKET_SLOTS;
+	}
+
+	/**
+	 * Sweeps a full bucket and clears reference bits until a slot without one is found. Buckets
+	 * have no hand of their own, so each sweep starts from a slot picked by the new position.
+	 * @return the offset of the slot to reuse.
+	 */
+	private int evict(ByteBuffer buffer, int base, int start) {
+		for(int sweep = 0; sweep < 2 * BUCKET_SLOTS; sweep++) {
+			int offset = base + ((start + sweep) & (BUCKET_SLOTS - 1)) * SLOT_BYTES;
+			long data = buffer.getLong(offset + 8);
+			if((data & REFERENCED) == 0) {
+				return offset;
+			}
+			long hash = buffer.getLong(offset) ^ data;
+			write(buffer, offset, hash, data & ~REFERENCED);
+		}
+		return base;
+	}
+
+	/**
+	 * Sets the reference bit of a slot unless it is already set, so that lookups of hot positions
+	 * do not keep writing to memory shared with other threads.
+	 */
+	private static void reference(ByteBuffer buffer, int offset, long hash, long data) {
+		if((data & REFERENCED) == 0) {
+			write(buffer, offset, hash, data | REFERENCED);
+		}
+	}
+
+	private static void write(ByteBuffer buffer, int offset, long hash, long data) {
+		buffer.putLong(offset + 8, data);
+		buffer.putLong(offset, hash ^ data);
+	}
+
+	/**
+	 * The keys are either {@link FreecellRules#canonicalHash(model.Game)} values, sums of SplitMix64
+	 * outputs, or {@link model.Game#positionHash()} values, XORs of random Zobrist keys. The low bits
+	 * of a sum or XOR of uniform values are uniform too, so folding the high half into the low half
+	 * is enough.
+	 */
+	private long bucketOf(long hash) {
+		return (hash ^ (hash >>> 32)) & _bucketMask;
+	}
+
+	private int offsetOf(long bucket) {
+		return (int) ((bucket & ((1L << _bufferShift) - 1)) * BUCKET_SLOTS * SLOT_BYTES);
+	}
+}
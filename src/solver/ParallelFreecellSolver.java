@@ -0,0 +1,239 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import abstraction.Card;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.MoveBuffer;
+
+/**
+ * Solves Freecell deals on a {@link ForkJoinPool}. The first levels of the game tree are expanded
+ * into one task per position, and every task below the split depth runs the weighted A* search of
+ * {@link FreecellSolver} on its subtree. Idle workers steal pending subtrees from busy ones.
+ * <p>
+ * All tasks share one thread-safe {@link TranspositionTable}, so a position is only expanded by the
+ * task which reached it in the fewest moves, and one node budget. As soon as one task finds a
+ * solution every other task is cancelled.
+ */
+public final class ParallelFreecellSolver {
+	/**
+	 * Constants
+	 *
+	 * DEFAULT_MAX_NODES   - the default number of positions expanded by all tasks before giving up.
+	 * DEFAULT_SPLIT_DEPTH - the default number of levels of the game tree expanded into tasks.
+	 */
+	public static final long DEFAULT_MAX_NODES   = 1000000;
+	public static final int  DEFAULT_SPLIT_DEPTH = 2;
+
+	/**
+	 * _pool       - the pool running the tasks.
+	 * _maxNodes   - the number of positions expanded by all tasks before giving up.
+	 * _weight     - the weight of the heuristic.
+	 * _splitDepth - the number of levels of the game tree expanded into tasks.
+	 */
+	private final ForkJoinPool _pool;
+	private final long         _maxNodes;
+	private final int          _weight;
+	private final int          _splitDepth;
+
+	/**
+	 * Creates a solver running on the common pool with the default limits.
+	 */
+	public ParallelFreecellSolver() {
+		this(ForkJoinPool.commonPool(), DEFAULT_MAX_NODES, FreecellSolver.DEFAULT_WEIGHT, DEFAULT_SPLIT_DEPTH);
+	}
+
+	/**
+	 * Creates a solver.
+	 * @param pool       - the pool running the tasks.
+	 * @param maxNodes   - the number of positions expanded by all tasks before giving up.
+	 * @param weight     - the weight of the heuristic, 1 being plain A*.
+	 * @param splitDepth - the number of levels of the game tree expanded into tasks.
+	 * @throws IllegalArgumentException if pool is {@code null}, maxNodes <= 0, weight < 1 or splitDepth < 0.
+	 */
+	public ParallelFreecellSolver(ForkJoinPool pool, long maxNodes, int weight, int splitDepth) {
+		if(pool == null) {
+			throw new IllegalArgumentException("Pool can not be null.");
+		}
+		if(maxNodes <= 0 || weight < 1 || splitDepth < 0) {
+			throw new IllegalArgumentException("The node limit and the weight must be positive.");
+		}
+		_pool       = pool;
+		_maxNodes   = maxNodes;
+		_weight     = weight;
+		_splitDepth = splitDepth;
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game. The game is not modified.
+	 * @param game - the game to solve.
+	 * @return the result of the search. The moves of a solution can be applied to the game with
+	 *         {@link Game#applyMove(int)}.
+	 * @throws IllegalArgumentException if game is {@code null}.
+	 */
+	public SolverResult solve(FreecellGame game) {
+		return solve(game, new ConcurrentTranspositionTable());
+	}
+
+	/**
+	 * Searches for a solution of the current position of a game, recording reached positions in
+	 * the given table, for instance an {@link OffHeapTranspositionTable} to bound the memory of a
+	 * long search. The table is cleared first. The game is not modified.
+	 * @param game  - the game to solve.
+	 * @param table - a thread-safe table.
+	 * @return the result of the search. The moves of a solution can be applied to the game with
+	 *         {@link Game#applyMove(int)}.
+	 * @throws IllegalArgumentException if game or table is {@code null}.
+	 */
+	public SolverResult solve(FreecellGame game, TranspositionTable table) {
+		if(game == null) {
+			throw new IllegalArgumentException("Game can not be null.");
+		}
+		if(table == null) {
+			throw new IllegalArgumentException("Table can not be null.");
+		}
+
+		long start = System.nanoTime();
+		table.clear();
+		table.offer(FreecellRules.canonicalHash(game), 0);
+		Search search = new Search(table, _weight, _splitDepth, new AtomicLong(_maxNodes));
+		SolverResult result = _pool.invoke(new SearchTask(search, GameState.of(game), 0, null));
+		return new SolverResult(result.getStatus(), result.getMoves(), result.getNodes(), System.nanoTime() - start);
+	}
+
+	/**
+	 * The state shared by all tasks of one search.
+	 */
+	private static final class Search {
+		/**
+		 * table      - the positions reached by every task.
+		 * weight     - the weight of the heuristic.
+		 * splitDepth - the number of levels of the game tree expanded into tasks.
+		 * budget     - the number of positions which may still be expanded.
+		 * cancelled  - set once a task finds a solution.
+		 */
+		final TranspositionTable table;
+		final int                weight;
+		final int                splitDepth;
+		final AtomicLong         budget;
+		final AtomicBoolean      cancelled;
+
+		Search(TranspositionTable table, int weight, int splitDepth, AtomicLong budget) {
+			this.table      = table;
+			this.weight     = weight;
+			this.splitDepth = splitDepth;
+			this.budget     = budget;
+			this.cancelled  = new AtomicBoolean();
+		}
+	}
+
+	/**
+	 * Searches the subtree of one position. Tasks above the split depth fork one task per child,
+	 * most promising first, and combine their results.
+	 */
+	@SuppressWarnings("serial")
+	private static final class SearchTask extends RecursiveTask<SolverResult> implements Comparable<SearchTask> {
+		/**
+		 * _search   - the shared state of the search.
+		 * _state    - the position of this task.
+		 * _depth    - the number of moves made to reach the position.
+		 * _step     - the moves which lead from the parent position to this one.
+		 * _estimate - the estimated number of moves left, used to order siblings.
+		 */
+		private final Search    _search;
+		private final GameState _state;
+		private final int       _depth;
+		private final int []    _step;
+		private int             _estimate;
+
+		SearchTask(Search search, GameState state, int depth, int [] step) {
+			_search = search;
+			_state  = state;
+			_depth  = depth;
+			_step   = step;
+		}
+
+		@Override
+		protected SolverResult compute() {
+			if(_search.cancelled.get()) {
+				return new SolverResult(SolverResult.Status.GAVE_UP, null, 0, 0);
+			}
+			if(_depth >= _search.splitDepth) {
+				SolverResult result = FreecellSolver.search(_state, _depth, _search.table, _search.weight,
+						_search.budget, _search.cancelled, FreecellSolver.noDeadline());
+				if(result.getStatus() == SolverResult.Status.SOLVED) {
+					_search.cancelled.set(true);
+				}
+				return result;
+			}
+
+			Game work = _state.toGame();
+			int [] heights = new int[4];
+			MoveBuffer auto = new MoveBuffer();
+			MoveBuffer buffer = new MoveBuffer();
+			ArrayList<SearchTask> children = new ArrayList<SearchTask>();
+			int n = work.generateMoves(buffer);
+			for(int i = 0; i < n; i++) {
+				int move = buffer.get(i);
+				if(FreecellRules.isUseless(work, move)) {
+					continue;
+				}
+				work.applyMove(move);
+				int autoCount = work.playSafeMoves(auto);
+				int home = FreecellRules.homeCount(work, heights);
+				int [] step = new int[autoCount + 1];
+				step[0] = move;
+				for(int j = 0; j < autoCount; j++) {
+					step[j + 1] = auto.get(j);
+				}
+				if(home == Card.NUM_CARDS) {
+					_search.cancelled.set(true);
+					return new SolverResult(SolverResult.Status.SOLVED, step, 1, 0);
+				}
+				if(_search.table.offer(FreecellRules.canonicalHash(work), _depth + 1)) {
+					SearchTask child = new SearchTask(_search, GameState.of(work), _depth + 1, step);
+					child._estimate = FreecellRules.estimate(work, heights, home);
+					children.add(child);
+				}
+				for(int j = autoCount - 1; j >= 0; j--) {
+					work.undoMove(auto.get(j));
+				}
+				work.undoMove(move);
+			}
+			Collections.sort(children);
+			invokeAll(children);
+
+			long nodes = 1;
+			int [] solution = null;
+			boolean gaveUp = false;
+			for(SearchTask child : children) {
+				SolverResult result = child.join();
+				nodes += result.getNodes();
+				if(result.getStatus() == SolverResult.Status.SOLVED && solution == null) {
+					int [] moves = result.getMoves();
+					solution = new int[child._step.length + moves.length];
+					System.arraycopy(child._step, 0, solution, 0, child._step.length);
+					System.arraycopy(moves, 0, solution, child._step.length, moves.length);
+				}
+				gaveUp |= result.getStatus() == SolverResult.Status.GAVE_UP;
+			}
+			if(solution != null) {
+				return new SolverResult(SolverResult.Status.SOLVED, solution, nodes, 0);
+			}
+			return new SolverResult(gaveUp ? SolverResult.Status.GAVE_UP : SolverResult.Status.UNSOLVABLE,
+					null, nodes, 0);
+		}
+
+		@Override
+		public int compareTo(SearchTask other) {
+			return Integer.compare(_estimate, other._estimate);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package solver;
+
+import model.Move;
+
+/**
+ * The outcome of a search: whether the deal was solved, the moves of the solution and how much
+ * work the search did.
+ */
+public final class SolverResult {
+	/**
+	 * How a search ended.
+	 */
+	public enum Status {
+		/**
+		 * SOLVED     - a solution was found.
+		 * UNSOLVABLE - every reachable position was searched without finding a solution.
+		 * GAVE_UP    - the search ran out of nodes or time, or was cancelled, before deciding.
+		 */
+		SOLVED, UNSOLVABLE, GAVE_UP
+	}
+
+	/**
+	 * _status - how the search ended.
+	 * _moves  - the encoded moves of the solution, empty unless the deal was solved.
+	 * _score  - the number of cards the moves play to the Homecell piles, for games which are
+	 *           scored rather than only won or lost.
+	 * _nodes  - the number of positions expanded.
+	 * _nanos  - the duration of the search in nanoseconds.
+	 */
+	private final Status _status;
+	private final int [] _moves;
+	private final int    _score;
+	private final long   _nodes;
+	private final long   _nanos;
+
+	/**
+	 * Creates a result.
+	 * @param status - how the search ended.
+	 * @param moves  - the encoded moves of the solution, {@code null} if there is none.
+	 * @param nodes  - the number of positions expanded.
+	 * @param nanos  - the duration of the search in nanoseconds.
+	 * @throws IllegalArgumentException if status is {@code null}.
+	 */
+	public SolverResult(Status status, int [] moves, long nodes, long nanos) {
+		this(status, moves, 0, nodes, nanos);
+	}
+
+	/**
+	 * Creates the result of a search which scores positions.
+	 * @param status - how the search ended.
+	 * @param moves  - the encoded moves of the best line found, {@code null} if there is none.
+	 * @param score  - the number of cards the moves play to the Homecell piles.
+	 * @param nodes  - the number of positions expanded.
+	 * @param nanos  - the duration of the search in nanoseconds.
+	 * @throws IllegalArgumentException if status is {@code null}.
+	 */
+	public SolverResult(Status status, int [] moves, int score, long nodes, long nanos) {
+		if(status == null) {
+			throw new IllegalArgumentException("Status can not be null.");
+		}
+		_status = status;
+		_moves  = moves == null ? new int[0] : moves.clone();
+		_score  = score;
+		_nodes  = nodes;
+		_nanos  = nanos;
+	}
+
+	/**
+	 * @return how the search ended.
+	 */
+	public Status getStatus() {
+		return _status;
+	}
+
+	/**
+	 * @return the encoded moves (see {@link Move}) of the solution, empty unless the deal was solved
+	 *         or the search scores positions, in which case they are the best line found.
+	 */
+	public int [] getMoves() {
+		return _moves.clone();
+	}
+
+	/**
+	 * @return the number of moves of the solution.
+	 */
+	public int length() {
+		return _moves.length;
+	}
+
+	/**
+	 * @return the number of cards the moves play to the Homecell piles, 0 unless the search scores positions.
+	 */
+	public int getScore() {
+		return _score;
+	}
+
+	/**
+	 * @return the number of positions expanded.
+	 */
+	public long getNodes() {
+		return _nodes;
+	}
+
+	/**
+	 * @return the duration of the search in nanoseconds.
+	 */
+	public long getNanos() {
+		return _nanos;
+	}
+
+	@Override
+	public String toString() {
+		return _status + " moves=" + _moves.length + " score=" + _score + " nodes=" + _nodes + " ms=" + _nanos / 1000000;
+	}
+}
@@ -0,0 +1,40 @@
+package solver;
+
+/**
+ * A transposition table remembers the positions a search has already reached, keyed by their
+ * 64-bit position hash, together with the smallest depth at which each was reached. A search
+ * only expands a position again when it finds a shorter path to it.
+ */
+public interface TranspositionTable {
+	/**
+	 * Constant
+	 *
+	 * ABSENT - the depth reported for a position which is not in the table.
+	 */
+	int ABSENT = Integer.MAX_VALUE;
+
+	/**
+	 * Records that a position was reached at a depth, unless it was already reached at the same
+	 * or a smaller depth.
+	 * @param hash  - the hash of the position.
+	 * @param depth - the number of moves made to reach the position.
+	 * @return whether the position is new or was reached at a smaller depth than before.
+	 */
+	boolean offer(long hash, int depth);
+
+	/**
+	 * @param hash - the hash of the position.
+	 * @return the smallest depth at which the position was reached, {@link #ABSENT} if it never was.
+	 */
+	int depthOf(long hash);
+
+	/**
+	 * @return the number of positions in this table.
+	 */
+	long size();
+
+	/**
+	 * Removes every position from this table.
+	 */
+	void clear();
+}
@@ -0,0 +1,79 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.Deck;
+import model.GameState;
+import model.Piles;
+import solver.AcesUpSolver;
+import solver.SolverResult;
+
+public class AcesUpSolverTest {
+	@Test
+	public void testBestLineReplays() {
+		for(long seed : new long[] { 8, 12, 13, 33 }) {
+			AcesUpGame game = new AcesUpGame(new Deck(seed));
+			GameState before = GameState.of(game);
+			SolverResult result = new AcesUpSolver().solve(game);
+			assertNotEquals("Deal " + seed + " can be searched within the limit", SolverResult.Status.GAVE_UP,
+					result.getStatus());
+			assertEquals("The game must not be modified", before, GameState.of(game));
+			for(int move : result.getMoves()) {
+				game.applyMove(move);
+			}
+			assertEquals("The moves must discard as many cards as the score", result.getScore(),
+					game.size(Piles.HOMECELL, 0));
+			assertEquals("Only won deals are solved", result.getScore() == AcesUpSolver.MAX_DISCARDS,
+					result.getStatus() == SolverResult.Status.SOLVED);
+		}
+	}
+
+	@Test
+	public void testExactScore() {
+		AcesUpGame game = new AcesUpGame(new Deck(12));
+		SolverResult exact = new AcesUpSolver().solve(game);
+		assertEquals("Deal 12 is lost", SolverResult.Status.UNSOLVABLE, exact.getStatus());
+		assertEquals("At most 28 cards of deal 12 can be discarded", 28, exact.getScore());
+
+		SolverResult partial = new AcesUpSolver(1000).solve(game);
+		assertEquals("A small limit must be reached", SolverResult.Status.GAVE_UP, partial.getStatus());
+		assertTrue("No line can beat the best one", partial.getScore() <= exact.getScore());
+		for(int move : partial.getMoves()) {
+			game.applyMove(move);
+		}
+		assertEquals("The best line found must discard as many cards as the score", partial.getScore(),
+				game.size(Piles.HOMECELL, 0));
+	}
+
+	@Test
+	public void testPositionInProgress() {
+		AcesUpGame game = new AcesUpGame(new Deck(13));
+		SolverResult first = new AcesUpSolver().solve(game);
+		for(int i = 0; i < 10; i++) {
+			game.applyMove(first.getMoves()[i]);
+		}
+		SolverResult rest = new AcesUpSolver().solve(game);
+		assertEquals("Following the best line keeps the deal won", SolverResult.Status.SOLVED, rest.getStatus());
+		assertEquals("Only the cards left in play can still be discarded",
+				AcesUpSolver.MAX_DISCARDS - game.size(Piles.HOMECELL, 0), rest.getScore());
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		try {
+			new AcesUpSolver().solve(null);
+			fail("Solving a null game should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new AcesUpSolver(0);
+			fail("A solver without positions to search should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.BakersDozenGame;
+import model.Deck;
+import model.Game;
+import model.GameState;
+import model.Piles;
+import solver.BakersDozenSolver;
+import solver.SolverResult;
+
+public class BakersDozenSolverTest {
+	// ordinals of some clubs
+	private static final int TWO = 1, THREE = 2, FOUR = 3, KING = 12;
+
+	@Test
+	public void testSolutionReplays() {
+		for(long seed : new long[] { 3, 7, 10 }) {
+			BakersDozenGame game = new BakersDozenGame(new Deck(seed));
+			GameState before = GameState.of(game);
+			SolverResult result = new BakersDozenSolver().solve(game);
+			assertEquals("Deal " + seed + " is solvable", SolverResult.Status.SOLVED, result.getStatus());
+			assertEquals("The game must not be modified", before, GameState.of(game));
+			for(int move : result.getMoves()) {
+				game.applyMove(move);
+			}
+			for(int i = 0; i < 4; i++) {
+				assertEquals("Every card must end on a Homecell pile", 13, game.size(Piles.HOMECELL, i));
+			}
+		}
+	}
+
+	@Test
+	public void testHopeless() {
+		// the King of Clubs can never move off the Two of Clubs
+		Game game = position(new int [][] { { TWO, KING }, { THREE, FOUR } }, 1);
+		assertTrue("A King above a lower card of its suit is stuck", BakersDozenSolver.isHopeless(game));
+		assertEquals("A hopeless position is unsolvable", SolverResult.Status.UNSOLVABLE,
+				new BakersDozenSolver().solve((BakersDozenGame) game).getStatus());
+
+		game = position(new int [][] { { KING, TWO }, { THREE, FOUR } }, 1);
+		assertFalse("A King below lower cards is not in the way", BakersDozenSolver.isHopeless(game));
+	}
+
+	@Test
+	public void testSmallPositions() {
+		// the Three of Clubs waits for the Four, which is buried under the rest of the suit
+		int [] rest = new int[10];
+		for(int i = 0; i < rest.length; i++) {
+			rest[i] = FOUR + i;
+		}
+		Game game = position(new int [][] { { TWO, THREE }, rest }, 1);
+		SolverResult result = new BakersDozenSolver().solve((BakersDozenGame) game);
+		assertEquals("No card can ever move", SolverResult.Status.UNSOLVABLE, result.getStatus());
+
+		for(int i = 0; i < rest.length; i++) {
+			rest[i] = KING - i;
+		}
+		game = position(new int [][] { { THREE, TWO }, rest }, 1);
+		result = new BakersDozenSolver().solve((BakersDozenGame) game);
+		assertEquals("Every club can be played home in order", SolverResult.Status.SOLVED, result.getStatus());
+		assertEquals("Each of the 12 clubs moves once", 12, result.length());
+		for(int move : result.getMoves()) {
+			game.applyMove(move);
+		}
+		assertEquals("Every club must end on a Homecell pile", 13, game.size(Piles.HOMECELL, 0));
+	}
+
+	@Test
+	public void testBadInputs() {
+		try {
+			new BakersDozenSolver(0);
+			fail("The node limit must be positive");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			BakersDozenSolver.isHopeless(new model.FreecellGame(1));
+			fail("isHopeless() only accepts Baker's Dozen games");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Builds a Baker's Dozen position with the given clubs on the first Tableau piles, the Ace of
+	 * Clubs on the first Homecell pile when clubHome is 1, and the other suits complete.
+	 */
+	private static Game position(int [][] tableau, int clubHome) {
+		int [][] piles = new int[13 + 4][0];
+		System.arraycopy(tableau, 0, piles, 0, tableau.length);
+		for(int suit = 0; suit < 4; suit++) {
+			piles[13 + suit] = new int[suit == 0 ? clubHome : 13];
+			for(int rank = 0; rank < piles[13 + suit].length; rank++) {
+				piles[13 + suit][rank] = suit * 13 + rank;
+			}
+		}
+		return GameState.of(BakersDozenGame.GAME_ID, piles).toGame();
+	}
+}
@@ -0,0 +1,41 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import solver.ConcurrentTranspositionTable;
+import solver.TranspositionTable;
+
+public class ConcurrentTranspositionTableTest {
+	@Test
+	public void testEachPositionIsClaimedOnce() throws InterruptedException {
+		final TranspositionTable table = new ConcurrentTranspositionTable(1024);
+		final AtomicInteger claimed = new AtomicInteger();
+		Thread [] threads = new Thread[4];
+		for(int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for(int i = 0; i < 20000; i++) {
+						if(table.offer(i * 0x9E3779B97F4A7C15L, 7)) {
+							claimed.incrementAndGet();
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals("Every position must be claimed by exactly one thread", 20000, claimed.get());
+		assertEquals("Every position must be kept", 20000, table.size());
+		assertTrue("A shorter path must be accepted", table.offer(5 * 0x9E3779B97F4A7C15L, 2));
+		assertEquals("The smallest depth must be kept", 2, table.depthOf(5 * 0x9E3779B97F4A7C15L));
+		table.clear();
+		assertEquals("Clearing empties the table", 0, table.size());
+	}
+}
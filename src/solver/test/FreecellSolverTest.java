@@ -0,0 +1,61 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.FreecellGame;
+import model.GameState;
+import model.MoveBuffer;
+import model.Piles;
+import solver.FreecellSolver;
+import solver.SolverResult;
+
+public class FreecellSolverTest {
+	@Test
+	public void testSolutionReplays() {
+		FreecellGame game = new FreecellGame(1);
+		GameState before = GameState.of(game);
+		SolverResult result = new FreecellSolver().solve(game);
+		assertEquals("Deal #1 is solvable", SolverResult.Status.SOLVED, result.getStatus());
+		assertEquals("The game must not be modified", before, GameState.of(game));
+
+		MoveBuffer buffer = new MoveBuffer();
+		for(int move : result.getMoves()) {
+			int n = game.generateMoves(buffer);
+			boolean legal = false;
+			for(int i = 0; i < n && !legal; i++) {
+				legal = buffer.get(i) == move;
+			}
+			assertTrue("Every move of the solution must be legal", legal);
+			game.applyMove(move);
+		}
+		for(int i = 0; i < 4; i++) {
+			assertEquals("Every card must end on a Homecell pile", 13, game.size(Piles.HOMECELL, i));
+		}
+	}
+
+	@Test
+	public void testGiveUp() {
+		SolverResult result = new FreecellSolver(1, FreecellSolver.DEFAULT_WEIGHT).solve(new FreecellGame(617));
+		assertEquals("One node is not enough to solve a deal", SolverResult.Status.GAVE_UP, result.getStatus());
+		assertEquals("A failed search has no moves", 0, result.length());
+		assertEquals("The node limit must be respected", 1, result.getNodes());
+	}
+
+	@Test
+	public void testBadInputs() {
+		try {
+			new FreecellSolver(0, 1);
+			fail("The node limit must be positive");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new FreecellSolver().solve(null);
+			fail("solve() must not accept a null game");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import solver.HashTranspositionTable;
+import solver.TranspositionTable;
+
+public class HashTranspositionTableTest {
+	@Test
+	public void testOffer() {
+		TranspositionTable table = new HashTranspositionTable(4);
+		assertEquals("An unknown position is absent", TranspositionTable.ABSENT, table.depthOf(42));
+		assertTrue("A new position must be accepted", table.offer(42, 10));
+		assertFalse("A deeper path must be rejected", table.offer(42, 11));
+		assertFalse("A path of the same depth must be rejected", table.offer(42, 10));
+		assertTrue("A shorter path must be accepted", table.offer(42, 3));
+		assertEquals("The smallest depth must be kept", 3, table.depthOf(42));
+		assertTrue("A hash of 0 is a valid position", table.offer(0, 1));
+		assertEquals("A hash of 0 is a valid position", 1, table.depthOf(0));
+		assertEquals("Two positions were recorded", 2, table.size());
+	}
+
+	@Test
+	public void testGrowAndClear() {
+		TranspositionTable table = new HashTranspositionTable(4);
+		for(int i = 0; i < 10000; i++) {
+			assertTrue("Every position is new", table.offer(i * 0x9E3779B97F4A7C15L, i));
+		}
+		assertEquals("Every position must be kept", 10000, table.size());
+		for(int i = 0; i < 10000; i++) {
+			assertEquals("Every position must be found after growing", i, table.depthOf(i * 0x9E3779B97F4A7C15L));
+		}
+		table.clear();
+		assertEquals("Clearing empties the table", 0, table.size());
+		assertEquals("Clearing empties the table", TranspositionTable.ABSENT, table.depthOf(0x9E3779B97F4A7C15L));
+	}
+}
@@ -0,0 +1,128 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import model.AcesUpGame;
+import model.BakersDozenGame;
+import model.Deck;
+import model.FreecellGame;
+import model.Game;
+import model.GameState;
+import model.Move;
+import model.MoveBuffer;
+import solver.FreecellSolver;
+import solver.HintSearch;
+import solver.SolverResult;
+
+public class HintSearchTest {
+	private static final long SECOND = 1000000000L;
+
+	@Test
+	public void testHintIsLegal() {
+		Game [] games = { new FreecellGame(1), new BakersDozenGame(new Deck(3)), new AcesUpGame(new Deck(8)) };
+		for(Game game : games) {
+			GameState before = GameState.of(game);
+			int move = HintSearch.bestMove(before, SECOND, new AtomicBoolean());
+			assertTrue("The hint must be a legal move", isGenerated(game, move));
+			assertEquals("The game must not be modified", before, GameState.of(game));
+		}
+	}
+
+	@Test
+	public void testHintLeadsToSolution() {
+		FreecellGame game = new FreecellGame(1);
+		game.applyMove(HintSearch.bestMove(GameState.of(game), SECOND, new AtomicBoolean()));
+		assertEquals("Following the hint keeps the deal solvable", SolverResult.Status.SOLVED,
+				new FreecellSolver().solve(game).getStatus());
+	}
+
+	@Test
+	public void testNoFreecellPruning() {
+		// Ace's Up with the Ace of Spades alone on the first Tableau pile and every other card discarded:
+		// moving it to an empty Tableau pile is the only move, and it must not be pruned
+		int [][] piles = new int[6][0];
+		piles[0] = new int [] { 3 * 13 };
+		piles[4] = new int[51];
+		for(int card = 0, n = 0; card < 52; card++) {
+			if(card != 3 * 13) {
+				piles[4][n++] = card;
+			}
+		}
+		GameState position = GameState.of(AcesUpGame.GAME_ID, piles);
+		int move = HintSearch.bestMove(position, SECOND / 10, new AtomicBoolean());
+		assertNotEquals("A legal move must be suggested", HintSearch.NO_MOVE, move);
+		assertTrue("The hint must be a legal move", isGenerated(position.toGame(), move));
+	}
+
+	@Test
+	public void testCancelled() {
+		FreecellGame game = new FreecellGame(617);
+		long start = System.nanoTime();
+		int move = HintSearch.bestMove(GameState.of(game), 60 * SECOND, new AtomicBoolean(true));
+		assertTrue("A cancelled search must return at once", System.nanoTime() - start < 10 * SECOND);
+		assertTrue("A cancelled search still suggests a legal move", isGenerated(game, move));
+	}
+
+	@Test
+	public void testCancelledDuringSearch() throws InterruptedException {
+		final FreecellGame game = new FreecellGame(617);
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		final int [] move = new int[1];
+		Thread search = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				move[0] = HintSearch.bestMove(GameState.of(game), 60 * SECOND, cancelled);
+			}
+		});
+		search.start();
+		Thread.sleep(200);
+		long cancel = System.nanoTime();
+		cancelled.set(true);
+		search.join(10000);
+		assertFalse("A search must stop soon after it is cancelled", search.isAlive());
+		assertTrue("A search must stop soon after it is cancelled", System.nanoTime() - cancel < SECOND / 10);
+		assertTrue("A cancelled search still suggests a legal move", isGenerated(game, move[0]));
+	}
+
+	@Test
+	public void testDeadline() {
+		Game [] games = { new FreecellGame(617), new BakersDozenGame(new Deck(3)), new AcesUpGame(new Deck(8)) };
+		for(Game game : games) {
+			long start = System.nanoTime();
+			HintSearch.bestMove(GameState.of(game), SECOND / 5, new AtomicBoolean());
+			assertTrue("A search must not overrun its budget by more than a few positions",
+					System.nanoTime() - start < SECOND / 5 + SECOND / 10);
+		}
+	}
+
+	@Test
+	public void testBadInputs() {
+		try {
+			HintSearch.bestMove(null, SECOND, new AtomicBoolean());
+			fail("A null position should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			HintSearch.bestMove(GameState.of(new FreecellGame(1)), 0, new AtomicBoolean());
+			fail("A search without time should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static boolean isGenerated(Game game, int move) {
+		MoveBuffer buffer = new MoveBuffer();
+		int n = game.generateMoves(buffer);
+		for(int i = 0; i < n; i++) {
+			if(buffer.get(i) == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,120 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import model.FreecellGame;
+import model.Piles;
+import solver.FreecellSolver;
+import solver.OffHeapTranspositionTable;
+import solver.ParallelFreecellSolver;
+import solver.SolverResult;
+import solver.TranspositionTable;
+
+public class OffHeapTranspositionTableTest {
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	@Test
+	public void testOffer() {
+		TranspositionTable table = new OffHeapTranspositionTable(1 << 12);
+		assertEquals("An unknown position is absent", TranspositionTable.ABSENT, table.depthOf(42));
+		assertTrue("A new position must be accepted", table.offer(42, 10));
+		assertFalse("A deeper path must be rejected", table.offer(42, 11));
+		assertFalse("A path of the same depth must be rejected", table.offer(42, 10));
+		assertTrue("A shorter path must be accepted", table.offer(42, 3));
+		assertEquals("The smallest depth must be kept", 3, table.depthOf(42));
+		assertTrue("A hash of 0 is a valid position", table.offer(0, 0));
+		assertEquals("A hash of 0 is a valid position", 0, table.depthOf(0));
+		assertEquals("Two positions were recorded", 2, table.size());
+		table.clear();
+		assertEquals("Clearing empties the table", 0, table.size());
+		assertEquals("Clearing empties the table", TranspositionTable.ABSENT, table.depthOf(42));
+	}
+
+	@Test
+	public void testEviction() {
+		OffHeapTranspositionTable table = new OffHeapTranspositionTable(5000);
+		assertEquals("The budget is rounded down to a power of 2", 4096 / 16, table.capacity());
+		for(int i = 0; i < 100000; i++) {
+			table.offer(i * GOLDEN, 1);
+			// keep looking up the first positions, so that the clock never picks them
+			for(int j = 0; j < 8; j++) {
+				table.depthOf(j * GOLDEN);
+			}
+		}
+		assertEquals("The table can not hold more than its capacity", table.capacity(), table.size());
+		for(int j = 0; j < 8; j++) {
+			assertEquals("Positions in use must not be evicted", 1, table.depthOf(j * GOLDEN));
+		}
+		int kept = 0;
+		for(int i = 0; i < 100000; i++) {
+			if(table.depthOf(i * GOLDEN) != TranspositionTable.ABSENT) {
+				kept++;
+			}
+		}
+		assertEquals("Every slot must hold a position", table.capacity(), kept);
+	}
+
+	@Test
+	public void testSecondChance() {
+		// one bucket, so every position competes for the same 4 slots; the high half of a hash
+		// picks the slot where the sweep starts
+		OffHeapTranspositionTable table = new OffHeapTranspositionTable(64);
+		assertEquals("A 64 byte table is one bucket", 4, table.capacity());
+		for(long h = 1; h <= 4; h++) {
+			assertTrue("The bucket is not full yet", table.offer(h, 1));
+		}
+		table.depthOf(2);
+		table.depthOf(4);
+
+		assertTrue("A new position must be accepted", table.offer(5, 1));
+		assertEquals("The sweep takes the first slot which was not looked up", TranspositionTable.ABSENT, table.depthOf(1));
+		assertTrue("A new position must be accepted", table.offer(1L << 32 | 6, 1));
+		assertEquals("A slot which was looked up gets a second chance", 1, table.depthOf(2));
+		assertEquals("The next slot which was not looked up is taken", TranspositionTable.ABSENT, table.depthOf(3));
+
+		// looking up 2 above gave it a new reference, so reference the others and sweep all of them
+		table.depthOf(4);
+		table.depthOf(5);
+		table.depthOf(1L << 32 | 6);
+		assertTrue("A new position must be accepted", table.offer(7, 1));
+		assertEquals("Once every reference is cleared, the sweep starts over", TranspositionTable.ABSENT, table.depthOf(5));
+		assertEquals("The other positions stay", 1, table.depthOf(2));
+		assertEquals("The other positions stay", 1, table.depthOf(4));
+		assertEquals("The other positions stay", 1, table.depthOf(1L << 32 | 6));
+		assertEquals("The other positions stay", 1, table.depthOf(7));
+		assertEquals("The table can not hold more than its capacity", 4, table.size());
+	}
+
+	@Test
+	public void testSharedBySolverThreads() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			FreecellGame game = new FreecellGame(1);
+			SolverResult result = new ParallelFreecellSolver(pool, ParallelFreecellSolver.DEFAULT_MAX_NODES,
+					FreecellSolver.DEFAULT_WEIGHT, 2).solve(game, new OffHeapTranspositionTable(1 << 20));
+			assertEquals("A table shared by every thread must solve deal #1", SolverResult.Status.SOLVED, result.getStatus());
+			for(int move : result.getMoves()) {
+				game.applyMove(move);
+			}
+			for(int i = 0; i < 4; i++) {
+				assertEquals("Every card must end on a Homecell pile", 13, game.size(Piles.HOMECELL, i));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testBadBudget() {
+		try {
+			new OffHeapTranspositionTable(63);
+			fail("A budget smaller than a bucket should throw an IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
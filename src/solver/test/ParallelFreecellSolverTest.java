@@ -0,0 +1,69 @@
+package solver.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import model.FreecellGame;
+import model.GameState;
+import model.Piles;
+import solver.FreecellSolver;
+import solver.ParallelFreecellSolver;
+import solver.SolverResult;
+
+public class ParallelFreecellSolverTest {
+	@Test
+	public void testSolutionReplays() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for(int deal = 1; deal <= 3; deal++) {
+				FreecellGame game = new FreecellGame(deal);
+				GameState before = GameState.of(game);
+				SolverResult result = new ParallelFreecellSolver(pool, ParallelFreecellSolver.DEFAULT_MAX_NODES,
+						FreecellSolver.DEFAULT_WEIGHT, 2).solve(game);
+				assertEquals("Deal #" + deal + " is solvable", SolverResult.Status.SOLVED, result.getStatus());
+				assertEquals("The game must not be modified", before, GameState.of(game));
+				for(int move : result.getMoves()) {
+					game.applyMove(move);
+				}
+				for(int i = 0; i < 4; i++) {
+					assertEquals("Every card must end on a Homecell pile", 13, game.size(Piles.HOMECELL, i));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testGiveUp() {
+		SolverResult result = new ParallelFreecellSolver(ForkJoinPool.commonPool(), 10,
+				FreecellSolver.DEFAULT_WEIGHT, 1).solve(new FreecellGame(617));
+		assertEquals("10 nodes are not enough to solve a deal", SolverResult.Status.GAVE_UP, result.getStatus());
+		assertTrue("The node limit must be respected", result.getNodes() <= 10 + 1);
+	}
+
+	@Test
+	public void testBadInputs() {
+		try {
+			new ParallelFreecellSolver(null, 1, 1, 1);
+			fail("The pool can not be null");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new ParallelFreecellSolver().solve(null);
+			fail("solve() must not accept a null game");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new ParallelFreecellSolver().solve(new FreecellGame(1), null);
+			fail("solve() must not accept a null table");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -23,9 +23,12 @@ public class AcesUpStockStrategy implements PileStrategy {
 		ArrayList<Stack<Card>> a = new ArrayList<Stack<Card>>();
 		Stack<Card> s = new Stack<Card>();
 		
-		ArrayList<Card> remainingCards = deck.getCards(48);
+		Card [] remainingCards = new Card[48];
 		for(int i = 0; i < 48; i++) {
-			s.push(remainingCards.remove(remainingCards.size() - 1));
+			remainingCards[i] = deck.nextCard();
+		}
+		for(int i = 47; i >= 0; i--) {
+			s.push(remainingCards[i]);
 		}
 		a.add(s);
 		return a;
@@ -62,4 +65,16 @@ public class AcesUpStockStrategy implements PileStrategy {
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest) {
 		return top != null && dest == Piles.TABLEAU;
 	}
+	
+	/**
+	 * It is always okay to remove a card from a Stock pile if the dest is a Tableau pile.
+	 * It is impossible to remove a card from an empty pile.
+	 * @param pos  - the position of the Stock pile.
+	 * @param tops - the ordinals of the top cards of all Stock piles.
+	 * @param dest - the destination pile.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		return tops[pos] != Card.NO_CARD && dest == Piles.TABLEAU;
+	}
 }
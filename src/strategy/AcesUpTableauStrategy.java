@@ -27,7 +27,7 @@ public class AcesUpTableauStrategy implements PileStrategy {
 		
 		for(int i = 0; i < 4; i++) {
 			Stack<Card> pile = new Stack<Card>();
-			pile.push(deck.getCards(1).get(0));
+			pile.push(deck.nextCard());
 			piles.add(pile);
 		}
 		return piles;
@@ -101,4 +101,51 @@ public class AcesUpTableauStrategy implements PileStrategy {
 		}
 		return false;
 	}
+	
+	/**
+	 * A top card can be removed whenever another Tableau's top card has the same suit but
+	 * with a higher rank. Ace is the highest valued card in each suit.
+	 * A card can be moved to another Tableau pile whenever one of them is empty.
+	 * A card cannot be removed from an empty pile.
+	 * @param pos  - the position of the pile whose top card is removed.
+	 * @param tops - the ordinals of the top cards of all 4 Tableau piles.
+	 * @param dest - the destination pile of the top card.
+	 * @throws IllegalArgumentException if tops.length != 4 || dest is doesn't correspond to a legal pile.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		if(tops.length != 4 || (dest != Piles.TABLEAU && dest != Piles.HOMECELL)) {
+			throw new IllegalArgumentException();
+		}
+		
+		int top = tops[pos];
+		if(top == Card.NO_CARD) {
+			return false;
+		}
+		
+		if(dest == Piles.TABLEAU) {
+			for(int i = 0; i < 4; i++) {
+				if(i != pos && tops[i] == Card.NO_CARD) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		int rank = Card.rankOf(top);
+		if(rank == Rank.ACE.rank()) {
+			return false;
+		}
+		int suit = Card.suitOf(top);
+		for(int i = 0; i < 4; i++) {
+			int other = tops[i];
+			if(i != pos && other != Card.NO_CARD && Card.suitOf(other) == suit) {
+				int otherRank = Card.rankOf(other);
+				if(otherRank == Rank.ACE.rank() || otherRank > rank) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
 }
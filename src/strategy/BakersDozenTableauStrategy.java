@@ -24,9 +24,12 @@ public class BakersDozenTableauStrategy implements PileStrategy {
 	@Override
 	public ArrayList<Stack<Card>> getInitialSetUp(Deck deck) {
 		ArrayList<Stack<Card>> piles = new ArrayList<Stack<Card>>();
+		Card [] cards = new Card[4];
 		for(int i = 0; i < 13; i++) {
-			Stack<Card> pile = moveKingsDown(deck.getCards(4));
-			piles.add(pile);
+			for(int j = 0; j < cards.length; j++) {
+				cards[j] = deck.nextCard();
+			}
+			piles.add(moveKingsDown(cards));
 		}
 		
 		return piles;
@@ -65,23 +68,22 @@ public class BakersDozenTableauStrategy implements PileStrategy {
 	}
 
 	/**
-	 * Moves any kings to the bottom of their piles.
-	 * @param cards - the pile that needs this special handling.
+	 * Moves any kings to the bottom of their piles, keeping the order of the other cards.
+	 * @param cards - the cards dealt to the pile, from bottom to top. The array is not modified.
 	 * @return an {@code Stack} representing a pile with its kings moved to the bottom.
 	 */
-	private Stack<Card> moveKingsDown(ArrayList<Card> cards) {
+	private Stack<Card> moveKingsDown(Card [] cards) {
 		Stack<Card> pile = new Stack<Card>();
-		int size = cards.size();
-		for(int i = 0; i < size; i++) {
-			Card card = cards.get(i);
+		for(Card card : cards) {
 			if(card.getRank() == 13) {
 				pile.push(card);
-				cards.remove(i);
-				size -= 1;
-				i -= 1;
 			}
 		}
-		pile.addAll(cards);
+		for(Card card : cards) {
+			if(card.getRank() != 13) {
+				pile.push(card);
+			}
+		}
 		return pile;
 	}
 	
@@ -93,4 +95,16 @@ public class BakersDozenTableauStrategy implements PileStrategy {
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest) {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * The top card of a non-empty Tableau pile can be moved onto another Tableau pile or home.
+	 * @param pos  - the position of the Tableau pile.
+	 * @param tops - the ordinals of the top cards of all 13 Tableau piles.
+	 * @param dest - this parameter is ignored.
+	 * @return whether this operation is legal.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		return tops[pos] != Card.NO_CARD;
+	}
 }
@@ -66,4 +66,16 @@ public class FreecellFreecellStrategy implements PileStrategy {
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest) {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * The card of a Freecell pile can always be moved, but an empty Freecell pile has none.
+	 * @param pos  - the position of the Freecell pile.
+	 * @param tops - the ordinals of the cards of all 4 Freecell piles.
+	 * @param dest - this parameter is ignored.
+	 * @return whether this operation is legal.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		return tops[pos] != Card.NO_CARD;
+	}
 }
@@ -14,9 +14,9 @@ import model.Deck;
 public class FreecellTableauStrategy implements PileStrategy {
 	/**
 	 * Returns the initial setup of Freecell's Tableau piles using the provided deck.
-	 * When the game begins half of the Tableau piles will be dealt 7 cards
+	 * When the game begins the first half of the Tableau piles will be dealt 7 cards
 	 * and the other half of the Tableau piles will be dealt 6 cards. No cards need special handling.
-	 * And there should be 8 Tableau piles
+	 * And there should be 8 Tableau piles. Cards are dealt pile by pile, each pile from bottom to top.
 	 * @param deck - the deck used to initialize the setup.
 	 * @return the initial setup of the Tableau piles in a Freecell game.
 	 */
@@ -25,10 +25,9 @@ public class FreecellTableauStrategy implements PileStrategy {
 		ArrayList<Stack<Card>> piles = new ArrayList<Stack<Card>>();
 		for(int i = 0; i < 8; i++) {
 			Stack<Card> pile = new Stack<Card>();
-			if(i % 2 == 0) {
-				pile.addAll(deck.getCards(6));
-			} else {
-				pile.addAll(deck.getCards(7));
+			int n = (i < 4) ? 7 : 6;
+			for(int j = 0; j < n; j++) {
+				pile.push(deck.nextCard());
 			}
 			piles.add(pile);
 		}
@@ -81,4 +80,16 @@ public class FreecellTableauStrategy implements PileStrategy {
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest) {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * The top card of a Tableau pile can be moved anywhere, unless the pile is empty.
+	 * @param pos  - the position of the Tableau pile.
+	 * @param tops - the ordinals of the top cards of all 8 Tableau piles.
+	 * @param dest - this parameter is ignored.
+	 * @return whether this operation is legal.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		return tops[pos] != Card.NO_CARD;
+	}
 }
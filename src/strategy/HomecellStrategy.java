@@ -75,4 +75,16 @@ public class HomecellStrategy implements PileStrategy {
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest) {
 		throw new UnsupportedOperationException();
 	}
+	
+	/**
+	 * Cards cannot be removed from a Homecell pile.
+	 * @param pos  - this parameter is ignored.
+	 * @param tops - this parameter is ignored.
+	 * @param dest - this parameter is ignored.
+	 * @return {@code false}.
+	 */
+	@Override
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest) {
+		return false;
+	}
 }
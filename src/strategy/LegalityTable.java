@@ -0,0 +1,99 @@
+package strategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import abstraction.Card;
+
+/**
+ * A precomputed table of {@link PileStrategy#isAddingLegal(Card, Card)}.
+ * The table has one row for every possible top card plus one row for an empty pile. Each row is a
+ * {@code long} whose bit {@code c} tells whether the card with ordinal {@code c} can be added, so
+ * checking a move is a single bit lookup and the whole table fits in seven cache lines.
+ * Tables can only be compiled from strategies whose methods do not depend on their instances,
+ * which is the case for every strategy in this package.
+ */
+public final class LegalityTable {
+	/**
+	 * Constant
+	 *
+	 * CACHE - the compiled table of each class of strategy.
+	 */
+	private static final ConcurrentHashMap<Class<?>, LegalityTable> CACHE =
+			new ConcurrentHashMap<Class<?>, LegalityTable>();
+
+	/**
+	 * _rows - row {@code top + 1} holds the cards which can be added onto the card {@code top}.
+	 *         Row 0 corresponds to {@code Card.NO_CARD}, i.e. an empty pile.
+	 */
+	private final long [] _rows;
+
+	private LegalityTable(long [] rows) {
+		_rows = rows;
+	}
+
+	/**
+	 * Compiles a table by asking the strategy about every pair of card and top card.
+	 * @param strategy - the strategy to compile.
+	 * @return the compiled table.
+	 * @throws IllegalArgumentException if strategy is {@code null}.
+	 */
+	public static LegalityTable compile(PileStrategy strategy) {
+		if(strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null.");
+		}
+
+		long [] rows = new long[Card.NUM_CARDS + 1];
+		for(int top = Card.NO_CARD; top < Card.NUM_CARDS; top++) {
+			Card topCard = Card.fromOrdinal(top);
+			long row = 0;
+			for(int card = 0; card < Card.NUM_CARDS; card++) {
+				if(strategy.isAddingLegal(Card.fromOrdinal(card), topCard)) {
+					row |= 1L << card;
+				}
+			}
+			rows[top + 1] = row;
+		}
+		return new LegalityTable(rows);
+	}
+
+	/**
+	 * Returns the table of a strategy, compiling it the first time a strategy of that class is seen.
+	 * @param strategy - the strategy.
+	 * @return the compiled table.
+	 * @throws IllegalArgumentException if strategy is {@code null}.
+	 */
+	public static LegalityTable of(PileStrategy strategy) {
+		if(strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null.");
+		}
+
+		LegalityTable table = CACHE.get(strategy.getClass());
+		if(table == null) {
+			table = compile(strategy);
+			LegalityTable previous = CACHE.putIfAbsent(strategy.getClass(), table);
+			if(previous != null) {
+				table = previous;
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Determines whether it is legal to move a card onto a top card.
+	 * @param card - the ordinal of the card being added.
+	 * @param top  - the ordinal of the top card of the pile, {@code Card.NO_CARD} for an empty pile.
+	 * @return whether this operation is legal.
+	 */
+	public boolean isAddingLegal(int card, int top) {
+		return (_rows[top + 1] >>> card & 1L) != 0;
+	}
+
+	/**
+	 * Returns every card which can be added onto a top card.
+	 * @param top - the ordinal of the top card of the pile, {@code Card.NO_CARD} for an empty pile.
+	 * @return a set of ordinals where bit {@code c} is set if the card {@code c} can be added.
+	 */
+	public long getLegalCards(int top) {
+		return _rows[top + 1];
+	}
+}
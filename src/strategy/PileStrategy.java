@@ -47,4 +47,18 @@ public interface PileStrategy {
 	 * @return whether this operation is legal.
 	 */
 	public boolean isRemovingLegal(Card top, Card[] otherTops, int dest);
+	
+	/**
+	 * Determines whether it is legal to remove the top card from a pile of this collection.
+	 * Unlike {@link #isRemovingLegal(Card, Card[], int)}, the top cards of all piles are supplied as
+	 * ordinals in a buffer owned by the caller, which may be reused between calls, so this
+	 * method never allocates. Implementations must not modify the buffer.
+	 * And it is impossible to remove a card from an empty pile.
+	 * @param pos  - the position of the pile whose top card is removed.
+	 * @param tops - the ordinals of the top cards of all piles of this collection, indexed by position.
+	 * {@code Card.NO_CARD} represents an empty pile.
+	 * @param dest - the destination pile of the top card.
+	 * @return whether this operation is legal.
+	 */
+	public boolean isRemovingLegal(int pos, byte[] tops, int dest);
 }
\ No newline at end of file
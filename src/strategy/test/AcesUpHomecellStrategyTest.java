@@ -27,13 +27,13 @@ public class AcesUpHomecellStrategyTest {
 	public void testIsAddingLegal() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("It is always legal to add a card to Homecell",
 						STRATEGY.isAddingLegal(card, null));
 				assertTrue("It is always legal to add a card to Homecell",
-						STRATEGY.isAddingLegal(card, new Card(Suit.CLUB, Rank.ACE)));
+						STRATEGY.isAddingLegal(card, Card.of(Suit.CLUB, Rank.ACE)));
 				assertTrue("It is always legal to add a card to Homecell",
-						STRATEGY.isAddingLegal(card, new Card(Suit.DIAMOND, Rank.SEVEN)));
+						STRATEGY.isAddingLegal(card, Card.of(Suit.DIAMOND, Rank.SEVEN)));
 			}
 		}
 	}
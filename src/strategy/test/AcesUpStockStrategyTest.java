@@ -50,10 +50,10 @@ public class AcesUpStockStrategyTest {
 	public void testIsAddingLegal() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertFalse("isAddingLegal() should always return false", STRATEGY.isAddingLegal(card, null));
 				assertFalse("isAddingLegal() should always return false",
-						STRATEGY.isAddingLegal(card, new Card(Suit.CLUB, Rank.ACE)));
+						STRATEGY.isAddingLegal(card, Card.of(Suit.CLUB, Rank.ACE)));
 			}
 		}
 	}
@@ -62,7 +62,7 @@ public class AcesUpStockStrategyTest {
 	public void testIsRemovingLegal() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("It is always okay to remove a card from a Stock pile if the dest is a Tableau pile",
 						STRATEGY.isRemovingLegal(card, new Card [0], Piles.TABLEAU));
 				assertFalse("It is always illegal to remove a card from a Stock pile if the dest is not a Tableau pile",
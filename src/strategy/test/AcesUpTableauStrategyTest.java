@@ -35,12 +35,12 @@ public class AcesUpTableauStrategyTest {
 	public void testIsAddingLegal() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("Any card can be added to any empty Tableau pile", STRATEGY.isAddingLegal(card, null));
 				assertFalse("Adding a card to a non-empty Tableau pile is illegal", 
-						STRATEGY.isAddingLegal(card, new Card(Suit.CLUB, Rank.ACE)));
+						STRATEGY.isAddingLegal(card, Card.of(Suit.CLUB, Rank.ACE)));
 				assertFalse("Adding a card to a non-empty Tableau pile is illegal",
-						STRATEGY.isAddingLegal(card, new Card(Suit.DIAMOND, Rank.KING)));
+						STRATEGY.isAddingLegal(card, Card.of(Suit.DIAMOND, Rank.KING)));
 			}
 		}
 	}
@@ -57,53 +57,53 @@ public class AcesUpTableauStrategyTest {
 	
 	@Test
 	public void testIsRemovingToHomecellLegalWithNoEmptyPiles() {
-		Card [] otherTops = { new Card(Suit.CLUB, Rank.FIVE),
-				              new Card(Suit.HEART, Rank.KING),
-				              new Card(Suit.DIAMOND, Rank.SEVEN) };
+		Card [] otherTops = { Card.of(Suit.CLUB, Rank.FIVE),
+				              Card.of(Suit.HEART, Rank.KING),
+				              Card.of(Suit.DIAMOND, Rank.SEVEN) };
 		assertTrue("When the destination is Homecell, removing 4club should be legal "
 				+ "since 5club is a top card of another pile", 
-				STRATEGY.isRemovingLegal(new Card(Suit.CLUB, Rank.FOUR), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.CLUB, Rank.FOUR), otherTops, Piles.HOMECELL));
 		assertTrue("When the destination is Homecell, removing 7heart should be legal "
 				+ "since 13heart is a top card of another pile",
-				STRATEGY.isRemovingLegal(new Card(Suit.HEART, Rank.SEVEN), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.HEART, Rank.SEVEN), otherTops, Piles.HOMECELL));
 		assertTrue("When the destination is Homecell, removing 3diamond shoule be legal "
 				+ "since 7diamond is a top card of another pile",
-				STRATEGY.isRemovingLegal(new Card(Suit.DIAMOND, Rank.THREE), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.DIAMOND, Rank.THREE), otherTops, Piles.HOMECELL));
 		assertFalse("When the destination is Homecell, removing 4spade should be illegal "
 				+ "since there is no spades in other top cards",
-				STRATEGY.isRemovingLegal(new Card(Suit.SPADE, Rank.FOUR), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.SPADE, Rank.FOUR), otherTops, Piles.HOMECELL));
 		assertFalse("When the destination is Homecell, removing 1club should be illegal "
 				+ "since aces are the highest valued cards",
-				STRATEGY.isRemovingLegal(new Card(Suit.CLUB, Rank.ACE), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.CLUB, Rank.ACE), otherTops, Piles.HOMECELL));
 		assertFalse("When the destination is Homecell, removing 9diamond should be illegal "
 				+ "since no top cards of the same suit has a higher value",
-				STRATEGY.isRemovingLegal(new Card(Suit.DIAMOND, Rank.NINE), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.DIAMOND, Rank.NINE), otherTops, Piles.HOMECELL));
 	}
 	
 	@Test
 	public void testIsRemovingToHomecellLegalWithEmptyPiles() {
-		Card [] otherTops = { new Card(Suit.SPADE, Rank.SEVEN),
-				              new Card(Suit.SPADE, Rank.JACK),
+		Card [] otherTops = { Card.of(Suit.SPADE, Rank.SEVEN),
+				              Card.of(Suit.SPADE, Rank.JACK),
 				              null };
 		assertTrue("When the destination is Homecell, removing 10spade should be legal "
 				+ "since 11spade is a top card of another pile", 
-				STRATEGY.isRemovingLegal(new Card(Suit.SPADE, Rank.TEN), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.SPADE, Rank.TEN), otherTops, Piles.HOMECELL));
 		assertFalse("When the destination is Homecell, removing 3heart should be illegal "
 				+ "since there is no cards of hearts",
-				STRATEGY.isRemovingLegal(new Card(Suit.HEART, Rank.THREE), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.HEART, Rank.THREE), otherTops, Piles.HOMECELL));
 		assertFalse("When the destination is Homecell, removing 12heart should be illegal "
 				+ "since there is no cards valued higher than this card",
-				STRATEGY.isRemovingLegal(new Card(Suit.SPADE, Rank.QUEEN), otherTops, Piles.HOMECELL));
+				STRATEGY.isRemovingLegal(Card.of(Suit.SPADE, Rank.QUEEN), otherTops, Piles.HOMECELL));
 	}
 	
 	@Test
 	public void testIsRemovingToTableauLegalWithNoEmptyPiles() {
-		Card [] otherTops = { new Card(Suit.HEART, Rank.ACE),
-			   	              new Card(Suit.DIAMOND, Rank.THREE),
-			   	              new Card(Suit.CLUB, Rank.SEVEN) };
+		Card [] otherTops = { Card.of(Suit.HEART, Rank.ACE),
+			   	              Card.of(Suit.DIAMOND, Rank.THREE),
+			   	              Card.of(Suit.CLUB, Rank.SEVEN) };
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertFalse("When the destination is Tableau, removing any card should be illegal "
 						+ "since there is no empty piles", STRATEGY.isRemovingLegal(card, otherTops, Piles.TABLEAU));
 			}
@@ -113,11 +113,11 @@ public class AcesUpTableauStrategyTest {
 	@Test
 	public void testIsRemovingToTableauLegalWithEmptyPiles() {
 		Card [] otherTops = { null,
-				              new Card(Suit.HEART, Rank.TWO),
-				              new Card(Suit.SPADE, Rank.THREE) };
+				              Card.of(Suit.HEART, Rank.TWO),
+				              Card.of(Suit.SPADE, Rank.THREE) };
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("When the destination is Tableau, removing any card should be legal "
 						+ "since there is one empty pile", STRATEGY.isRemovingLegal(card, otherTops, Piles.TABLEAU));
 			}
@@ -127,8 +127,8 @@ public class AcesUpTableauStrategyTest {
 	@Test
 	public void testIsRemovingEmptyLegal() {
 		Card [] otherTops = { null,
-				              new Card(Suit.DIAMOND, Rank.EIGHT),
-				              new Card(Suit.HEART, Rank.FIVE) };
+				              Card.of(Suit.DIAMOND, Rank.EIGHT),
+				              Card.of(Suit.HEART, Rank.FIVE) };
 		assertFalse("It is impossible to remove a card from an empty pile",
 				STRATEGY.isRemovingLegal(null, otherTops, Piles.HOMECELL));
 		assertFalse("It is impossible to remove a card from an empty pile",
@@ -139,10 +139,10 @@ public class AcesUpTableauStrategyTest {
 	public void testIsRemovingLegalWithBadInputs() {
 		Card [] otherTops = { null,
 				              null,
-				              new Card(Suit.CLUB, Rank.ACE),
-				              new Card(Suit.DIAMOND, Rank.TEN) };
+				              Card.of(Suit.CLUB, Rank.ACE),
+				              Card.of(Suit.DIAMOND, Rank.TEN) };
 		try {
-			STRATEGY.isRemovingLegal(new Card(Suit.DIAMOND ,Rank.FIVE), otherTops, Piles.HOMECELL);
+			STRATEGY.isRemovingLegal(Card.of(Suit.DIAMOND ,Rank.FIVE), otherTops, Piles.HOMECELL);
 			fail("isRemovingLegal(...) only accepts an array of length 3");
 		} catch(IllegalArgumentException iae) {
 			// expected
@@ -157,4 +157,69 @@ public class AcesUpTableauStrategyTest {
 			// expected
 		}
 	}
+	
+	@Test
+	public void testIsRemovingLegalWithTopsBuffer() {
+		byte [] tops = { ordinal(Suit.CLUB, Rank.FOUR), ordinal(Suit.CLUB, Rank.FIVE),
+				         ordinal(Suit.HEART, Rank.KING), ordinal(Suit.CLUB, Rank.ACE) };
+		assertTrue("When the destination is Homecell, removing 4club should be legal "
+				+ "since 5club is a top card of another pile", STRATEGY.isRemovingLegal(0, tops, Piles.HOMECELL));
+		assertTrue("When the destination is Homecell, removing 5club should be legal "
+				+ "since 1club is a top card of another pile", STRATEGY.isRemovingLegal(1, tops, Piles.HOMECELL));
+		assertFalse("When the destination is Homecell, removing 13heart should be illegal "
+				+ "since there is no other hearts", STRATEGY.isRemovingLegal(2, tops, Piles.HOMECELL));
+		assertFalse("When the destination is Homecell, removing 1club should be illegal "
+				+ "since aces are the highest valued cards", STRATEGY.isRemovingLegal(3, tops, Piles.HOMECELL));
+		for(int i = 0; i < 4; i++) {
+			assertFalse("When the destination is Tableau, removing any card should be illegal "
+					+ "since there is no empty piles", STRATEGY.isRemovingLegal(i, tops, Piles.TABLEAU));
+		}
+		
+		tops[2] = Card.NO_CARD;
+		assertTrue("When the destination is Tableau, removing a card should be legal "
+				+ "since there is one empty pile", STRATEGY.isRemovingLegal(0, tops, Piles.TABLEAU));
+		assertFalse("It is impossible to remove a card from an empty pile",
+				STRATEGY.isRemovingLegal(2, tops, Piles.TABLEAU));
+		assertFalse("It is impossible to remove a card from an empty pile",
+				STRATEGY.isRemovingLegal(2, tops, Piles.HOMECELL));
+		
+		try {
+			STRATEGY.isRemovingLegal(0, new byte[3], Piles.HOMECELL);
+			fail("isRemovingLegal(...) only accepts a buffer of length 4");
+		} catch(IllegalArgumentException iae) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testIsRemovingLegalAgreesWithTopCards() {
+		Card [] otherTops = new Card[3];
+		byte [] tops = new byte[4];
+		for(int a = 0; a < 52; a += 5) {
+			for(int b = 1; b < 52; b += 7) {
+				for(int c = 2; c < 52; c += 11) {
+					for(int d = -1; d < 52; d += 13) {
+						tops[0] = (byte) a;
+						tops[1] = (byte) b;
+						tops[2] = (byte) c;
+						tops[3] = (byte) d;
+						otherTops[0] = Card.fromOrdinal(b);
+						otherTops[1] = Card.fromOrdinal(c);
+						otherTops[2] = Card.fromOrdinal(d);
+						Card top = Card.fromOrdinal(a);
+						assertEquals("Both versions of isRemovingLegal must agree",
+								STRATEGY.isRemovingLegal(top, otherTops, Piles.HOMECELL),
+								STRATEGY.isRemovingLegal(0, tops, Piles.HOMECELL));
+						assertEquals("Both versions of isRemovingLegal must agree",
+								STRATEGY.isRemovingLegal(top, otherTops, Piles.TABLEAU),
+								STRATEGY.isRemovingLegal(0, tops, Piles.TABLEAU));
+					}
+				}
+			}
+		}
+	}
+	
+	private byte ordinal(Suit suit, Rank rank) {
+		return Card.of(suit, rank).getOrdinal();
+	}
 }
@@ -29,11 +29,11 @@ public class BakersDozenTableauStrategyTest {
 	public void testMoveKingsDown() {
 		try {
 			
-			Card card0 = new Card(Suit.CLUB, Rank.KING);
-			Card card1 = new Card(Suit.HEART, Rank.KING);
-			Card card2 = new Card(Suit.CLUB, Rank.ACE);
-			Card card3 = new Card(Suit.DIAMOND, Rank.FIVE);
-			Card card4 = new Card(Suit.SPADE, Rank.SEVEN);
+			Card card0 = Card.of(Suit.CLUB, Rank.KING);
+			Card card1 = Card.of(Suit.HEART, Rank.KING);
+			Card card2 = Card.of(Suit.CLUB, Rank.ACE);
+			Card card3 = Card.of(Suit.DIAMOND, Rank.FIVE);
+			Card card4 = Card.of(Suit.SPADE, Rank.SEVEN);
 			ArrayList<Card> pile = new ArrayList<Card>(Arrays.asList(card0, card1, card2, card3, card4));
 			testMoveKingsDown(pile);
 			pile = new ArrayList<Card>(Arrays.asList(card0, card2, card3, card4, card1));
@@ -51,7 +51,7 @@ public class BakersDozenTableauStrategyTest {
 	@Test
 	public void testGetInitialSetUp() {
 		try {
-			Method method = BakersDozenTableauStrategy.class.getDeclaredMethod("moveKingsDown", ArrayList.class);
+			Method method = BakersDozenTableauStrategy.class.getDeclaredMethod("moveKingsDown", Card[].class);
 			method.setAccessible(true);
 			ArrayList<Stack<Card>> actual = strategy.getInitialSetUp(new Deck());
 			ArrayList<Card> allCards = new ArrayList<Card>();
@@ -60,16 +60,15 @@ public class BakersDozenTableauStrategyTest {
 				assertEquals("Each Tableau pile in Baker's Dozen should have 4 cards", 4, pile.size());
 				allCards.addAll(pile);
 				
-				ArrayList<Card> arg = new ArrayList<Card>();
-				arg.addAll(pile);
-				Stack<Card> specialHandlingExpected = (Stack<Card>) method.invoke(strategy, arg);
+				Card [] arg = pile.toArray(new Card[0]);
+				Stack<Card> specialHandlingExpected = (Stack<Card>) method.invoke(strategy, (Object) arg);
 				assertEquals("Kings should be moved to the bottom", specialHandlingExpected, pile);
 			}
 			
 			// 13 * 4 = 52
 			for(Suit suit : Suit.values()) {
 				for(Rank rank : Rank.values()) {
-					assertTrue("Every card must appear once in all piles", allCards.contains(new Card(suit, rank)));
+					assertTrue("Every card must appear once in all piles", allCards.contains(Card.of(suit, rank)));
 				}
 			}
 		} catch(Exception e) {
@@ -81,24 +80,24 @@ public class BakersDozenTableauStrategyTest {
 	@Test
 	public void testIsAddingLegal() {
 		assertTrue("Moving three of spades onto four of spades is legal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.THREE), new Card(Suit.SPADE, Rank.FOUR)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.THREE), Card.of(Suit.SPADE, Rank.FOUR)));
 		assertTrue("Moving seven of hearts onto eight of clubs is legal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.SEVEN), new Card(Suit.CLUB, Rank.EIGHT)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.SEVEN), Card.of(Suit.CLUB, Rank.EIGHT)));
 		assertTrue("Moving jack of diamonds onto queen of hearts is legal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.JACK), new Card(Suit.HEART, Rank.QUEEN)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.JACK), Card.of(Suit.HEART, Rank.QUEEN)));
 		assertFalse("Moving king of hearts onto queen of hearts is illegal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.KING), new Card(Suit.HEART, Rank.QUEEN)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.KING), Card.of(Suit.HEART, Rank.QUEEN)));
 		assertFalse("Moving five of spades onto five of hearts is illegal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.FIVE), new Card(Suit.HEART, Rank.FIVE)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.FIVE), Card.of(Suit.HEART, Rank.FIVE)));
 		assertFalse("Moving ace of diamonds onto three of clubs is illegal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.ACE), new Card(Suit.CLUB, Rank.THREE)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.ACE), Card.of(Suit.CLUB, Rank.THREE)));
 	}
 	
 	@Test
 	public void testIsAddingLegalWithNull() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				try {
 					strategy.isAddingLegal(null, card);
 					fail("Adding null to a pile should produce IllegalArgumentException");
@@ -124,7 +123,7 @@ public class BakersDozenTableauStrategyTest {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
 				assertTrue("Only the card which is currently at the top of the Tableau pile can be removed",
-						strategy.isRemovingLegal(new Card(suit, rank)));
+						strategy.isRemovingLegal(Card.of(suit, rank)));
 			}
 		}
 		assertFalse("It is impossible to remove a card from an empty pile",
@@ -134,9 +133,9 @@ public class BakersDozenTableauStrategyTest {
 	private void testMoveKingsDown(ArrayList<Card> pile) throws Exception {
 		ArrayList<Card> cards = new ArrayList<Card>();
 		cards.addAll(pile);
-		Method method = BakersDozenTableauStrategy.class.getDeclaredMethod("moveKingsDown", ArrayList.class);
+		Method method = BakersDozenTableauStrategy.class.getDeclaredMethod("moveKingsDown", Card[].class);
 		method.setAccessible(true);
-		Stack<Card> handled = (Stack<Card>) method.invoke(strategy, pile);
+		Stack<Card> handled = (Stack<Card>) method.invoke(strategy, (Object) pile.toArray(new Card[0]));
 		ArrayList<Card> actual = new ArrayList<Card>();
 		actual.addAll(handled);
 		
@@ -47,11 +47,11 @@ public class FreecellFreecellStrategyTest {
 			for(Rank rank : ranks) {
 				int suitsIndex = rand.nextInt(4);
 				int ranksIndex = rand.nextInt(13);
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("Any card can be added to an empty pile",
 						strategy.isAddingLegal(card, null));
 				assertFalse("Cards cannot be added to a pile that already has a card",
-						strategy.isAddingLegal(card, new Card(suits[suitsIndex], ranks[ranksIndex])));
+						strategy.isAddingLegal(card, Card.of(suits[suitsIndex], ranks[ranksIndex])));
 			}
 		}
 	}
@@ -61,7 +61,7 @@ public class FreecellFreecellStrategyTest {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
 				try {
-					strategy.isAddingLegal(null, new Card(suit, rank));
+					strategy.isAddingLegal(null, Card.of(suit, rank));
 					fail("Adding null to a pile should produce IllegalArgumentException");
 				} catch(IllegalArgumentException e) {
 					// expected
@@ -81,7 +81,7 @@ public class FreecellFreecellStrategyTest {
 	public void testIsRemovingLegal() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				assertTrue("Cards can always be removed", strategy.isRemovingLegal(card));
 				assertFalse("It is impossible to remove a card from an empty pile",
 						strategy.isRemovingLegal(null));
@@ -50,28 +50,28 @@ public class FreecellTableauStrategyTest {
 	@Test
 	public void testIsAddingLegal() {
 		assertTrue("Moving five of spades onto six of hearts is legal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.FIVE), new Card(Suit.HEART, Rank.SIX)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.FIVE), Card.of(Suit.HEART, Rank.SIX)));
 		assertTrue("Moving ace of diamonds on to two of clubs is legal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.ACE), new Card(Suit.CLUB, Rank.TWO)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.ACE), Card.of(Suit.CLUB, Rank.TWO)));
 		assertTrue("Moving queen of hearts onto king of spades is legal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.QUEEN), new Card(Suit.SPADE, Rank.KING)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.QUEEN), Card.of(Suit.SPADE, Rank.KING)));
 		assertFalse("Moving seven of spades onto eight of spades is illegal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.SEVEN), new Card(Suit.SPADE, Rank.EIGHT)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.SEVEN), Card.of(Suit.SPADE, Rank.EIGHT)));
 		assertFalse("Moving jack of hearts onto queen of diamonds is illegal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.JACK), new Card(Suit.DIAMOND, Rank.QUEEN)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.JACK), Card.of(Suit.DIAMOND, Rank.QUEEN)));
 		assertFalse("Moving two of hearts onto four of spades is illegal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.TWO), new Card(Suit.SPADE, Rank.FOUR)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.TWO), Card.of(Suit.SPADE, Rank.FOUR)));
 		assertFalse("Moving three of diamonds onto three of diamonds is illegal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.THREE), new Card(Suit.DIAMOND, Rank.THREE)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.THREE), Card.of(Suit.DIAMOND, Rank.THREE)));
 		assertFalse("Moving seven of clubs onto three of hearts is illegal",
-				strategy.isAddingLegal(new Card(Suit.CLUB, Rank.SEVEN), new Card(Suit.HEART, Rank.THREE)));
+				strategy.isAddingLegal(Card.of(Suit.CLUB, Rank.SEVEN), Card.of(Suit.HEART, Rank.THREE)));
 	}
 
 	@Test
 	public void testIsAddingLegalWithNull() {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
-				Card card = new Card(suit, rank);
+				Card card = Card.of(suit, rank);
 				try {
 					strategy.isAddingLegal(null, card);
 					fail("Adding null to a pile should produce IllegalArgumentException");
@@ -97,7 +97,7 @@ public class FreecellTableauStrategyTest {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
 				assertTrue("Only the card which is currently at the top of the Tableau pile can be removed",
-						strategy.isRemovingLegal(new Card(suit, rank)));
+						strategy.isRemovingLegal(Card.of(suit, rank)));
 			}
 		}
 		assertFalse("It is impossible to remove a card from an empty pile",
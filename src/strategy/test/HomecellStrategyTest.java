@@ -39,29 +39,29 @@ public class HomecellStrategyTest {
 	@Test
 	public void testIsAddingLegal() {
 		assertTrue("Moving three of spades onto two of spades is legal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.THREE), new Card(Suit.SPADE, Rank.TWO)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.THREE), Card.of(Suit.SPADE, Rank.TWO)));
 		assertTrue("Moving seven of hearts onto six of hearts is legal",
-				strategy.isAddingLegal(new Card(Suit.HEART, Rank.SEVEN), new Card(Suit.HEART, Rank.SIX)));
+				strategy.isAddingLegal(Card.of(Suit.HEART, Rank.SEVEN), Card.of(Suit.HEART, Rank.SIX)));
 		assertTrue("Moving jack of diamonds onto ten of diamonds is legal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.JACK), new Card(Suit.DIAMOND, Rank.TEN)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.JACK), Card.of(Suit.DIAMOND, Rank.TEN)));
 		assertFalse("Moving two of spades onto ace of clubs is illegal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.TWO), new Card(Suit.CLUB, Rank.ACE)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.TWO), Card.of(Suit.CLUB, Rank.ACE)));
 		assertFalse("Moving four of diamonds onto three of clubs is illegal",
-				strategy.isAddingLegal(new Card(Suit.DIAMOND, Rank.FOUR), new Card(Suit.CLUB, Rank.THREE)));
+				strategy.isAddingLegal(Card.of(Suit.DIAMOND, Rank.FOUR), Card.of(Suit.CLUB, Rank.THREE)));
 		assertFalse("Moving queen of clubs onto king of clubs is illegal",
-				strategy.isAddingLegal(new Card(Suit.CLUB, Rank.QUEEN), new Card(Suit.CLUB, Rank.KING)));
+				strategy.isAddingLegal(Card.of(Suit.CLUB, Rank.QUEEN), Card.of(Suit.CLUB, Rank.KING)));
 		assertFalse("Moving six of spades onto four of spades is illegal",
-				strategy.isAddingLegal(new Card(Suit.SPADE, Rank.SIX), new Card(Suit.SPADE, Rank.FOUR)));
+				strategy.isAddingLegal(Card.of(Suit.SPADE, Rank.SIX), Card.of(Suit.SPADE, Rank.FOUR)));
 		
 		for(Suit suit : Suit.values()) {
 			assertTrue("Any aces can be added to an empty Homecell",
-					strategy.isAddingLegal(new Card(suit, Rank.ACE), null));
+					strategy.isAddingLegal(Card.of(suit, Rank.ACE), null));
 			assertFalse("Only aces can be added to an empty Homecell",
-					strategy.isAddingLegal(new Card(suit, Rank.TWO), null));
+					strategy.isAddingLegal(Card.of(suit, Rank.TWO), null));
 			assertFalse("Only aces can be added to an empty Homecell",
-					strategy.isAddingLegal(new Card(suit, Rank.THREE), null));
+					strategy.isAddingLegal(Card.of(suit, Rank.THREE), null));
 			assertFalse("Only aces can be added to an empty Homecell",
-					strategy.isAddingLegal(new Card(suit, Rank.SEVEN), null));
+					strategy.isAddingLegal(Card.of(suit, Rank.SEVEN), null));
 		}
 	}
 	
@@ -70,7 +70,7 @@ public class HomecellStrategyTest {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
 				try {
-					strategy.isAddingLegal(null, new Card(suit, rank));
+					strategy.isAddingLegal(null, Card.of(suit, rank));
 					fail("Adding null to a pile should produce IllegalArgumentException");
 				} catch(IllegalArgumentException e) {
 					// expected
@@ -91,7 +91,7 @@ public class HomecellStrategyTest {
 		for(Suit suit : Suit.values()) {
 			for(Rank rank : Rank.values()) {
 				assertFalse("Cards cannot be removed from a Homecell pile",
-						strategy.isRemovingLegal(new Card(suit, rank)));
+						strategy.isRemovingLegal(Card.of(suit, rank)));
 				assertFalse("It is impossible to remove a card from an empty pile",
 						strategy.isRemovingLegal(null));
 			}
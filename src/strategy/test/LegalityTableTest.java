@@ -0,0 +1,60 @@
+package strategy.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import abstraction.Card;
+import strategy.AcesUpHomecellStrategy;
+import strategy.AcesUpStockStrategy;
+import strategy.AcesUpTableauStrategy;
+import strategy.BakersDozenTableauStrategy;
+import strategy.FreecellFreecellStrategy;
+import strategy.FreecellTableauStrategy;
+import strategy.HomecellStrategy;
+import strategy.LegalityTable;
+import strategy.PileStrategy;
+
+public class LegalityTableTest {
+	private static final PileStrategy [] STRATEGIES = {
+			new FreecellTableauStrategy(), new FreecellFreecellStrategy(), new HomecellStrategy(),
+			new BakersDozenTableauStrategy(), new AcesUpTableauStrategy(), new AcesUpHomecellStrategy(),
+			new AcesUpStockStrategy() };
+	
+	@Test
+	public void testTableAgreesWithStrategy() {
+		for(PileStrategy strategy : STRATEGIES) {
+			LegalityTable table = LegalityTable.compile(strategy);
+			for(int top = Card.NO_CARD; top < Card.NUM_CARDS; top++) {
+				long legalCards = 0;
+				for(int card = 0; card < Card.NUM_CARDS; card++) {
+					boolean expected = strategy.isAddingLegal(Card.fromOrdinal(card), Card.fromOrdinal(top));
+					assertEquals(strategy.getClass().getSimpleName() + " adding " + Card.fromOrdinal(card)
+							+ " onto " + Card.fromOrdinal(top), expected, table.isAddingLegal(card, top));
+					if(expected) {
+						legalCards |= 1L << card;
+					}
+				}
+				assertEquals("getLegalCards() must agree with isAddingLegal()", legalCards, table.getLegalCards(top));
+			}
+		}
+	}
+	
+	@Test
+	public void testOfCachesTables() {
+		assertSame("Strategies of the same class must share a table",
+				LegalityTable.of(new HomecellStrategy()), LegalityTable.of(new HomecellStrategy()));
+		assertNotSame("A subclass with different rules must have its own table",
+				LegalityTable.of(new HomecellStrategy()), LegalityTable.of(new AcesUpHomecellStrategy()));
+	}
+	
+	@Test
+	public void testCompileWithBadInputs() {
+		try {
+			LegalityTable.compile(null);
+			fail("compile() must not accept a null strategy");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -24,12 +24,12 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.border.Border;
 
-import abstraction.Rank;
-import abstraction.Suit;
+import abstraction.Card;
 import controller.Controller;
 import model.AcesUpGame;
 import model.BakersDozenGame;
 import model.FreecellGame;
+import session.SessionRegistry;
 
 /**
  * UI is an observer. It receives update notifications from observables which it subscribes to.
@@ -81,10 +81,12 @@ public class UI implements Runnable {
 	 * _tileImages     - images that will be used to represent tiles.
 	 * _tilesInDisplay - tiles which are currently displayed on screen.
 	 * _frame          - a window which the user will be using.
+	 * _controller     - the controller of the games played in this window.
 	 */
 	private HashMap<String, ImageIcon> _tileImages;
 	private ArrayList<ArrayList<JLabel>> _tilesInDisplay;
 	private JFrame _frame;
+	private Controller _controller;
 	
 	/**
 	 * Creates and initializes a UI instance and then subscribe the observables automatically.
@@ -92,13 +94,24 @@ public class UI implements Runnable {
 	 * @author Frank
 	 */
 	public UI() {
+		this(new SessionRegistry());
+	}
+
+	/**
+	 * Creates and initializes a UI instance whose games are registered in a registry shared with
+	 * other windows.
+	 * 
+	 * @param registry - the registry of the sessions.
+	 * @throws IllegalArgumentException if registry is {@code null}.
+	 */
+	public UI(SessionRegistry registry) {
 		/**
 		 * All images must be loaded to memory when an instance of UI is constructed.
 		 * The mapping rule is as follow: (filename) maps to (imageIcon of that file)
 		 */
 		_tileImages = new HashMap<String, ImageIcon>();
 		_tilesInDisplay = new ArrayList<ArrayList<JLabel>>();
-		Controller.registerObserver(this);
+		_controller = new Controller(this, registry);
 		loadImages();
 		initializeTilesInDisplay();
 	}
@@ -302,6 +315,15 @@ public class UI implements Runnable {
 		JOptionPane.showMessageDialog(_frame, message, "NOPE", JOptionPane.PLAIN_MESSAGE);
 	}
 
+	/**
+	 * Displays a message telling the player that the game is over.
+	 * @param won - whether the game was won, otherwise no move is left.
+	 */
+	public void displayGameOverMessage(boolean won) {
+		String message = won ? "You won!" : "No moves left. Start a new game from the menu.";
+		JOptionPane.showMessageDialog(_frame, message, "Game over", JOptionPane.PLAIN_MESSAGE);
+	}
+
 	/**
 	 * Checks whether or not the specified location is in bounds.
 	 * 
@@ -360,21 +382,21 @@ public class UI implements Runnable {
 		bakersDozen.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				Controller.instantiateGame(BakersDozenGame.GAME_ID);
+				_controller.instantiateGame(BakersDozenGame.GAME_ID);
 			}
 		});
 		JMenuItem freecell = new JMenuItem("Freecell");
 		freecell.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				Controller.instantiateGame(FreecellGame.GAME_ID);
+				_controller.instantiateGame(FreecellGame.GAME_ID);
 			}
 		});
 		JMenuItem acesUp = new JMenuItem("Ace's Up");
 		acesUp.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				Controller.instantiateGame(AcesUpGame.GAME_ID);
+				_controller.instantiateGame(AcesUpGame.GAME_ID);
 			}
 		});
 		JMenuItem easterEgg = new JMenuItem("???");
@@ -417,7 +439,15 @@ public class UI implements Runnable {
 				}
 			}
 		});
+		JMenuItem hint = new JMenuItem("Hint");
+		hint.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				_controller.hint();
+			}
+		});
 		menubar.add(newGameMenu);
+		menubar.add(hint);
 		menubar.add(quit);
 		for (ArrayList<JLabel> row : _tilesInDisplay) {
 			for (JLabel col : row) {
@@ -445,11 +475,8 @@ public class UI implements Runnable {
 	 * @author Frank
 	 */
 	private void loadImages() {
-		for (Suit suit : Suit.values()) {
-			for (Rank rank : Rank.values()) {
-				String imageName = rank.rank() + suit.suit();
-				loadSingleImage(imageName);
-			}
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			loadSingleImage(Card.fromOrdinal(i).toString());
 		}
 
 		loadSingleImage("green");